@@ -0,0 +1,60 @@
+package asia.fourtitude.interviewq.jumble;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import asia.fourtitude.interviewq.jumble.util.WorkerThreads;
+
+/**
+ * Virtual threads (Java 21+), only compiled with the "virtual-threads"
+ * profile: Tomcat handles each request on its own virtual thread, streamed
+ * responses are written on virtual threads, and the background work (see
+ * {@link WorkerThreads}) runs on virtual threads.
+ *
+ * On by default in that build; "jumble.threads.virtual=false" falls back
+ * to platform threads, to compare both modes on the same JDK.
+ */
+@Configuration
+@ConditionalOnProperty(name = "jumble.threads.virtual", havingValue = "true", matchIfMissing = true)
+public class VirtualThreadsConfig implements WebMvcConfigurer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+
+    private final ExecutorService requestExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("http-virtual-", 0).factory());
+
+    private final ExecutorService asyncExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("mvc-async-virtual-", 0).factory());
+
+    @Bean
+    public WorkerThreads workerThreads() {
+        LOG.info("Background work on virtual threads");
+        // virtual threads are always daemon
+        return (name, task) -> Thread.ofVirtual().name(name).unstarted(task);
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizer() {
+        return protocolHandler -> {
+            LOG.info("Requests on virtual threads, handler=[{}]", protocolHandler);
+            protocolHandler.setExecutor(requestExecutor);
+        };
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(new ConcurrentTaskExecutor(asyncExecutor));
+    }
+
+}
@@ -0,0 +1,176 @@
+package asia.fourtitude.interviewq.jumble;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop load on the game API of a running instance, to compare the
+ * thread modes (platform, or virtual with the "virtual-threads" profile).
+ *
+ * Each client (one thread, one keep-alive connection) plays in a loop:
+ * creates a game (GET /api/game/new), then makes `guesses` wrong guesses
+ * (POST /api/game/guess). Reports throughput and latency percentiles of
+ * all requests. Only depends on the JDK, run from the test classes:
+ *
+ * <pre>
+ * java -cp target/test-classes asia.fourtitude.interviewq.jumble.GameApiLoad http://localhost:8080 400 60 4
+ * </pre>
+ *
+ * Arguments: base URL, clients (default 200), duration in seconds (default
+ * 30), guesses per game (default 4). The first 5 seconds are warm-up, not
+ * measured.
+ */
+public final class GameApiLoad {
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*\"([^\"]+)\"");
+
+    private static final long WARMUP_NANOS = 5_000_000_000L;
+
+    private GameApiLoad() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int guesses = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+        // one kept-alive connection per client, not the default 5 in total
+        System.setProperty("http.maxConnections", String.valueOf(clients));
+
+        long start = System.nanoTime();
+        long measureFrom = start + WARMUP_NANOS;
+        long deadline = measureFrom + seconds * 1_000_000_000L;
+        LongAdder errors = new LongAdder();
+        long[][] latencies = new long[clients][];
+        int[] counts = new int[clients];
+        CountDownLatch done = new CountDownLatch(clients);
+        for (int client = 0; client < clients; client++) {
+            int index = client;
+            Thread thread = new Thread(() -> {
+                try {
+                    long[] own = new long[1 << 16];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long begin = System.nanoTime();
+                        String created = request(baseUrl + "/api/game/new", null);
+                        long end = System.nanoTime();
+                        Matcher id = created == null ? null : ID.matcher(created);
+                        if (id == null || ! id.find()) {
+                            errors.increment();
+                            continue;
+                        }
+                        if (begin >= measureFrom) {
+                            own = record(own, count++, end - begin);
+                        }
+                        for (int guess = 0; guess < guesses && System.nanoTime() < deadline; guess++) {
+                            begin = System.nanoTime();
+                            String result = request(baseUrl + "/api/game/guess",
+                                    "{\"id\":\"" + id.group(1) + "\",\"word\":\"zzzzzz\"}");
+                            end = System.nanoTime();
+                            if (result == null) {
+                                errors.increment();
+                            } else if (begin >= measureFrom) {
+                                own = record(own, count++, end - begin);
+                            }
+                        }
+                    }
+                    latencies[index] = own;
+                    counts[index] = count;
+                } finally {
+                    done.countDown();
+                }
+            }, "load-client-" + client);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        long[] all = new long[total];
+        int pos = 0;
+        for (int client = 0; client < clients; client++) {
+            if (counts[client] > 0) {
+                System.arraycopy(latencies[client], 0, all, pos, counts[client]);
+            }
+            pos += counts[client];
+        }
+        Arrays.sort(all);
+
+        System.out.printf("url=[%s], clients=[%d], seconds=[%d], guesses=[%d]%n", baseUrl, clients, seconds, guesses);
+        System.out.printf("requests=[%d], errors=[%d], throughput=[%.0f req/s]%n", total, errors.sum(), total / (double) seconds);
+        System.out.printf("latency ms: p50=[%.2f], p90=[%.2f], p99=[%.2f], p999=[%.2f], max=[%.2f]%n",
+                percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99), percentile(all, 0.999),
+                all.length == 0 ? 0 : all[all.length - 1] / 1e6);
+    }
+
+    private static long[] record(long[] samples, int count, long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, samples.length * 2);
+        }
+        samples[count] = nanos;
+        return samples;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, (long) (sorted.length * percentile))] / 1e6;
+    }
+
+    /*
+     * GET without `body`, else POST of JSON `body`. Returns the response
+     * body of a 2xx, otherwise null.
+     */
+    private static String request(String url, String body) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setConnectTimeout(10_000);
+            connection.setReadTimeout(30_000);
+            if (body != null) {
+                connection.setRequestMethod("POST");
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", "application/json");
+                try (OutputStream out = connection.getOutputStream()) {
+                    out.write(body.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            int status = connection.getResponseCode();
+            InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+            String response = read(in);
+            return status / 100 == 2 ? response : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String read(InputStream in) throws IOException {
+        if (in == null) {
+            return "";
+        }
+        // read fully, so the connection goes back to the keep-alive cache
+        try (InputStream input = in) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = input.read(buffer)) >= 0) {
+                bytes.write(buffer, 0, read);
+            }
+            return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+}
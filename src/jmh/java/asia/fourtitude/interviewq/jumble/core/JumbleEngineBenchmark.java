@@ -0,0 +1,129 @@
+package asia.fourtitude.interviewq.jumble.core;
+
+import java.util.Collection;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import asia.fourtitude.interviewq.jumble.dictionary.Dictionary;
+import asia.fourtitude.interviewq.jumble.dictionary.SyntheticDictionary;
+import asia.fourtitude.interviewq.jumble.exception.GoodQuestionException;
+
+/**
+ * Throughput of every public JumbleEngine operation, over the bundled word
+ * list and over synthetic dictionaries of 1M and 10M words.
+ *
+ * Collection results are iterated (as a serializer would), so lazy views
+ * are not measured as free. Run with "-prof gc" for allocation rate (the
+ * profile default), e.g.
+ *
+ *   ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="JumbleEngineBenchmark -prof gc -p dictionary=bundled"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx6g" })
+public class JumbleEngineBenchmark {
+
+    private static final int PROBES = 1024;
+
+    @Param({ SyntheticDictionary.BUNDLED, "1000000", "10000000" })
+    String dictionary;
+
+    JumbleEngine engine;
+
+    String[] words;
+
+    String[] sixLetterWords;
+
+    String[] prefixes;
+
+    char[] letters;
+
+    int next;
+
+    @Setup
+    public void setup() {
+        Dictionary snapshot = SyntheticDictionary.create(dictionary);
+        engine = new JumbleEngine(snapshot);
+
+        Random random = new Random(7);
+        words = new String[PROBES];
+        sixLetterWords = new String[PROBES];
+        prefixes = new String[PROBES];
+        letters = new char[PROBES];
+        for (int pos = 0; pos < PROBES; pos++) {
+            words[pos] = snapshot.word(random.nextInt(snapshot.size()));
+            sixLetterWords[pos] = snapshot.randomWord(6);
+            prefixes[pos] = sixLetterWords[pos].substring(0, 3);
+            letters[pos] = (char) ('a' + random.nextInt(26));
+        }
+    }
+
+    private int next() {
+        next = (next + 1) & (PROBES - 1);
+        return next;
+    }
+
+    private static void consume(Collection<String> words, Blackhole blackhole) {
+        for (String word : words) {
+            blackhole.consume(word);
+        }
+    }
+
+    @Benchmark
+    public String scramble() {
+        return engine.scramble(sixLetterWords[next()]);
+    }
+
+    @Benchmark
+    public boolean exists() {
+        return engine.exists(words[next()]);
+    }
+
+    @Benchmark
+    public void wordsMatchingPrefix(Blackhole blackhole) {
+        consume(engine.wordsMatchingPrefix(prefixes[next()]), blackhole);
+    }
+
+    @Benchmark
+    public void searchWords(Blackhole blackhole) {
+        int pos = next();
+        consume(engine.searchWords(letters[pos], letters[PROBES - 1 - pos], 7), blackhole);
+    }
+
+    @Benchmark
+    public String pickOneRandomWord() {
+        return engine.pickOneRandomWord(6);
+    }
+
+    @Benchmark
+    public void retrievePalindromeWords(Blackhole blackhole) {
+        consume(engine.retrievePalindromeWords(), blackhole);
+    }
+
+    @Benchmark
+    public void generateSubWords(Blackhole blackhole) throws GoodQuestionException {
+        consume(engine.generateSubWords(sixLetterWords[next()], 3), blackhole);
+    }
+
+    @Benchmark
+    public GameState createGameState() throws GoodQuestionException {
+        return engine.createGameState(6, 3);
+    }
+
+}
@@ -0,0 +1,46 @@
+package asia.fourtitude.interviewq.jumble.dictionary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import asia.fourtitude.interviewq.jumble.util.Constant;
+
+/**
+ * Dictionaries for benchmarks: the bundled word list, or `size` random
+ * lowercase words of 3 to 12 letters (fixed seed, so runs are comparable).
+ */
+public final class SyntheticDictionary {
+
+    public static final String BUNDLED = "bundled";
+
+    private SyntheticDictionary() {
+    }
+
+    /**
+     * @param spec  "bundled", or the number of synthetic words.
+     * @return  The dictionary.
+     */
+    public static Dictionary create(String spec) {
+        if (BUNDLED.equals(spec)) {
+            return Dictionary.loadResource(Constant.FILE_PATH);
+        }
+        int size = Integer.parseInt(spec);
+        Random random = new Random(42);
+        List<String> words = new ArrayList<>(size);
+        for (int pos = 0; pos < size; pos++) {
+            words.add(randomWord(random));
+        }
+        return Dictionary.of(words);
+    }
+
+    public static String randomWord(Random random) {
+        int length = 3 + random.nextInt(10);
+        char[] chars = new char[length];
+        for (int pos = 0; pos < length; pos++) {
+            chars[pos] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+
+}
@@ -0,0 +1,62 @@
+package asia.fourtitude.interviewq.jumble.dictionary;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Shows `Dictionary#contains` cost stays flat as the dictionary grows.
+ *
+ * Half of the probes are hits (in mixed case), half are misses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WordHashIndexBenchmark {
+
+    private static final int PROBES = 4096;
+
+    @Param({ "10000", "100000", "1000000", "4000000" })
+    int size;
+
+    Dictionary dictionary;
+
+    String[] probes;
+
+    int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(7);
+        dictionary = SyntheticDictionary.create(Integer.toString(size));
+
+        probes = new String[PROBES];
+        for (int pos = 0; pos < PROBES; pos++) {
+            probes[pos] = (pos % 2 == 0)
+                    ? dictionary.word(random.nextInt(dictionary.size())).toUpperCase(Locale.ROOT)
+                    : SyntheticDictionary.randomWord(random) + "-";
+        }
+    }
+
+    @Benchmark
+    public boolean contains() {
+        next = (next + 1) & (PROBES - 1);
+        return dictionary.contains(probes[next]);
+    }
+
+}
@@ -1,16 +1,176 @@
 package asia.fourtitude.interviewq.jumble;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import asia.fourtitude.interviewq.jumble.cluster.GameCluster;
+import asia.fourtitude.interviewq.jumble.core.BulkGameCreator;
+import asia.fourtitude.interviewq.jumble.core.Bulkhead;
+import asia.fourtitude.interviewq.jumble.core.Bulkheads;
+import asia.fourtitude.interviewq.jumble.core.GameStatePool;
 import asia.fourtitude.interviewq.jumble.core.JumbleEngine;
+import asia.fourtitude.interviewq.jumble.dictionary.Dictionary;
+import asia.fourtitude.interviewq.jumble.dictionary.DictionaryWatcher;
+import asia.fourtitude.interviewq.jumble.dictionary.WordWeights;
+import asia.fourtitude.interviewq.jumble.repository.GameRepository;
+import asia.fourtitude.interviewq.jumble.repository.GameJournal;
+import asia.fourtitude.interviewq.jumble.repository.InMemoryGameRepository;
+import asia.fourtitude.interviewq.jumble.repository.JournaledGameRepository;
+import asia.fourtitude.interviewq.jumble.repository.OffHeapGameRepository;
+import asia.fourtitude.interviewq.jumble.util.WorkerThreads;
 
 @Configuration
 public class AppConfig {
 
+    /*
+     * Threads of the background work: virtual when built with the
+     * "virtual-threads" profile (which provides the bean), else platform.
+     */
+    private static WorkerThreads workerThreads(ObjectProvider<WorkerThreads> workerThreads) {
+        return workerThreads.getIfAvailable(() -> WorkerThreads.PLATFORM);
+    }
+
+    /*
+     * External word list ("jumble.dictionary.path"), if set, is watched and
+     * hot-reloaded. Otherwise the bundled word list is used.
+     * Word weights ("jumble.dictionary.weights-path"), if set, rank the
+     * autocomplete with a limit.
+     */
+    @Bean
+    public JumbleEngine jumbleEngine(
+            @Value("${jumble.dictionary.path:}") String dictionaryPath,
+            @Value("${jumble.dictionary.weights-path:}") String weightsPath) throws IOException {
+        JumbleEngine jumbleEngine = StringUtils.isBlank(dictionaryPath)
+                ? new JumbleEngine()
+                : new JumbleEngine(Dictionary.loadFile(Paths.get(dictionaryPath)));
+        if (StringUtils.isNotBlank(weightsPath)) {
+            jumbleEngine.setWordWeights(WordWeights.loadFile(Paths.get(weightsPath)));
+        }
+        return jumbleEngine;
+    }
+
+    @Bean(destroyMethod = "close")
+    public DictionaryWatcher dictionaryWatcher(
+            @Value("${jumble.dictionary.path:}") String dictionaryPath,
+            JumbleEngine jumbleEngine,
+            ObjectProvider<WorkerThreads> workerThreads) throws IOException {
+        if (StringUtils.isBlank(dictionaryPath)) {
+            return null;
+        }
+        Path path = Paths.get(dictionaryPath);
+        DictionaryWatcher watcher = new DictionaryWatcher(path, jumbleEngine::replaceDictionary,
+                jumbleEngine.getDictionary(), workerThreads(workerThreads));
+        watcher.start();
+        return watcher;
+    }
+
+    /*
+     * Ready-made games for the new game endpoints (6 letters word, sub
+     * words of 3 letters or more), refilled in background.
+     */
+    @Bean(destroyMethod = "close")
+    public GameStatePool gameStatePool(
+            JumbleEngine jumbleEngine,
+            @Value("${jumble.game.pool.low-watermark:16}") int lowWatermark,
+            @Value("${jumble.game.pool.high-watermark:64}") int highWatermark,
+            ObjectProvider<WorkerThreads> workerThreads) {
+        GameStatePool pool = new GameStatePool(jumbleEngine, lowWatermark, highWatermark, workerThreads(workerThreads));
+        pool.prefill(6, 3);
+        return pool;
+    }
+
+    /*
+     * Creates the games of bulk new game requests, on
+     * "jumble.game.bulk.threads" worker threads (0: number of processors).
+     */
+    @Bean(destroyMethod = "close")
+    public BulkGameCreator bulkGameCreator(
+            JumbleEngine jumbleEngine,
+            @Value("${jumble.game.bulk.threads:0}") int threads,
+            ObjectProvider<WorkerThreads> workerThreads) {
+        return new BulkGameCreator(jumbleEngine, threads, workerThreads(workerThreads));
+    }
+
+    /*
+     * Executors of the asynchronous endpoints: cheap lookups and expensive
+     * generation each get their own threads, queue and timeout, so
+     * saturated generation does not delay lookups.
+     */
+    @Bean(destroyMethod = "close")
+    public Bulkheads bulkheads(
+            @Value("${jumble.bulkhead.lookup.threads:8}") int lookupThreads,
+            @Value("${jumble.bulkhead.lookup.queue:256}") int lookupQueue,
+            @Value("${jumble.bulkhead.lookup.timeout:1s}") Duration lookupTimeout,
+            @Value("${jumble.bulkhead.generation.threads:4}") int generationThreads,
+            @Value("${jumble.bulkhead.generation.queue:32}") int generationQueue,
+            @Value("${jumble.bulkhead.generation.timeout:10s}") Duration generationTimeout,
+            ObjectProvider<WorkerThreads> workerThreads) {
+        return new Bulkheads(
+                new Bulkhead("lookup", lookupThreads, lookupQueue, lookupTimeout, workerThreads(workerThreads)),
+                new Bulkhead("generation", generationThreads, generationQueue, generationTimeout, workerThreads(workerThreads)));
+    }
+
+    /*
+     * Game boards/states of the REST API: at most "jumble.game.max-entries"
+     * games, and games idle for "jumble.game.idle-timeout" are expired.
+     * With "jumble.game.store" of "off-heap", games are kept in direct
+     * memory (sized by "jumble.game.off-heap.max-solutions").
+     * With "jumble.game.journal.dir" set, games are journaled there and
+     * recovered on restart.
+     */
+    @Bean(destroyMethod = "close")
+    public GameRepository gameRepository(
+            JumbleEngine jumbleEngine,
+            @Value("${jumble.game.max-entries:100000}") int maxEntries,
+            @Value("${jumble.game.idle-timeout:30m}") Duration idleTimeout,
+            @Value("${jumble.game.store:heap}") String store,
+            @Value("${jumble.game.off-heap.max-solutions:256}") int maxSolutions,
+            @Value("${jumble.game.journal.dir:}") String journalDir,
+            @Value("${jumble.game.journal.strict:false}") boolean strict,
+            @Value("${jumble.game.journal.snapshot-interval:5m}") Duration snapshotInterval) throws IOException {
+        GameRepository repository;
+        if ("off-heap".equals(store)) {
+            repository = new OffHeapGameRepository(maxEntries, idleTimeout, maxSolutions);
+        } else if ("heap".equals(store)) {
+            repository = new InMemoryGameRepository(maxEntries, idleTimeout);
+        } else {
+            throw new IllegalArgumentException("Invalid jumble.game.store=[" + store + "], expect heap or off-heap");
+        }
+        if (StringUtils.isBlank(journalDir)) {
+            return repository;
+        }
+        GameJournal journal = new GameJournal(Paths.get(journalDir), strict);
+        return new JournaledGameRepository(repository, journal, jumbleEngine, snapshotInterval);
+    }
+
+    /*
+     * Instances sharing the games of the REST API ("jumble.cluster.nodes",
+     * base URLs, this one being "jumble.cluster.self"), all configured
+     * with the same "jumble.cluster.secret". Unset: this instance owns
+     * every game.
+     */
     @Bean
-    public JumbleEngine jumbleEngine() {
-        return new JumbleEngine();
+    public GameCluster gameCluster(
+            @Value("${jumble.cluster.self:}") String self,
+            @Value("${jumble.cluster.nodes:}") String nodes,
+            @Value("${jumble.cluster.timeout:2s}") Duration timeout,
+            @Value("${jumble.cluster.secret:}") String secret) {
+        if (StringUtils.isBlank(self)) {
+            return GameCluster.standalone();
+        }
+        if (StringUtils.isBlank(secret)) {
+            throw new IllegalArgumentException("Invalid jumble.cluster.secret=[], expect a secret shared by the nodes");
+        }
+        return new GameCluster(self, Arrays.asList(StringUtils.split(nodes, ',')), timeout, secret);
     }
 
 }
@@ -0,0 +1,396 @@
+package asia.fourtitude.interviewq.jumble.cluster;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import asia.fourtitude.interviewq.jumble.dictionary.Dictionary;
+import asia.fourtitude.interviewq.jumble.model.GameGuessModel;
+import asia.fourtitude.interviewq.jumble.repository.GameRecord;
+import asia.fourtitude.interviewq.jumble.repository.GameRepository;
+
+/**
+ * This instance's view of the cluster of instances sharing the games of
+ * the REST API.
+ *
+ * Every game is owned by exactly one instance, chosen by hashing its `id`
+ * on a {@link HashRing} of the instances (their base URLs). New games get
+ * an `id` owned by the instance creating them, so creation never needs to
+ * forward. A request on a game owned by another instance is forwarded to
+ * it once (marked with {@link #FORWARDED_HEADER}, never forwarded again).
+ *
+ * Rebalancing: when the nodes change, each instance installs the new ring
+ * and hands off the games it no longer owns to their new owner. Until its
+ * hand-off lands, a moving game is still owned (served) here; a game
+ * guessed meanwhile is sent again, and the new owner merges the guesses.
+ * An instance left out of the new ring hands off all its games, and can
+ * be stopped.
+ *
+ * The instances share a secret, sent as {@link #SECRET_HEADER} with every
+ * request to another instance; the cluster endpoints changing the ring or
+ * the games ({@link #isAuthorized}) refuse requests without it.
+ */
+public class GameCluster {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GameCluster.class);
+
+    /**
+     * Marks a forwarded request, so a node that disagrees on the ring
+     * serves it locally instead of bouncing it around.
+     */
+    public static final String FORWARDED_HEADER = "X-Jumble-Forwarded";
+
+    /**
+     * Carries the cluster secret on requests between instances.
+     */
+    public static final String SECRET_HEADER = "X-Jumble-Cluster-Secret";
+
+    static final String GAMES_PATH = "/api/cluster/games";
+
+    /*
+     * Games per hand-off request.
+     */
+    static final int HANDOFF_BATCH_SIZE = 500;
+
+    private final String self;
+
+    private final byte[] secret;
+
+    private volatile HashRing ring;
+
+    /*
+     * Games of this instance the ring moved elsewhere, still owned here
+     * until their hand-off lands.
+     */
+    private final Set<String> handingOff = ConcurrentHashMap.newKeySet();
+
+    private final RestTemplate restTemplate;
+
+    /**
+     * A cluster without secret: its cluster endpoints refuse every request.
+     */
+    public GameCluster(String self, Collection<String> nodes, Duration timeout) {
+        this(self, nodes, timeout, null);
+    }
+
+    /**
+     * @param self     Base URL of this instance, as in `nodes`.
+     * @param nodes    Base URLs of all instances, `self` included.
+     * @param timeout  Connect and read timeout when talking to another instance.
+     * @param secret   Shared by all instances, null or empty for none.
+     */
+    public GameCluster(String self, Collection<String> nodes, Duration timeout, String secret) {
+        this.self = normalize(self);
+        this.secret = secret == null || secret.isEmpty() ? null : secret.getBytes(StandardCharsets.UTF_8);
+        this.ring = ring(nodes);
+        if (! this.ring.getNodes().contains(this.self)) {
+            throw new IllegalArgumentException("Expect self=[" + this.self + "] in nodes=[" + nodes + "]");
+        }
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout((int) timeout.toMillis());
+        factory.setReadTimeout((int) timeout.toMillis());
+        this.restTemplate = new RestTemplate(factory);
+        // statuses of the owner are passed through as is
+        this.restTemplate.setErrorHandler(new DefaultResponseErrorHandler() {
+
+            @Override
+            public boolean hasError(ClientHttpResponse response) {
+                return false;
+            }
+
+        });
+    }
+
+    /**
+     * @return  A single instance "cluster", owning every game.
+     */
+    public static GameCluster standalone() {
+        return new GameCluster("local", Collections.singletonList("local"), Duration.ofSeconds(1));
+    }
+
+    private static String normalize(String node) {
+        String trimmed = node.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+    private static HashRing ring(Collection<String> nodes) {
+        List<String> normalized = new ArrayList<>();
+        if (nodes != null) {
+            for (String node : nodes) {
+                if (node != null && ! node.trim().isEmpty()) {
+                    normalized.add(normalize(node));
+                }
+            }
+        }
+        return new HashRing(normalized);
+    }
+
+    public String getSelf() {
+        return self;
+    }
+
+    public List<String> getNodes() {
+        return ring.getNodes();
+    }
+
+    /**
+     * @param id  The game ID.
+     * @return  Base URL of the instance owning the game.
+     */
+    public String owner(String id) {
+        return handingOff.contains(id) ? self : ring.owner(id);
+    }
+
+    public boolean isLocal(String id) {
+        return self.equals(owner(id));
+    }
+
+    /**
+     * @param secret  The {@link #SECRET_HEADER} of a request, null if none.
+     * @return  true if it is the cluster secret (never without a secret).
+     */
+    public boolean isAuthorized(String secret) {
+        return this.secret != null && secret != null
+                && MessageDigest.isEqual(this.secret, secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private HttpHeaders headers(MediaType contentType) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(contentType);
+        headers.set(FORWARDED_HEADER, self);
+        if (secret != null) {
+            headers.set(SECRET_HEADER, new String(secret, StandardCharsets.UTF_8));
+        }
+        return headers;
+    }
+
+    /**
+     * @return  false once this instance left the ring (new games cannot be
+     *          created here any more).
+     */
+    public boolean isMember() {
+        return ring.getNodes().contains(self);
+    }
+
+    /**
+     * @return  A new random game ID owned by this instance (about one try
+     *          per instance).
+     */
+    public String newId() {
+        if (! isMember()) {
+            throw new IllegalStateException("Left the ring, self=[" + self + "], " + ring);
+        }
+        String id = UUID.randomUUID().toString();
+        while (! isLocal(id)) {
+            id = UUID.randomUUID().toString();
+        }
+        return id;
+    }
+
+    /**
+     * Sends the request to the owner of game `id`.
+     *
+     * @return  The response of the owner, whatever its status.
+     * @throws RestClientException  The owner cannot be reached.
+     */
+    public <T> ResponseEntity<T> forward(String id, HttpMethod method, String path, Object body, Class<T> type) {
+        return forward(id, method, path, body, ParameterizedTypeReference.forType(type));
+    }
+
+    public <T> ResponseEntity<T> forward(String id, HttpMethod method, String path, Object body, ParameterizedTypeReference<T> type) {
+        String owner = owner(id);
+        ResponseEntity<T> response = restTemplate.exchange(owner + path, method, new HttpEntity<>(body, headers(MediaType.APPLICATION_JSON)), type);
+        LOG.debug("Forwarded request, path=[{}], owner=[{}], status=[{}]", path, owner, response.getStatusCodeValue());
+        // only the status and body, headers of the owner's response are not relevant here
+        return new ResponseEntity<>(response.getBody(), response.getStatusCode());
+    }
+
+    /**
+     * Installs the ring of `nodes`, then hands off the games of
+     * `repository` no longer owned by this instance to their new owner
+     * (removed here once the owner has them, and sent again if guessed
+     * meanwhile). A game whose owner cannot be reached stays here, still
+     * owned by this instance; calling again retries it.
+     *
+     * @param nodes       Base URLs of all instances.
+     * @param leave       true if `nodes` leave this instance out, to hand off
+     *                    all its games before stopping it.
+     * @param repository  The games of this instance.
+     * @return  Number of games handed off.
+     * @throws IllegalArgumentException  `nodes` is empty, or leaves this
+     *                                   instance out while not `leave`.
+     */
+    public synchronized int rebalance(Collection<String> nodes, boolean leave, GameRepository repository) {
+        HashRing next = ring(nodes);
+        if (! leave && ! next.getNodes().contains(self)) {
+            throw new IllegalArgumentException("Expect self=[" + self + "] in nodes=[" + nodes + "], unless leaving");
+        }
+        // kept here until handed off, so requests never reach an owner without them
+        Map<String, List<String>> moving = new LinkedHashMap<>();
+        moving(next, repository, moving);
+        Set<String> ids = new HashSet<>();
+        moving.values().forEach(ids::addAll);
+        handingOff.retainAll(ids);
+        this.ring = next;
+        LOG.info("Installed ring, self=[{}], {}", self, ring);
+        // created under the previous ring meanwhile
+        moving(next, repository, moving);
+
+        int moved = 0;
+        for (Map.Entry<String, List<String>> entry : moving.entrySet()) {
+            List<String> owned = entry.getValue();
+            for (int from = 0; from < owned.size(); from += HANDOFF_BATCH_SIZE) {
+                try {
+                    moved += handOff(entry.getKey(), owned.subList(from, Math.min(owned.size(), from + HANDOFF_BATCH_SIZE)), repository);
+                } catch (IOException | RestClientException e) {
+                    LOG.error("Cannot hand off games, owner=[{}], games=[{}]", entry.getKey(), owned.size() - from, e);
+                    break;
+                }
+            }
+        }
+        LOG.info("Rebalanced, self=[{}], moved=[{}], games=[{}]", self, moved, repository.size());
+        return moved;
+    }
+
+    /*
+     * Adds the games of `repository` that `ring` moves elsewhere to
+     * `moving` (ids by new owner), and to the ones handing off.
+     */
+    private void moving(HashRing ring, GameRepository repository, Map<String, List<String>> moving) {
+        repository.forEach(model -> {
+            String owner = ring.owner(model.getId());
+            if (! self.equals(owner) && handingOff.add(model.getId())) {
+                moving.computeIfAbsent(owner, key -> new ArrayList<>()).add(model.getId());
+            }
+        });
+    }
+
+    /*
+     * Hands off one batch of games, removes them here, then sends again the
+     * ones guessed since they were encoded (the owner merges guesses).
+     *
+     * @return  Number of games handed off.
+     */
+    private int handOff(String owner, List<String> ids, GameRepository repository) throws IOException {
+        List<GameGuessModel> models = new ArrayList<>(ids.size());
+        List<Long> versions = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            GameGuessModel model = repository.findById(id);
+            if (model == null) {
+                // removed or expired meanwhile
+                handingOff.remove(id);
+            } else {
+                // read before encoding: a guess in between is sent again, at worst
+                versions.add(model.getGameState().getVersion());
+                models.add(model);
+            }
+        }
+        if (models.isEmpty()) {
+            return 0;
+        }
+        handOff(owner, models);
+
+        List<GameGuessModel> guessed = new ArrayList<>();
+        for (int pos = 0; pos < models.size(); pos++) {
+            String id = models.get(pos).getId();
+            GameGuessModel removed = repository.remove(id);
+            // before reading the version: a guess landing after it sees the
+            // game moved, and replays itself at the owner
+            handingOff.remove(id);
+            if (removed != null && removed.getGameState().getVersion() != versions.get(pos)) {
+                guessed.add(removed);
+            }
+        }
+        if (! guessed.isEmpty()) {
+            LOG.debug("Sending again games=[{}] guessed during hand-off, owner=[{}]", guessed.size(), owner);
+            try {
+                handOff(owner, guessed);
+            } catch (IOException | RestClientException e) {
+                // kept here with the guesses, handed off on the next call
+                for (GameGuessModel model : guessed) {
+                    handingOff.add(model.getId());
+                    repository.save(model);
+                }
+                throw e;
+            }
+        }
+        return models.size();
+    }
+
+    private void handOff(String owner, List<GameGuessModel> models) throws IOException {
+        ResponseEntity<String> response = restTemplate.exchange(owner + GAMES_PATH, HttpMethod.POST,
+                new HttpEntity<>(encode(models), headers(MediaType.APPLICATION_OCTET_STREAM)), String.class);
+        if (! response.getStatusCode().is2xxSuccessful()) {
+            throw new IOException("Hand off rejected, owner=[" + owner + "], status=[" + response.getStatusCodeValue() + "]");
+        }
+    }
+
+    /**
+     * @return  The games, in the hand-off format (count, then each as a {@link GameRecord}).
+     */
+    static byte[] encode(List<GameGuessModel> models) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(models.size() * 128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(models.size());
+            for (GameGuessModel model : models) {
+                GameRecord.of(model).write(out);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Rebuilds the games of a hand-off against `dictionary`.
+     */
+    public static List<GameGuessModel> decode(byte[] payload, Dictionary dictionary) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            int count = in.readInt();
+            if (count < 0) {
+                throw new IOException("Invalid count=[" + count + "]");
+            }
+            List<GameGuessModel> models = new ArrayList<>(Math.min(count, HANDOFF_BATCH_SIZE));
+            for (int pos = 0; pos < count; pos++) {
+                models.add(GameRecord.read(in).toModel(dictionary));
+            }
+            return models;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("self=[").append(self).append(']');
+        sb.append(", ").append(ring);
+        return sb.toString();
+    }
+
+}
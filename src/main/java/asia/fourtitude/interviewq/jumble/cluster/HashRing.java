@@ -0,0 +1,101 @@
+package asia.fourtitude.interviewq.jumble.cluster;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable consistent-hash ring of nodes (base URLs of the instances).
+ *
+ * Each node is placed on the ring at `VIRTUAL_NODES` points; a key is owned
+ * by the node of the first point at or after the hash of the key (wrapping
+ * around). Adding or removing one node of `N` only moves about `1/N` of the
+ * keys, all of them to or from that node.
+ */
+public final class HashRing {
+
+    static final int VIRTUAL_NODES = 128;
+
+    private final List<String> nodes;
+
+    private final long[] points;
+
+    private final String[] owners;
+
+    /**
+     * @param nodes  The nodes, duplicates ignored; at least one.
+     */
+    public HashRing(Collection<String> nodes) {
+        if (nodes == null || nodes.isEmpty()) {
+            throw new IllegalArgumentException("Invalid nodes=[" + nodes + "], expect at least one");
+        }
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(nodes));
+        TreeMap<Long, String> ring = new TreeMap<>();
+        for (String node : distinct) {
+            for (int vnode = 0; vnode < VIRTUAL_NODES; vnode++) {
+                // on the (unlikely) collision, the smallest node wins, whatever the order given
+                ring.merge(hash(node + "#" + vnode), node, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+            }
+        }
+        this.nodes = Collections.unmodifiableList(distinct);
+        this.points = new long[ring.size()];
+        this.owners = new String[ring.size()];
+        int pos = 0;
+        for (Map.Entry<Long, String> point : ring.entrySet()) {
+            this.points[pos] = point.getKey();
+            this.owners[pos] = point.getValue();
+            pos++;
+        }
+    }
+
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @param key  The key (game id).
+     * @return  The node owning `key`.
+     */
+    public String owner(String key) {
+        long hash = hash(key);
+        int low = 0;
+        int high = points.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (points[mid] < hash) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return owners[low == points.length ? 0 : low];
+    }
+
+    /*
+     * 64-bit FNV-1a over the chars, then the MurmurHash3 finalizer so that
+     * similar keys (node#0, node#1, ...) spread over the whole ring.
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int pos = 0; pos < key.length(); pos++) {
+            hash ^= key.charAt(pos);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "nodes=" + nodes;
+    }
+
+}
@@ -0,0 +1,48 @@
+package asia.fourtitude.interviewq.jumble.controller;
+
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import asia.fourtitude.interviewq.jumble.core.Bulkhead;
+
+/**
+ * Responses of the asynchronous endpoints when their {@link Bulkhead} is
+ * full or too slow: 503, so that clients back off instead of waiting.
+ */
+final class BulkheadResponses {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BulkheadResponses.class);
+
+    /*
+     * Seconds a client should wait before retrying an overloaded operation.
+     */
+    static final String RETRY_AFTER = "1";
+
+    private BulkheadResponses() {
+    }
+
+    /**
+     * @param operation  Names the operation in the log.
+     * @param body       Body of the 503 response, or null.
+     * @return  Maps an overloaded failure to 503; any other failure is
+     *          rethrown, as by the synchronous endpoint.
+     */
+    static <T> Function<Throwable, ResponseEntity<T>> serviceUnavailable(String operation, T body) {
+        return e -> {
+            if (! Bulkhead.isOverloaded(e)) {
+                throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+            }
+            LOG.warn("Overloaded, operation=[{}], cause=[{}]", operation, e.toString());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER)
+                    .body(body);
+        };
+    }
+
+}
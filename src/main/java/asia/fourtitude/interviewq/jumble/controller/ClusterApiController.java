@@ -0,0 +1,124 @@
+package asia.fourtitude.interviewq.jumble.controller;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import asia.fourtitude.interviewq.jumble.cluster.GameCluster;
+import asia.fourtitude.interviewq.jumble.core.JumbleEngine;
+import asia.fourtitude.interviewq.jumble.model.ClusterStatus;
+import asia.fourtitude.interviewq.jumble.model.GameGuessModel;
+import asia.fourtitude.interviewq.jumble.model.GameGuessOutput;
+import asia.fourtitude.interviewq.jumble.repository.GameRepository;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Only registered in a cluster ("jumble.cluster.self" set). Changing the
+ * ring or storing games needs the cluster secret ({@link GameCluster#SECRET_HEADER}).
+ */
+@RestController
+@ConditionalOnProperty(name = "jumble.cluster.self")
+@Tag(name = "Cluster API", description = "Membership and rebalancing of the instances sharing the games.")
+@RequestMapping(path = "/api/cluster")
+public class ClusterApiController {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClusterApiController.class);
+
+    private final GameCluster cluster;
+
+    private final GameRepository gameBoards;
+
+    private final JumbleEngine jumbleEngine;
+
+    @Autowired(required = true)
+    public ClusterApiController(GameCluster cluster, GameRepository gameBoards, JumbleEngine jumbleEngine) {
+        this.cluster = cluster;
+        this.gameBoards = gameBoards;
+        this.jumbleEngine = jumbleEngine;
+    }
+
+    private ClusterStatus status() {
+        ClusterStatus status = new ClusterStatus();
+        status.setSelf(this.cluster.getSelf());
+        status.setNodes(this.cluster.getNodes());
+        status.setGames(this.gameBoards.size());
+        return status;
+    }
+
+    @Operation(
+            summary = "Gets the nodes of the ring",
+            description = "Returns this instance, the instances of its ring, and the number of games it holds.")
+    @GetMapping(value = "/nodes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ClusterStatus> getNodes() {
+        return new ResponseEntity<>(status(), HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "Replaces the nodes of the ring",
+            description = "Installs the ring of the given instances (this one included, unless `leave`), then hands off the games this instance "
+                    + "no longer owns to their new owner. Call on every instance, new ones first; see README. Needs the cluster secret.")
+    @PutMapping(value = "/nodes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ClusterStatus> putNodes(
+            @RequestBody List<String> nodes,
+            @RequestParam(value = "leave", defaultValue = "false") boolean leave,
+            @RequestHeader(value = GameCluster.SECRET_HEADER, required = false) String secret) {
+        if (! this.cluster.isAuthorized(secret)) {
+            LOG.warn("Refused nodes=[{}], invalid cluster secret", nodes);
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        int moved;
+        try {
+            moved = this.cluster.rebalance(nodes, leave, this.gameBoards);
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Invalid nodes=[{}]: {}", nodes, e.getMessage());
+            return new ResponseEntity<>(status(), HttpStatus.BAD_REQUEST);
+        }
+        ClusterStatus status = status();
+        status.setMoved(moved);
+        return new ResponseEntity<>(status, HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "Receives handed off games",
+            description = "Stores the games handed off by another instance (binary, internal use). The guesses of a game already here "
+                    + "(sent again, guessed during its hand-off) are merged. Needs the cluster secret.")
+    @PostMapping(value = "/games", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ClusterStatus> receiveGames(
+            @RequestBody byte[] payload,
+            @RequestHeader(value = GameCluster.SECRET_HEADER, required = false) String secret) throws IOException {
+        if (! this.cluster.isAuthorized(secret)) {
+            LOG.warn("Refused games, bytes=[{}], invalid cluster secret", payload.length);
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        List<GameGuessModel> models = GameCluster.decode(payload, this.jumbleEngine.getDictionary());
+        for (GameGuessModel model : models) {
+            if (this.gameBoards.findById(model.getId()) == null) {
+                this.gameBoards.save(model);
+            } else {
+                // guesses only add up, so merging them is safe in any order
+                this.gameBoards.guess(model.getId(), model.getGameState().getGuessedWords(), model.getModifiedAt(), new GameGuessOutput());
+            }
+        }
+        LOG.info("Received games=[{}]", models.size());
+        ClusterStatus status = status();
+        status.setMoved(models.size());
+        return new ResponseEntity<>(status, HttpStatus.OK);
+    }
+
+}
@@ -0,0 +1,57 @@
+package asia.fourtitude.interviewq.jumble.controller;
+
+import java.time.Duration;
+
+import org.springframework.http.CacheControl;
+
+import asia.fourtitude.interviewq.jumble.dictionary.Dictionary;
+import asia.fourtitude.interviewq.jumble.dictionary.WordWeights;
+
+/**
+ * Conditional GET of responses that only depend on the request and the
+ * dictionary content: their ETag is the dictionary version, checked against
+ * `If-None-Match` before any work is done.
+ */
+final class DictionaryETag {
+
+    /*
+     * Pages also depend on their templates, which only change on redeploy.
+     */
+    private static final String STARTED = Long.toHexString(System.currentTimeMillis());
+
+    private DictionaryETag() {
+    }
+
+    /**
+     * @return  Strong ETag of data derived from `dictionary` only.
+     */
+    static String of(Dictionary dictionary) {
+        return "\"" + dictionary.version() + "\"";
+    }
+
+    /**
+     * @return  Strong ETag of data derived from `dictionary` and `weights` only.
+     */
+    static String of(Dictionary dictionary, WordWeights weights) {
+        return "\"" + dictionary.version() + "-" + weights.version() + "\"";
+    }
+
+    /**
+     * @return  Strong ETag of a page rendered from `dictionary`.
+     */
+    static String ofPage(Dictionary dictionary) {
+        return "\"" + dictionary.version() + "-" + STARTED + "\"";
+    }
+
+    /**
+     * @param maxAge  How long clients may reuse a response without asking;
+     *                zero to revalidate (with the ETag) every time.
+     */
+    static CacheControl cacheControl(Duration maxAge) {
+        if (maxAge.isZero() || maxAge.isNegative()) {
+            return CacheControl.noCache().cachePublic();
+        }
+        return CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+}
@@ -1,26 +1,48 @@
 package asia.fourtitude.interviewq.jumble.controller;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import asia.fourtitude.interviewq.jumble.exception.GoodQuestionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import asia.fourtitude.interviewq.jumble.cluster.GameCluster;
+import asia.fourtitude.interviewq.jumble.core.BulkGameCreator;
+import asia.fourtitude.interviewq.jumble.core.Bulkheads;
 import asia.fourtitude.interviewq.jumble.core.GameState;
+import asia.fourtitude.interviewq.jumble.core.GameStatePool;
 import asia.fourtitude.interviewq.jumble.core.JumbleEngine;
 import asia.fourtitude.interviewq.jumble.model.GameGuessInput;
 import asia.fourtitude.interviewq.jumble.model.GameGuessModel;
 import asia.fourtitude.interviewq.jumble.model.GameGuessOutput;
+import asia.fourtitude.interviewq.jumble.model.GameGuessResult;
+import asia.fourtitude.interviewq.jumble.repository.GameRepository;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -37,17 +59,128 @@ public class GameApiController {
 
     private static final Logger LOG = LoggerFactory.getLogger(GameApiController.class);
 
+    /*
+     * Most guesses accepted in one batch request.
+     */
+    static final int MAX_BATCH_SIZE = 1000;
+
+    /*
+     * Most games created in one bulk request.
+     */
+    static final int MAX_BULK_COUNT = 10000;
+
     private final JumbleEngine jumbleEngine;
 
+    private final GameStatePool gameStatePool;
+
+    /*
+     * Repository for all the game boards/states (bounded, idle games expire).
+     */
+    private final GameRepository gameBoards;
+
+    private final BulkGameCreator bulkGameCreator;
+
+    private final ObjectMapper objectMapper;
+
     /*
-     * In-memory database/repository for all the game boards/states.
+     * Owner of each game, requests on games of other instances are forwarded.
      */
-    private final Map<String, GameGuessModel> gameBoards;
+    private final GameCluster cluster;
+
+    private final Bulkheads bulkheads;
 
     @Autowired(required = true)
-    public GameApiController(JumbleEngine jumbleEngine) {
+    public GameApiController(JumbleEngine jumbleEngine, GameStatePool gameStatePool, GameRepository gameBoards,
+            BulkGameCreator bulkGameCreator, ObjectMapper objectMapper, GameCluster cluster, Bulkheads bulkheads) {
         this.jumbleEngine = jumbleEngine;
-        this.gameBoards = new ConcurrentHashMap<>();
+        this.gameStatePool = gameStatePool;
+        this.gameBoards = gameBoards;
+        this.bulkGameCreator = bulkGameCreator;
+        this.objectMapper = objectMapper;
+        this.cluster = cluster;
+        this.bulkheads = bulkheads;
+    }
+
+    private static boolean isValidId(String id) {
+        if (id == null) {
+            return false;
+        }
+        try {
+            UUID.fromString(id);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private ResponseEntity<GameGuessOutput> forwardGuess(GameGuessInput input, GameGuessOutput output) {
+        try {
+            return this.cluster.forward(input.getId(), HttpMethod.POST, "/api/game/guess", input, GameGuessOutput.class);
+        } catch (RestClientException e) {
+            LOG.warn("Cannot forward guess, owner=[{}], input=[{}]: {}", this.cluster.owner(input.getId()), input, e.getMessage());
+            output.setResult("Game owner unavailable.");
+            return new ResponseEntity<>(output, HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    /*
+     * Plays the inputs at `positions` (all owned by the same other
+     * instance) there, in one request.
+     */
+    private void forwardBatch(List<GameGuessInput> inputs, List<Integer> positions, List<GameGuessResult> results) {
+        List<GameGuessInput> batch = new ArrayList<>(positions.size());
+        for (int pos : positions) {
+            batch.add(inputs.get(pos));
+        }
+        String id = batch.get(0).getId();
+        List<GameGuessResult> forwarded = null;
+        try {
+            forwarded = this.cluster.forward(id, HttpMethod.POST, "/api/game/guess/batch", batch,
+                    new ParameterizedTypeReference<List<GameGuessResult>>() {}).getBody();
+        } catch (RestClientException e) {
+            LOG.warn("Cannot forward guesses, owner=[{}], guesses=[{}]: {}", this.cluster.owner(id), batch.size(), e.getMessage());
+        }
+        for (int index = 0; index < positions.size(); index++) {
+            if (forwarded != null && forwarded.size() == positions.size()) {
+                results.set(positions.get(index), forwarded.get(index));
+            } else {
+                results.get(positions.get(index)).setResult("Game owner unavailable.");
+            }
+        }
+    }
+
+    /*
+     * Plays the words newly guessed here again at the game's owner, when the
+     * game was handed off while they were played: the hand-off may have read
+     * it before they landed (the owner merges, already guessed ones stay).
+     */
+    private void replayMoved(String id, List<String> words) {
+        if (words.isEmpty()) {
+            return;
+        }
+        List<GameGuessInput> batch = new ArrayList<>(words.size());
+        for (String word : words) {
+            GameGuessInput input = new GameGuessInput();
+            input.setId(id);
+            input.setWord(word);
+            batch.add(input);
+        }
+        try {
+            this.cluster.forward(id, HttpMethod.POST, "/api/game/guess/batch", batch,
+                    new ParameterizedTypeReference<List<GameGuessResult>>() {});
+        } catch (RestClientException e) {
+            LOG.warn("Cannot replay guesses of moved game, owner=[{}], id=[{}], words=[{}]: {}", this.cluster.owner(id), id, words, e.getMessage());
+        }
+    }
+
+    private static String resultOf(GameState.Guess guess, int remainingWords) {
+        if (remainingWords == 0) {
+            return "All words guessed.";
+        } else if (guess != GameState.Guess.INCORRECT) {
+            return "Guessed correctly.";
+        } else {
+            return "Guessed incorrectly.";
+        }
     }
 
     @Operation(
@@ -81,18 +214,138 @@ public class GameApiController {
          * Must pass the corresponding unit tests.
          */
         GameGuessOutput output = new GameGuessOutput();
+        if (! this.cluster.isMember()) {
+            output.setResult("Instance left the cluster.");
+            return new ResponseEntity<>(output, HttpStatus.SERVICE_UNAVAILABLE);
+        }
 
-        GameState gameState = this.jumbleEngine.createGameState(6, 3);
+        GameState gameState = this.gameStatePool.take(6, 3);
 
-        /*
-         * TODO:
-         * a) Store the game state to the repository, with unique game board ID
-         * b) Return the game board/state (GameGuessOutput) to caller
-         */
+        Date now = new Date();
+        GameGuessModel model = new GameGuessModel();
+        model.setId(this.cluster.newId());
+        model.setCreatedAt(now);
+        model.setModifiedAt(now);
+        model.setGameState(gameState);
+        this.gameBoards.save(model);
+
+        output.setResult("Created new game.");
+        model.fillOutput(output);
 
         return new ResponseEntity<>(output, HttpStatus.OK);
     }
 
+    @Operation(
+            summary = "Creates new game board/state, asynchronously",
+            description = "As `/new`, but created on the generation executor, not on the request thread. "
+                    + "When the executor is full or the game is not ready in time, returns 503 with `Retry-After`.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Success",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = GameGuessOutput.class))),
+                    @ApiResponse(
+                            responseCode = "503",
+                            description = "Service Unavailable",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    examples = {
+                                            @ExampleObject(
+                                                    name = "Overloaded",
+                                                    description = "Too many games being created, retry later.",
+                                                    value = "{\n" +
+                                                            "  \"result\": \"Too busy, try again later.\"\n" +
+                                                            "}") })) })
+    @GetMapping(value = "/new/async", produces = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<GameGuessOutput>> newGameAsync() {
+        GameGuessOutput busy = new GameGuessOutput();
+        busy.setResult("Too busy, try again later.");
+        return this.bulkheads.generation().submit(this::newGame)
+                .exceptionally(BulkheadResponses.serviceUnavailable("newGame", busy));
+    }
+
+    @Operation(
+            summary = "Creates many new game boards/states",
+            description = "Creates `count` new game boards/states, in parallel, each registered into game engine referenced by its `id`. "
+                    + "Games are streamed back as newline delimited JSON, one line per game, as soon as each is ready. "
+                    + "At most " + MAX_BULK_COUNT + " games per request.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Success",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                                    examples = {
+                                            @ExampleObject(
+                                                    name = "Success",
+                                                    description = "Created 2 new games/boards and registered into system.",
+                                                    value = "{\"result\":\"Created new game.\",\"id\":\"65e0d7a4-59bf-4065-beb1-3c2220d87e1e\",\"original_word\":\"titans\",\"scramble_word\":\"nisatt\",\"total_words\":29,\"remaining_words\":29,\"guessed_words\":[]}\n" +
+                                                            "{\"result\":\"Created new game.\",\"id\":\"88b4278c-5141-42af-86e6-2a1d4cfa5f3b\",\"original_word\":\"ranker\",\"scramble_word\":\"nekarr\",\"total_words\":15,\"remaining_words\":15,\"guessed_words\":[]}\n") })),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Bad Request",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                                    examples = {
+                                            @ExampleObject(
+                                                    name = "Invalid count",
+                                                    description = "The `count` is not positive, or larger than allowed.",
+                                                    value = "{\"result\":\"Invalid count=[0], max=[10000].\"}\n") })) })
+    @GetMapping(value = "/new/bulk", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> newGames(
+            @Parameter(description = "Number of games to create.", example = "100")
+            @RequestParam(value = "count", defaultValue = "1") int count) {
+        if (count <= 0 || count > MAX_BULK_COUNT) {
+            GameGuessOutput output = new GameGuessOutput();
+            output.setResult("Invalid count=[" + count + "], max=[" + MAX_BULK_COUNT + "].");
+            StreamingResponseBody body = stream -> writeLine(stream, output);
+            return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_NDJSON).body(body);
+        }
+        if (! this.cluster.isMember()) {
+            GameGuessOutput output = new GameGuessOutput();
+            output.setResult("Instance left the cluster.");
+            StreamingResponseBody body = stream -> writeLine(stream, output);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).contentType(MediaType.APPLICATION_NDJSON).body(body);
+        }
+
+        StreamingResponseBody body = stream -> {
+            try {
+                this.bulkGameCreator.create(count, 6, 3, gameState -> {
+                    Date now = new Date();
+                    GameGuessModel model = new GameGuessModel();
+                    model.setId(this.cluster.newId());
+                    model.setCreatedAt(now);
+                    model.setModifiedAt(now);
+                    model.setGameState(gameState);
+                    this.gameBoards.save(model);
+
+                    GameGuessOutput output = new GameGuessOutput();
+                    output.setResult("Created new game.");
+                    model.fillOutput(output);
+                    writeLine(stream, output);
+                });
+                LOG.debug("Created new games, count=[{}]", count);
+            } catch (GoodQuestionException e) {
+                // already streaming, the status cannot change any more
+                LOG.error("Cannot create new games, count=[{}]", count, e);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /*
+     * One JSON document per line, flushed so the client sees it right away.
+     */
+    private void writeLine(OutputStream stream, Object value) throws IOException {
+        stream.write(this.objectMapper.writeValueAsBytes(value));
+        stream.write('\n');
+        stream.flush();
+    }
+
     @Operation(
             summary = "Submits word to play the game",
             description = "Submits a guessed `word`, along with `id` to play the game.")
@@ -207,23 +460,179 @@ public class GameApiController {
                             "  \"id\": \"4579256c-326f-4169-9b56-6d1d1a2c11f0\",\n" +
                             "  \"word\": \"answer\"\n" +
                             "}")
-            @RequestBody GameGuessInput input) {
+            @RequestBody GameGuessInput input,
+            @Parameter(hidden = true)
+            @RequestHeader(value = GameCluster.FORWARDED_HEADER, required = false) String forwardedBy) {
         /*
          * Refer to the method's Javadoc (above) and implement accordingly.
          * Must pass the corresponding unit tests.
          */
         GameGuessOutput output = new GameGuessOutput();
 
-        /*
-         * TODO:
-         * a) Validate the input (GameGuessInput)
-         * b) Check records exists in repository (search by input `id`)
-         * c) From the input guessing `word`, implement the game logic
-         * d) Update the game board (and game state) in repository
-         * e) Return the updated game board/state (GameGuessOutput) to caller
-         */
+        if (input == null || ! isValidId(input.getId())) {
+            output.setResult("Invalid Game ID.");
+            return new ResponseEntity<>(output, HttpStatus.NOT_FOUND);
+        }
+
+        boolean local = this.cluster.isLocal(input.getId());
+        if (forwardedBy == null && ! local) {
+            return forwardGuess(input, output);
+        }
+
+        String word = input.getWord();
+        List<String> words = Collections.singletonList(word == null ? null : word.trim());
+        // lock-free, concurrent guesses on the same game are all applied
+        GameState.Guess[] outcomes = this.gameBoards.guess(input.getId(), words, new Date(), output);
+        if (local && ! this.cluster.isLocal(input.getId())) {
+            // handed off meanwhile
+            if (outcomes == null) {
+                return forwardGuess(input, output);
+            }
+            replayMoved(input.getId(), GameState.newlyGuessed(words, outcomes));
+        }
+        if (outcomes == null) {
+            output.setResult("Game board/state not found.");
+            return new ResponseEntity<>(output, HttpStatus.NOT_FOUND);
+        }
+        output.setGuessWord(word);
+        output.setResult(resultOf(outcomes[0], output.getRemainingWords()));
+        LOG.debug("Played game, output=[{}]", output);
 
         return new ResponseEntity<>(output, HttpStatus.OK);
     }
 
+    @Operation(
+            summary = "Submits many words to play one or more games",
+            description = "Submits a list of `id` and guessed `word` pairs in one request. Guesses are grouped by `id`: each game is looked up once, "
+                    + "its guesses applied in input order as one state update, and its modified time updated once. Returns one compact result per input, in input order; "
+                    + "an unknown `id` only fails its own items. At most " + MAX_BATCH_SIZE + " guesses per request.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Success",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    examples = {
+                                            @ExampleObject(
+                                                    name = "Mixed",
+                                                    description = "Guesses on a game, and on an unknown game.",
+                                                    value = "[\n" +
+                                                            "  {\n" +
+                                                            "    \"result\": \"Guessed correctly.\",\n" +
+                                                            "    \"id\": \"88b4278c-5141-42af-86e6-2a1d4cfa5f3b\",\n" +
+                                                            "    \"guess_word\": \"rank\",\n" +
+                                                            "    \"remaining_words\": 14\n" +
+                                                            "  },\n" +
+                                                            "  {\n" +
+                                                            "    \"result\": \"Guessed incorrectly.\",\n" +
+                                                            "    \"id\": \"88b4278c-5141-42af-86e6-2a1d4cfa5f3b\",\n" +
+                                                            "    \"guess_word\": \"answer\",\n" +
+                                                            "    \"remaining_words\": 14\n" +
+                                                            "  },\n" +
+                                                            "  {\n" +
+                                                            "    \"result\": \"Game board/state not found.\",\n" +
+                                                            "    \"id\": \"4579256c-326f-4169-9b56-6d1d1a2c11f0\",\n" +
+                                                            "    \"guess_word\": \"motto\"\n" +
+                                                            "  }\n" +
+                                                            "]") })),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Bad Request",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    examples = {
+                                            @ExampleObject(
+                                                    name = "Too many guesses",
+                                                    description = "The batch is empty, or larger than allowed.",
+                                                    value = "[\n" +
+                                                            "  {\n" +
+                                                            "    \"result\": \"Invalid batch size=[1001], max=[1000].\"\n" +
+                                                            "  }\n" +
+                                                            "]") })) })
+    @PostMapping(value = "/guess/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<GameGuessResult>> playGames(
+            @Parameter(
+                    description = "Submits the `word`s to guess, each with its game `id`.",
+                    required = true)
+            @RequestBody List<GameGuessInput> inputs,
+            @Parameter(hidden = true)
+            @RequestHeader(value = GameCluster.FORWARDED_HEADER, required = false) String forwardedBy) {
+        List<GameGuessResult> results = new ArrayList<>();
+        if (inputs == null || inputs.isEmpty() || inputs.size() > MAX_BATCH_SIZE) {
+            GameGuessResult result = new GameGuessResult();
+            result.setResult("Invalid batch size=[" + (inputs == null ? 0 : inputs.size()) + "], max=[" + MAX_BATCH_SIZE + "].");
+            results.add(result);
+            return new ResponseEntity<>(results, HttpStatus.BAD_REQUEST);
+        }
+
+        // positions of the inputs of each game, games in order of first appearance
+        Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        // positions of the inputs of games owned by each other instance
+        Map<String, List<Integer>> remotes = new LinkedHashMap<>();
+        for (int pos = 0; pos < inputs.size(); pos++) {
+            GameGuessInput input = inputs.get(pos);
+            GameGuessResult result = input == null ? new GameGuessResult() : new GameGuessResult(input.getId(), input.getWord());
+            results.add(result);
+            if (input == null || ! isValidId(input.getId())) {
+                result.setResult("Invalid Game ID.");
+            } else if (forwardedBy == null && ! this.cluster.isLocal(input.getId())) {
+                remotes.computeIfAbsent(this.cluster.owner(input.getId()), owner -> new ArrayList<>()).add(pos);
+            } else {
+                groups.computeIfAbsent(input.getId(), id -> new ArrayList<>()).add(pos);
+            }
+        }
+
+        for (List<Integer> positions : remotes.values()) {
+            forwardBatch(inputs, positions, results);
+        }
+
+        Date now = new Date();
+        for (Map.Entry<String, List<Integer>> group : groups.entrySet()) {
+            List<Integer> positions = group.getValue();
+            List<String> words = new ArrayList<>(positions.size());
+            for (int pos : positions) {
+                String word = results.get(pos).getGuessWord();
+                words.add(word == null ? null : word.trim());
+            }
+            // one state update for the whole group
+            GameGuessOutput state = new GameGuessOutput();
+            boolean local = this.cluster.isLocal(group.getKey());
+            GameState.Guess[] outcomes = this.gameBoards.guess(group.getKey(), words, now, state);
+            if (local && ! this.cluster.isLocal(group.getKey())) {
+                // handed off meanwhile
+                if (outcomes == null) {
+                    forwardBatch(inputs, positions, results);
+                    continue;
+                }
+                replayMoved(group.getKey(), GameState.newlyGuessed(words, outcomes));
+            }
+            if (outcomes == null) {
+                for (int pos : positions) {
+                    results.get(pos).setResult("Game board/state not found.");
+                }
+                continue;
+            }
+            // remaining after each guess: after the update, plus the ones newly guessed later in the group
+            int later = 0;
+            for (GameState.Guess guess : outcomes) {
+                if (guess == GameState.Guess.CORRECT) {
+                    later++;
+                }
+            }
+            for (int item = 0; item < outcomes.length; item++) {
+                if (outcomes[item] == GameState.Guess.CORRECT) {
+                    later--;
+                }
+                int remainingWords = state.getRemainingWords() + later;
+                GameGuessResult result = results.get(positions.get(item));
+                result.setRemainingWords(remainingWords);
+                result.setResult(resultOf(outcomes[item], remainingWords));
+            }
+        }
+        LOG.debug("Played games, guesses=[{}], games=[{}]", inputs.size(), groups.size());
+
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+
 }
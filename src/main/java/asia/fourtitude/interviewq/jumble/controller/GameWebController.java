@@ -15,6 +15,7 @@ import org.springframework.web.bind.annotation.SessionAttributes;
 import org.springframework.web.bind.support.SessionStatus;
 
 import asia.fourtitude.interviewq.jumble.core.GameState;
+import asia.fourtitude.interviewq.jumble.core.GameStatePool;
 import asia.fourtitude.interviewq.jumble.core.JumbleEngine;
 import asia.fourtitude.interviewq.jumble.model.GameBoard;
 
@@ -27,9 +28,12 @@ public class GameWebController {
 
     private final JumbleEngine jumbleEngine;
 
+    private final GameStatePool gameStatePool;
+
     @Autowired(required = true)
-    public GameWebController(JumbleEngine jumbleEngine) {
+    public GameWebController(JumbleEngine jumbleEngine, GameStatePool gameStatePool) {
         this.jumbleEngine = jumbleEngine;
+        this.gameStatePool = gameStatePool;
     }
 
     @ModelAttribute("board")
@@ -66,7 +70,7 @@ public class GameWebController {
 
     @GetMapping("/new")
     public String doGetNew(@ModelAttribute(name = "board") GameBoard board) throws GoodQuestionException {
-        GameState state = this.jumbleEngine.createGameState(6, 3);
+        GameState state = this.gameStatePool.take(6, 3);
 
         /*
          * TODO:
@@ -0,0 +1,45 @@
+package asia.fourtitude.interviewq.jumble.controller;
+
+import java.util.Iterator;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Writes words as a JSON array straight from the iterator of an index, one
+ * at a time, without collecting them first. Memory of a response is the
+ * generator and response buffers, whatever the number of words.
+ */
+final class JsonWords {
+
+    private JsonWords() {
+    }
+
+    /**
+     * @param factory  Creates the generator.
+     * @param words    The words, iterated once while writing the response.
+     * @return  The JSON array of `words`.
+     */
+    static StreamingResponseBody stream(JsonFactory factory, Iterator<String> words) {
+        return stream -> {
+            try (JsonGenerator generator = factory.createGenerator(stream, JsonEncoding.UTF8)) {
+                // the response stream is closed by the container
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartArray();
+                if (words.hasNext()) {
+                    // the first word goes out right away, the rest as the buffers fill
+                    generator.writeString(words.next());
+                    generator.flush();
+                }
+                while (words.hasNext()) {
+                    generator.writeString(words.next());
+                }
+                generator.writeEndArray();
+            }
+        };
+    }
+
+}
@@ -1,11 +1,17 @@
 package asia.fourtitude.interviewq.jumble.controller;
 
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.*;
 
+import javax.servlet.http.HttpServletResponse;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -13,8 +19,10 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.WebRequest;
 
 import asia.fourtitude.interviewq.jumble.core.JumbleEngine;
+import asia.fourtitude.interviewq.jumble.dictionary.Dictionary;
 import asia.fourtitude.interviewq.jumble.model.ExistsForm;
 import asia.fourtitude.interviewq.jumble.model.PrefixForm;
 import asia.fourtitude.interviewq.jumble.model.ScrambleForm;
@@ -31,9 +39,13 @@ public class RootController {
 
     private final JumbleEngine jumbleEngine;
 
+    private final CacheControl cacheControl;
+
     @Autowired(required = true)
-    public RootController(JumbleEngine jumbleEngine) {
+    public RootController(JumbleEngine jumbleEngine,
+            @Value("${jumble.http.cache-max-age:0}") Duration cacheMaxAge) {
         this.jumbleEngine = jumbleEngine;
+        this.cacheControl = DictionaryETag.cacheControl(cacheMaxAge);
     }
 
     @GetMapping
@@ -66,8 +78,18 @@ public class RootController {
         return "scramble";
     }
 
+    /*
+     * Same page until the dictionary changes: answers `If-None-Match` with
+     * 304 (null view) before listing the words.
+     */
     @GetMapping("palindrome")
-    public String doGetPalindrome(Model model) {model.addAttribute("words", this.jumbleEngine.retrievePalindromeWords());
+    public String doGetPalindrome(Model model, WebRequest request, HttpServletResponse response) {
+        Dictionary dictionary = this.jumbleEngine.getDictionary();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        if (request.checkNotModified(DictionaryETag.ofPage(dictionary))) {
+            return null;
+        }
+        model.addAttribute("words", dictionary.palindromes());
         return "palindrome";
     }
 
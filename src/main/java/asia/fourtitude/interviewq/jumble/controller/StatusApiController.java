@@ -0,0 +1,48 @@
+package asia.fourtitude.interviewq.jumble.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import asia.fourtitude.interviewq.jumble.core.JumbleEngine;
+import asia.fourtitude.interviewq.jumble.dictionary.Dictionary;
+import asia.fourtitude.interviewq.jumble.model.ServiceStatus;
+import asia.fourtitude.interviewq.jumble.repository.GameRepository;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@Tag(name = "Status API", description = "Counters of the dictionary, its caches, and the game repository.")
+@RequestMapping(path = "/api/status")
+public class StatusApiController {
+
+    private final JumbleEngine jumbleEngine;
+
+    private final GameRepository gameBoards;
+
+    @Autowired(required = true)
+    public StatusApiController(JumbleEngine jumbleEngine, GameRepository gameBoards) {
+        this.jumbleEngine = jumbleEngine;
+        this.gameBoards = gameBoards;
+    }
+
+    @Operation(
+            summary = "Gets the counters",
+            description = "Returns the dictionary in use, the game repository counters, and the sub word cache hit and miss rates "
+                    + "(counted since the dictionary was loaded).")
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ServiceStatus> getStatus() {
+        Dictionary dictionary = this.jumbleEngine.getDictionary();
+        ServiceStatus status = new ServiceStatus();
+        status.setDictionarySize(dictionary.size());
+        status.setDictionaryVersion(dictionary.version());
+        status.setGames(this.gameBoards.stats());
+        status.setSubWordCache(dictionary.subWordCache().stats());
+        return new ResponseEntity<>(status, HttpStatus.OK);
+    }
+
+}
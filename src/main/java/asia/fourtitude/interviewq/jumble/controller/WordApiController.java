@@ -1,21 +1,36 @@
 package asia.fourtitude.interviewq.jumble.controller;
 
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import asia.fourtitude.interviewq.jumble.core.Bulkheads;
 import asia.fourtitude.interviewq.jumble.core.JumbleEngine;
+import asia.fourtitude.interviewq.jumble.dictionary.Dictionary;
+import asia.fourtitude.interviewq.jumble.dictionary.WordWeights;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -33,14 +48,29 @@ public class WordApiController {
 
     private final JumbleEngine jumbleEngine;
 
+    private final CacheControl cacheControl;
+
+    private final JsonFactory jsonFactory;
+
+    private final Bulkheads bulkheads;
+
     @Autowired(required = true)
-    public WordApiController(JumbleEngine jumbleEngine) {
+    public WordApiController(JumbleEngine jumbleEngine,
+            @Value("${jumble.http.cache-max-age:0}") Duration cacheMaxAge,
+            ObjectMapper objectMapper, Bulkheads bulkheads) {
         this.jumbleEngine = jumbleEngine;
+        this.cacheControl = DictionaryETag.cacheControl(cacheMaxAge);
+        this.jsonFactory = objectMapper.getFactory();
+        this.bulkheads = bulkheads;
     }
 
     @Operation(
             summary = "Auto complete based on prefix",
-            description = "Returns a list of words matching the input `prefix` (of at least 3 letters).")
+            description = "Returns a list of words matching the input `prefix` (of at least 3 letters). "
+                    + "With `limit`, returns only the best `limit` words (1 to " + Dictionary.MAX_RANKED_LIMIT + "), "
+                    + "ranked by word weight, then shorter first, then alphabetically. "
+                    + "The `ETag` is the dictionary version (and weights version, with `limit`): "
+                    + "with a matching `If-None-Match`, returns 304 without a body.")
     @ApiResponses(
             value = {
                     @ApiResponse(
@@ -60,20 +90,227 @@ public class WordApiController {
                                                             "  \"awesomely\",\n" +
                                                             "  \"awesomeness\",\n" +
                                                             "  \"awestruck\"\n" +
-                                                            "]") })) })
+                                                            "]") })),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid `limit`"),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description = "Not Modified, the dictionary has not changed since the `If-None-Match` ETag") })
     @GetMapping(value = "/{prefix}", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<Collection<String>> autoComplete(
             @Parameter(
                     description = "The prefix.",
                     required = true,
                     example = "awe")
-            @PathVariable String prefix) {
+            @PathVariable String prefix,
+            @Parameter(
+                    description = "The maximum number of words, best first. All matching words if not given.",
+                    example = "10")
+            @RequestParam(value = "limit", required = false) Integer limit,
+            WebRequest request) {
+        if (limit != null && (limit < 1 || limit > Dictionary.MAX_RANKED_LIMIT)) {
+            LOG.debug("Invalid limit=[{}]", limit);
+            return ResponseEntity.badRequest().build();
+        }
+
+        // one snapshot for both the ETag and the words
+        Dictionary dictionary = this.jumbleEngine.getDictionary();
+        WordWeights weights = this.jumbleEngine.getWordWeights();
+        String etag = autoCompleteETag(dictionary, weights, limit);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(autoCompleteWords(dictionary, weights, prefix, limit));
+    }
+
+    private static String autoCompleteETag(Dictionary dictionary, WordWeights weights, Integer limit) {
+        return limit == null ? DictionaryETag.of(dictionary) : DictionaryETag.of(dictionary, weights);
+    }
+
+    private Collection<String> autoCompleteWords(Dictionary dictionary, WordWeights weights, String prefix, Integer limit) {
         prefix = StringUtils.trimToEmpty(prefix);
         if (prefix.length() < 3) {
-            return new ResponseEntity<>(Collections.emptyList(), HttpStatus.OK);
+            return Collections.emptyList();
+        }
+        return limit == null
+                ? this.jumbleEngine.wordsMatchingPrefix(dictionary, prefix)
+                : this.jumbleEngine.topWordsMatchingPrefix(dictionary, weights, prefix, limit);
+    }
+
+    @Operation(
+            summary = "Auto complete based on prefix, asynchronously",
+            description = "As `/{prefix}`, but looked up on the lookup executor, not on the request thread. "
+                    + "When the executor is full or too slow, returns 503 with `Retry-After`.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "200", description = "Success"),
+                    @ApiResponse(responseCode = "304", description = "Not Modified, the dictionary has not changed"),
+                    @ApiResponse(responseCode = "400", description = "Invalid `limit`"),
+                    @ApiResponse(responseCode = "503", description = "Service Unavailable, retry later") })
+    @GetMapping(value = "/async/{prefix}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<Collection<String>>> autoCompleteAsync(
+            @Parameter(
+                    description = "The prefix.",
+                    required = true,
+                    example = "awe")
+            @PathVariable String prefix,
+            @Parameter(
+                    description = "The maximum number of words, best first. All matching words if not given.",
+                    example = "10")
+            @RequestParam(value = "limit", required = false) Integer limit,
+            WebRequest request) {
+        if (limit != null && (limit < 1 || limit > Dictionary.MAX_RANKED_LIMIT)) {
+            LOG.debug("Invalid limit=[{}]", limit);
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        // conditional GET is answered right away, it costs nothing
+        Dictionary dictionary = this.jumbleEngine.getDictionary();
+        WordWeights weights = this.jumbleEngine.getWordWeights();
+        String etag = autoCompleteETag(dictionary, weights, limit);
+        if (request.checkNotModified(etag)) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build());
+        }
+        return this.bulkheads.lookup()
+                .submit(() -> ResponseEntity.ok().eTag(etag).cacheControl(cacheControl)
+                        .body(autoCompleteWords(dictionary, weights, prefix, limit)))
+                .exceptionally(BulkheadResponses.serviceUnavailable("autoComplete", null));
+    }
+
+    @Operation(
+            summary = "Checks word exists, asynchronously",
+            description = "Returns true if `word` is in the dictionary, case insensitive. Looked up on the lookup executor; "
+                    + "when the executor is full or too slow, returns 503 with `Retry-After`.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "200", description = "Success"),
+                    @ApiResponse(responseCode = "503", description = "Service Unavailable, retry later") })
+    @GetMapping(value = "/async/exists/{word}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<Boolean>> existsAsync(
+            @Parameter(
+                    description = "The word.",
+                    required = true,
+                    example = "awesome")
+            @PathVariable String word) {
+        return this.bulkheads.lookup()
+                .submit(() -> ResponseEntity.ok(this.jumbleEngine.exists(word)))
+                .exceptionally(BulkheadResponses.serviceUnavailable("exists", null));
+    }
+
+    @Operation(
+            summary = "Generates sub words, asynchronously",
+            description = "Returns the words built from the letters of `word`, of at least `minLength` letters. "
+                    + "Generated on the generation executor (long words are expensive); "
+                    + "when the executor is full or too slow, returns 503 with `Retry-After`.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "200", description = "Success"),
+                    @ApiResponse(responseCode = "400", description = "Invalid `minLength`"),
+                    @ApiResponse(responseCode = "503", description = "Service Unavailable, retry later") })
+    @GetMapping(value = "/async/subWords/{word}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<Collection<String>>> subWordsAsync(
+            @Parameter(
+                    description = "The base word.",
+                    required = true,
+                    example = "yellow")
+            @PathVariable String word,
+            @Parameter(
+                    description = "The minimum length of sub words.",
+                    example = "3")
+            @RequestParam(value = "minLength", defaultValue = "3") int minLength) {
+        if (minLength < 1) {
+            LOG.debug("Invalid minLength=[{}]", minLength);
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        return this.bulkheads.generation()
+                .submit(() -> ResponseEntity.ok(this.jumbleEngine.generateSubWords(word, minLength)))
+                .exceptionally(BulkheadResponses.serviceUnavailable("subWords", null));
+    }
+
+    @Operation(
+            summary = "Stream palindrome words",
+            description = "Streams the palindrome words as a JSON array, written while iterating the index. "
+                    + "The `ETag` is the dictionary version.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "200", description = "Success"),
+                    @ApiResponse(responseCode = "304", description = "Not Modified, the dictionary has not changed") })
+    @GetMapping(value = "/stream/palindromes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamPalindromes(WebRequest request) {
+        // one snapshot for both the ETag and the words
+        Dictionary dictionary = this.jumbleEngine.getDictionary();
+        return stream(dictionary, request, () -> dictionary.palindromes().iterator());
+    }
+
+    @Operation(
+            summary = "Stream words matching prefix",
+            description = "Streams the words matching the input `prefix` (of at least 1 letter) as a JSON array, "
+                    + "written while iterating the index. The `ETag` is the dictionary version.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "200", description = "Success"),
+                    @ApiResponse(responseCode = "304", description = "Not Modified, the dictionary has not changed"),
+                    @ApiResponse(responseCode = "400", description = "Invalid `prefix`, not letters") })
+    @GetMapping(value = "/stream/prefix/{prefix}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamPrefix(
+            @Parameter(
+                    description = "The prefix.",
+                    required = true,
+                    example = "a")
+            @PathVariable String prefix,
+            WebRequest request) {
+        String trimmed = StringUtils.trimToEmpty(prefix);
+        if (! StringUtils.isAlpha(trimmed)) {
+            LOG.debug("Invalid prefix=[{}]", trimmed);
+            return ResponseEntity.badRequest().build();
+        }
+        Dictionary dictionary = this.jumbleEngine.getDictionary();
+        return stream(dictionary, request, () -> dictionary.wordsWithPrefix(trimmed).iterator());
+    }
+
+    @Operation(
+            summary = "Stream words matching search criteria",
+            description = "Streams the words matching all the given criteria (at least one) as a JSON array, "
+                    + "written while iterating the index. The `ETag` is the dictionary version.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "200", description = "Success"),
+                    @ApiResponse(responseCode = "304", description = "Not Modified, the dictionary has not changed"),
+                    @ApiResponse(responseCode = "400", description = "No criteria, or `start`/`end` not a letter") })
+    @GetMapping(value = "/stream/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamSearch(
+            @Parameter(description = "The first letter.", example = "a")
+            @RequestParam(value = "start", required = false) Character startChar,
+            @Parameter(description = "The last letter.", example = "s")
+            @RequestParam(value = "end", required = false) Character endChar,
+            @Parameter(description = "The word length.", example = "5")
+            @RequestParam(value = "length", required = false) Integer length,
+            WebRequest request) {
+        if ((startChar == null && endChar == null && length == null)
+                || (startChar != null && ! Character.isLetter(startChar))
+                || (endChar != null && ! Character.isLetter(endChar))) {
+            LOG.debug("Invalid search, start=[{}], end=[{}], length=[{}]", startChar, endChar, length);
+            return ResponseEntity.badRequest().build();
+        }
+        Dictionary dictionary = this.jumbleEngine.getDictionary();
+        return stream(dictionary, request, () -> dictionary.iterateSearch(startChar, endChar, length));
+    }
+
+    /*
+     * The words are only looked up once `If-None-Match` is known not to
+     * match.
+     */
+    private ResponseEntity<StreamingResponseBody> stream(Dictionary dictionary, WebRequest request, Supplier<Iterator<String>> words) {
+        String etag = DictionaryETag.of(dictionary);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
         }
-        Collection<String> words = this.jumbleEngine.wordsMatchingPrefix(prefix);
-        return new ResponseEntity<>(words, HttpStatus.OK);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(JsonWords.stream(this.jsonFactory, words.get()));
     }
 
 }
@@ -0,0 +1,139 @@
+package asia.fourtitude.interviewq.jumble.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import asia.fourtitude.interviewq.jumble.exception.GoodQuestionException;
+import asia.fourtitude.interviewq.jumble.util.WorkerThreads;
+
+/**
+ * Creates many {@link GameState} in parallel, on a bounded pool of worker
+ * threads, handing each one to the caller as soon as it is ready (in order
+ * of completion, not of submission).
+ *
+ * A request keeps at most `2 * threads` games in flight, so neither the
+ * queue nor the caller holds more than a window of games at a time. When
+ * the shared queue is full (many concurrent requests), the caller creates
+ * the game itself, which slows it down instead of piling up work.
+ */
+public class BulkGameCreator implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BulkGameCreator.class);
+
+    private final JumbleEngine jumbleEngine;
+
+    private final ThreadPoolExecutor executor;
+
+    private final int window;
+
+    /**
+     * @param jumbleEngine  Creates the games.
+     * @param threads       Number of worker threads, or 0 for the number of processors.
+     */
+    public BulkGameCreator(JumbleEngine jumbleEngine, int threads) {
+        this(jumbleEngine, threads, WorkerThreads.PLATFORM);
+    }
+
+    /**
+     * @param workerThreads  Creates the worker threads.
+     */
+    public BulkGameCreator(JumbleEngine jumbleEngine, int threads, WorkerThreads workerThreads) {
+        if (threads < 0) {
+            throw new IllegalArgumentException("Invalid threads=[" + threads + "]");
+        }
+        int count = threads == 0 ? Runtime.getRuntime().availableProcessors() : threads;
+        AtomicInteger sequence = new AtomicInteger();
+        this.jumbleEngine = jumbleEngine;
+        this.window = count * 2;
+        this.executor = new ThreadPoolExecutor(count, count, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(count * 4),
+                runnable -> workerThreads.newThread("game-creator-" + sequence.incrementAndGet(), runnable),
+                (runnable, pool) -> {
+                    // caller runs, but never silently drops (the caller would wait forever)
+                    if (pool.isShutdown()) {
+                        throw new RejectedExecutionException("Bulk game creator is closed");
+                    }
+                    runnable.run();
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Creates `count` games, passing each one to `sink` on the calling
+     * thread. Stops (and cancels the games in flight) if `sink` fails.
+     *
+     * @param count      Number of games.
+     * @param length     The length of the picked words.
+     * @param minLength  The minimum length of sub words.
+     * @param sink       Receives the games, as they are ready.
+     */
+    public void create(int count, int length, int minLength, Sink sink) throws IOException, GoodQuestionException {
+        CompletionService<GameState> completion = new ExecutorCompletionService<>(executor);
+        Set<Future<GameState>> pending = new HashSet<>();
+        int submitted = 0;
+        try {
+            for (int done = 0; done < count; done++) {
+                while (submitted < count && pending.size() < window) {
+                    pending.add(completion.submit(() -> this.jumbleEngine.createGameState(length, minLength)));
+                    submitted++;
+                }
+                Future<GameState> future = completion.take();
+                pending.remove(future);
+                sink.accept(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted creating games, count=[" + count + "]");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof GoodQuestionException) {
+                throw (GoodQuestionException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Cannot create game, length=[" + length + "], minLength=[" + minLength + "]", cause);
+        } finally {
+            for (Future<GameState> future : pending) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        // cancelled, not dropped, so callers waiting on them wake up
+        for (Runnable queued : executor.shutdownNow()) {
+            if (queued instanceof Future) {
+                ((Future<?>) queued).cancel(false);
+            }
+        }
+        LOG.info("Closed bulk game creator, completed=[{}]", executor.getCompletedTaskCount());
+    }
+
+    /**
+     * Receives the created games.
+     */
+    @FunctionalInterface
+    public interface Sink {
+
+        void accept(GameState state) throws IOException;
+
+    }
+
+}
@@ -0,0 +1,153 @@
+package asia.fourtitude.interviewq.jumble.core;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import asia.fourtitude.interviewq.jumble.util.WorkerThreads;
+
+/**
+ * Bounded executor for one class of operations, so that a flood of one
+ * class (e.g. game generation) cannot take the threads of another (e.g.
+ * word lookups).
+ *
+ * At most `threads` tasks run and `queueCapacity` wait; beyond that a task
+ * is rejected right away instead of queued without bound. A task not done
+ * within `timeout` (queued time included) completes with a
+ * {@link TimeoutException} and is cancelled: a queued task never runs, a
+ * running one is interrupted.
+ */
+public class Bulkhead implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(Bulkhead.class);
+
+    private final String name;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Duration timeout;
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LongAdder timedOut = new LongAdder();
+
+    /**
+     * @param name           Names the threads, e.g. "lookup".
+     * @param threads        Number of threads.
+     * @param queueCapacity  Number of tasks waiting for a thread.
+     * @param timeout        How long a task may take, queued time included.
+     */
+    public Bulkhead(String name, int threads, int queueCapacity, Duration timeout) {
+        this(name, threads, queueCapacity, timeout, WorkerThreads.PLATFORM);
+    }
+
+    /**
+     * @param workerThreads  Creates the threads.
+     */
+    public Bulkhead(String name, int threads, int queueCapacity, Duration timeout, WorkerThreads workerThreads) {
+        if (threads < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Invalid bulkhead=[" + name + "], threads=[" + threads + "], queueCapacity=[" + queueCapacity + "]");
+        }
+        AtomicInteger sequence = new AtomicInteger();
+        this.name = name;
+        this.timeout = timeout;
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> workerThreads.newThread("bulkhead-" + name + "-" + sequence.incrementAndGet(), runnable),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * @param task  The operation.
+     * @return  Completes with the result of `task`, or exceptionally with
+     *          what `task` threw, a {@link RejectedExecutionException} when
+     *          the bulkhead is full, or a {@link TimeoutException}.
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        FutureTask<Void> future = new FutureTask<>(() -> {
+            try {
+                result.complete(task.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }, null);
+        try {
+            executor.execute(future);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            LOG.debug("Rejected task, {}", this);
+            result.completeExceptionally(e);
+            return result;
+        }
+        result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS).whenComplete((value, e) -> {
+            if (e instanceof TimeoutException) {
+                timedOut.increment();
+                // a cancelled task left in the queue would still hold its slot
+                future.cancel(true);
+                executor.remove(future);
+                LOG.debug("Timed out task, {}", this);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * @param e  The exception of a {@link #submit(Callable)} result.
+     * @return  true if the task was refused or dropped for lack of capacity
+     *          (full or timed out), rather than failed on its own.
+     */
+    public static boolean isOverloaded(Throwable e) {
+        Throwable cause = e;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof RejectedExecutionException || cause instanceof TimeoutException;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getTimedOut() {
+        return timedOut.sum();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        LOG.info("Closed bulkhead, {}", this);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("name=[").append(name).append(']');
+        sb.append(", active=[").append(executor.getActiveCount()).append(']');
+        sb.append(", queued=[").append(executor.getQueue().size()).append(']');
+        sb.append(", completed=[").append(executor.getCompletedTaskCount()).append(']');
+        sb.append(", rejected=[").append(rejected.sum()).append(']');
+        sb.append(", timedOut=[").append(timedOut.sum()).append(']');
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,38 @@
+package asia.fourtitude.interviewq.jumble.core;
+
+import java.io.Closeable;
+
+/**
+ * The {@link Bulkhead} of each class of operations of the asynchronous
+ * endpoints.
+ */
+public class Bulkheads implements Closeable {
+
+    private final Bulkhead lookup;
+
+    private final Bulkhead generation;
+
+    /**
+     * @param lookup      Cheap operations (exists, autocomplete).
+     * @param generation  Expensive operations (new game, sub words).
+     */
+    public Bulkheads(Bulkhead lookup, Bulkhead generation) {
+        this.lookup = lookup;
+        this.generation = generation;
+    }
+
+    public Bulkhead lookup() {
+        return lookup;
+    }
+
+    public Bulkhead generation() {
+        return generation;
+    }
+
+    @Override
+    public void close() {
+        lookup.close();
+        generation.close();
+    }
+
+}
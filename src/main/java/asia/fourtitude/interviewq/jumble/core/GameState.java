@@ -1,24 +1,129 @@
 package asia.fourtitude.interviewq.jumble.core;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.TreeMap;
-import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
+import asia.fourtitude.interviewq.jumble.dictionary.Dictionary;
+
+/**
+ * A game: the word to guess, its scrambled letters, and which of its sub
+ * words are guessed.
+ *
+ * The sub words (solutions) are ordinals of the dictionary snapshot the
+ * game was created from, ordered by length then alphabetically, in an
+ * array shared by every game of the same anagram class. The original word
+ * itself, if in that array, is not a solution. Guesses are bits (by
+ * position in the array), so a game costs a few words of memory plus one
+ * bit per solution.
+ *
+ * Guesses are thread safe and lock-free: a guess sets its bit with a CAS
+ * on the 64-bit word holding it, so concurrent guesses on the same game
+ * (retrying client, several devices) are never lost, and exactly one of
+ * them sees the word as newly guessed. The scramble is not part of the
+ * guess state; it is only written by the single web session owning it.
+ */
 public /*record*/ class GameState {
 
     private final String original;
 
     private String scramble;
 
-    private final Map<String, Boolean> subWords;
+    private final int minLength;
+
+    private final Dictionary dictionary;
+
+    /*
+     * Shared, never modified.
+     */
+    private final int[] solutions;
+
+    /*
+     * Position of the original word in `solutions`, or -1.
+     */
+    private final int excluded;
+
+    private final AtomicLongArray guessed;
+
+    /*
+     * Number of newly guessed words applied, incremented right after the
+     * bit is set.
+     */
+    private final AtomicLong version = new AtomicLong();
 
-    public GameState(String original, String scramble, Map<String, Boolean> subWords) {
+    /**
+     * @param original    The word to guess.
+     * @param scramble    Its scrambled letters.
+     * @param minLength   The minimum length of sub words `solutions` was made with.
+     * @param dictionary  The snapshot `solutions` refer to.
+     * @param solutions   Ordinals of the sub words, ordered by length then
+     *                    alphabetically (as {@link Dictionary#subWordOrdinals}).
+     *                    Shared, not copied, must not be modified.
+     */
+    public GameState(String original, String scramble, int minLength, Dictionary dictionary, int[] solutions) {
         this.original = original;
         this.scramble = scramble;
-        this.subWords = subWords;
+        this.minLength = minLength;
+        this.dictionary = dictionary;
+        this.solutions = solutions;
+        this.excluded = position(dictionary, solutions, dictionary.indexOf(original));
+        this.guessed = new AtomicLongArray((solutions.length + 63) >>> 6);
+    }
+
+    /**
+     * Restores a game, with guesses from {@link #getGuessedBits()}.
+     *
+     * @param guessedBits  The guessed bits, extra words ignored.
+     */
+    public GameState(String original, String scramble, int minLength, Dictionary dictionary, int[] solutions, long[] guessedBits) {
+        this(original, scramble, minLength, dictionary, solutions);
+        int count = Math.min(guessedBits.length, this.guessed.length());
+        for (int index = 0; index < count; index++) {
+            this.guessed.set(index, guessedBits[index]);
+        }
+        this.version.set(getGuessedCount());
+    }
+
+    /*
+     * Binary search of `ordinal` in solutions ordered by (length, ordinal).
+     */
+    private static int position(Dictionary dictionary, int[] solutions, int ordinal) {
+        if (ordinal < 0) {
+            return -1;
+        }
+        int length = dictionary.keyLength(ordinal);
+        int low = 0;
+        int high = solutions.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = Integer.compare(dictionary.keyLength(solutions[mid]), length);
+            if (cmp == 0) {
+                cmp = Integer.compare(solutions[mid], ordinal);
+            }
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int position(Object word) {
+        if (! (word instanceof CharSequence)) {
+            return -1;
+        }
+        int pos = position(dictionary, solutions, dictionary.indexOf((CharSequence) word));
+        return pos == excluded ? -1 : pos;
     }
 
     public String getOriginal() {
@@ -33,8 +138,59 @@ public /*record*/ class GameState {
         this.scramble = scramble;
     }
 
+    public int getMinLength() {
+        return minLength;
+    }
+
+    /**
+     * @return  The dictionary snapshot the sub words refer to.
+     */
+    public Dictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * @return  Read-only view of the sub words (by length, then
+     *          alphabetically), each mapped to whether it is guessed.
+     */
     public Map<String, Boolean> getSubWords() {
-        return subWords;
+        return new SubWords();
+    }
+
+    public int getTotalWords() {
+        return excluded < 0 ? solutions.length : solutions.length - 1;
+    }
+
+    public int getGuessedCount() {
+        int count = 0;
+        for (int index = 0; index < guessed.length(); index++) {
+            count += Long.bitCount(guessed.get(index));
+        }
+        return count;
+    }
+
+    /**
+     * @return  Number of newly guessed words so far, increases with every
+     *          successful guess.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * @return  Copy of the guessed bits, bit `n` (of word `n / 64`) set
+     *          when the `n`-th sub word of `solutions` is guessed.
+     */
+    public long[] getGuessedBits() {
+        long[] bits = new long[guessed.length()];
+        for (int index = 0; index < bits.length; index++) {
+            bits[index] = guessed.get(index);
+        }
+        return bits;
+    }
+
+    private boolean isGuessed(int pos) {
+        return (guessed.get(pos >>> 6) & (1L << pos)) != 0;
     }
 
     public String getScrambleAsDisplay() {
@@ -45,38 +201,163 @@ public /*record*/ class GameState {
         return String.join(" ", list);
     }
 
+    /**
+     * @return  The guessed words, by length then alphabetically.
+     */
     public List<String> getGuessedWords() {
-        Map<Integer, Set<String>> guesseds = new TreeMap<>();
-        for (Map.Entry<String, Boolean> entry : this.subWords.entrySet()) {
-            if (entry.getValue() == Boolean.TRUE) {
-                String word = entry.getKey();
-                Integer len = word.length();
-                Set<String> words = guesseds.get(len);
-                if (words == null) {
-                    words = new TreeSet<>();
-                    guesseds.put(len, words);
-                }
-                words.add(word);
-            }
-        }
         List<String> words = new ArrayList<>();
-        for (Map.Entry<Integer, Set<String>> entry : guesseds.entrySet()) {
-            for (String word : entry.getValue()) {
-                words.add(word);
+        for (int index = 0; index < guessed.length(); index++) {
+            long bits = guessed.get(index);
+            while (bits != 0) {
+                int pos = (index << 6) + Long.numberOfTrailingZeros(bits);
+                words.add(dictionary.word(solutions[pos]));
+                bits &= bits - 1;
             }
         }
         return words;
     }
 
+    /**
+     * @param word  The guess, case insensitive.
+     * @return  true if `word` is a sub word (guessed now or before).
+     */
     public boolean updateGuessWord(String word) {
-        if (word == null) {
-            return false;
+        return guess(word) != Guess.INCORRECT;
+    }
+
+    /**
+     * Applies the guess atomically.
+     *
+     * @param word  The guess, case insensitive.
+     * @return  The outcome; of concurrent guesses of the same word, exactly
+     *          one gets {@link Guess#CORRECT}.
+     */
+    public Guess guess(String word) {
+        int pos = position(word);
+        if (pos < 0) {
+            return Guess.INCORRECT;
         }
-        if (this.subWords.containsKey(word)) {
-            this.subWords.put(word, Boolean.TRUE);
-            return true;
+        int index = pos >>> 6;
+        long bit = 1L << pos;
+        long bits;
+        do {
+            bits = guessed.get(index);
+            if ((bits & bit) != 0) {
+                return Guess.ALREADY_GUESSED;
+            }
+        } while (! guessed.compareAndSet(index, bits, bits | bit));
+        version.incrementAndGet();
+        return Guess.CORRECT;
+    }
+
+    /**
+     * Applies the guesses as one state update: their bits are merged, and
+     * set with one CAS per 64-bit word touched.
+     *
+     * @param words  The guesses, case insensitive, null for none.
+     * @return  The outcome of each guess, as if applied one after the
+     *          other: only the first of repeated words can be
+     *          {@link Guess#CORRECT}.
+     */
+    public Guess[] guess(List<String> words) {
+        int[] positions = positions(words);
+        long[] masks = masks(positions, guessed.length());
+        long[] newly = new long[masks.length];
+        int count = 0;
+        for (int index = 0; index < masks.length; index++) {
+            if (masks[index] == 0) {
+                continue;
+            }
+            long bits;
+            do {
+                bits = guessed.get(index);
+            } while ((masks[index] & ~bits) != 0 && ! guessed.compareAndSet(index, bits, bits | masks[index]));
+            newly[index] = masks[index] & ~bits;
+            count += Long.bitCount(newly[index]);
+        }
+        if (count > 0) {
+            version.addAndGet(count);
         }
-        return false;
+        return outcomes(positions, newly);
+    }
+
+    /**
+     * @param words  The guesses, case insensitive, null for none.
+     * @return  Position of each guess among the sub words (its bit), or -1
+     *          if not a sub word.
+     */
+    public int[] positions(List<String> words) {
+        return positions(dictionary, solutions, excluded, words);
+    }
+
+    /**
+     * As {@link #positions(List)}, for a game stored as its original word
+     * and sub words (`solutions`, as given to the constructor).
+     */
+    public static int[] positions(Dictionary dictionary, int[] solutions, String original, List<String> words) {
+        return positions(dictionary, solutions, position(dictionary, solutions, dictionary.indexOf(original)), words);
+    }
+
+    private static int[] positions(Dictionary dictionary, int[] solutions, int excluded, List<String> words) {
+        int[] positions = new int[words.size()];
+        for (int item = 0; item < positions.length; item++) {
+            String word = words.get(item);
+            int pos = word == null ? -1 : position(dictionary, solutions, dictionary.indexOf(word));
+            positions[item] = pos == excluded ? -1 : pos;
+        }
+        return positions;
+    }
+
+    /**
+     * @param words     The guesses.
+     * @param outcomes  Their outcomes, as {@link #guess(List)}.
+     * @return  The newly guessed words, in order.
+     */
+    public static List<String> newlyGuessed(List<String> words, Guess[] outcomes) {
+        List<String> newly = new ArrayList<>();
+        for (int item = 0; item < outcomes.length; item++) {
+            if (outcomes[item] == Guess.CORRECT) {
+                newly.add(words.get(item));
+            }
+        }
+        return newly;
+    }
+
+    /**
+     * @param positions  As {@link #positions(List)}.
+     * @param length     Number of 64-bit words of the bits.
+     * @return  The bits of `positions`, merged.
+     */
+    public static long[] masks(int[] positions, int length) {
+        long[] masks = new long[length];
+        for (int pos : positions) {
+            if (pos >= 0) {
+                masks[pos >>> 6] |= 1L << pos;
+            }
+        }
+        return masks;
+    }
+
+    /**
+     * @param positions  As {@link #positions(List)}.
+     * @param newly      The bits newly set by the update (consumed).
+     * @return  The outcome of each guess, in order: the first guess of a
+     *          newly set bit is correct, later ones already guessed.
+     */
+    public static Guess[] outcomes(int[] positions, long[] newly) {
+        Guess[] outcomes = new Guess[positions.length];
+        for (int item = 0; item < positions.length; item++) {
+            int pos = positions[item];
+            if (pos < 0) {
+                outcomes[item] = Guess.INCORRECT;
+            } else if ((newly[pos >>> 6] & (1L << pos)) != 0) {
+                newly[pos >>> 6] &= ~(1L << pos);
+                outcomes[item] = Guess.CORRECT;
+            } else {
+                outcomes[item] = Guess.ALREADY_GUESSED;
+            }
+        }
+        return outcomes;
     }
 
     @Override
@@ -88,10 +369,78 @@ public /*record*/ class GameState {
         if (scramble != null) {
             sb.append(sb.length() == 0 ? "" : ", ").append("scramble=[").append(scramble).append(']');
         }
-        if (subWords != null) {
-            sb.append(sb.length() == 0 ? "" : ", ").append("subWords.size=[").append(subWords.size()).append(']');
-        }
+        sb.append(sb.length() == 0 ? "" : ", ").append("subWords.size=[").append(getTotalWords()).append(']');
         return sb.toString();
     }
 
+    public enum Guess {
+
+        INCORRECT,
+
+        CORRECT,
+
+        ALREADY_GUESSED
+
+    }
+
+    private final class SubWords extends AbstractMap<String, Boolean> {
+
+        @Override
+        public int size() {
+            return getTotalWords();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return position(key) >= 0;
+        }
+
+        @Override
+        public Boolean get(Object key) {
+            int pos = position(key);
+            return pos < 0 ? null : Boolean.valueOf(isGuessed(pos));
+        }
+
+        @Override
+        public Set<Map.Entry<String, Boolean>> entrySet() {
+            return new AbstractSet<Map.Entry<String, Boolean>>() {
+
+                @Override
+                public int size() {
+                    return getTotalWords();
+                }
+
+                @Override
+                public Iterator<Map.Entry<String, Boolean>> iterator() {
+                    return new Iterator<Map.Entry<String, Boolean>>() {
+
+                        private int next = skip(0);
+
+                        private int skip(int pos) {
+                            return pos == excluded ? pos + 1 : pos;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < solutions.length;
+                        }
+
+                        @Override
+                        public Map.Entry<String, Boolean> next() {
+                            if (! hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            int pos = next;
+                            next = skip(next + 1);
+                            return new SimpleImmutableEntry<>(dictionary.word(solutions[pos]), isGuessed(pos));
+                        }
+
+                    };
+                }
+
+            };
+        }
+
+    }
+
 }
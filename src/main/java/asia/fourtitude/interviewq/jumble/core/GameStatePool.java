@@ -0,0 +1,201 @@
+package asia.fourtitude.interviewq.jumble.core;
+
+import java.io.Closeable;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import asia.fourtitude.interviewq.jumble.dictionary.Dictionary;
+import asia.fourtitude.interviewq.jumble.exception.GoodQuestionException;
+import asia.fourtitude.interviewq.jumble.util.WorkerThreads;
+
+/**
+ * Pool of ready-made {@link GameState}, per (length, minLength), so that
+ * starting a new game is a queue poll instead of picking a word, scrambling
+ * it and generating all its sub words on the request thread.
+ *
+ * Each pool holds at most `highWatermark` games. When a take leaves fewer
+ * than `lowWatermark`, a background producer refills it up to
+ * `highWatermark`. When a pool is empty, the game is created inline.
+ *
+ * Games made from a dictionary that has since been replaced are discarded
+ * on take, so a reload is visible to the next game.
+ */
+public class GameStatePool implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GameStatePool.class);
+
+    private final JumbleEngine jumbleEngine;
+
+    private final int lowWatermark;
+
+    private final int highWatermark;
+
+    private final ConcurrentMap<Long, Pool> pools = new ConcurrentHashMap<>();
+
+    private final ExecutorService producer;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    public GameStatePool(JumbleEngine jumbleEngine, int lowWatermark, int highWatermark) {
+        this(jumbleEngine, lowWatermark, highWatermark, WorkerThreads.PLATFORM);
+    }
+
+    /**
+     * @param workerThreads  Creates the thread refilling the pools.
+     */
+    public GameStatePool(JumbleEngine jumbleEngine, int lowWatermark, int highWatermark, WorkerThreads workerThreads) {
+        if (lowWatermark < 0 || highWatermark <= 0 || lowWatermark > highWatermark) {
+            throw new IllegalArgumentException("Invalid watermarks, low=[" + lowWatermark + "], high=[" + highWatermark + "]");
+        }
+        this.jumbleEngine = jumbleEngine;
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+        this.producer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = workerThreads.newThread("game-pool-producer", runnable);
+            // ignored by virtual threads
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Takes a ready-made game, or creates one inline if none is ready.
+     *
+     * @param length     The length of the picked word.
+     * @param minLength  The minimum length of sub words.
+     * @return  The new game state, not shared with any other caller.
+     */
+    public GameState take(int length, int minLength) throws GoodQuestionException {
+        Pool pool = pool(length, minLength);
+        Dictionary dictionary = this.jumbleEngine.getDictionary();
+        Pooled pooled = pool.queue.poll();
+        while (pooled != null && pooled.dictionary != dictionary) {
+            pooled = pool.queue.poll();
+        }
+        if (pool.queue.size() < lowWatermark) {
+            refill(pool);
+        }
+        if (pooled != null) {
+            hits.increment();
+            return pooled.state;
+        }
+        misses.increment();
+        return this.jumbleEngine.createGameState(length, minLength);
+    }
+
+    /**
+     * Starts filling the pool of (length, minLength) in background.
+     */
+    public void prefill(int length, int minLength) {
+        refill(pool(length, minLength));
+    }
+
+    /**
+     * @return  Number of ready-made games of (length, minLength).
+     */
+    public int size(int length, int minLength) {
+        Pool pool = pools.get(key(length, minLength));
+        return pool == null ? 0 : pool.queue.size();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    private static Long key(int length, int minLength) {
+        return ((long) length << 32) | (minLength & 0xFFFFFFFFL);
+    }
+
+    private Pool pool(int length, int minLength) {
+        return pools.computeIfAbsent(key(length, minLength), key -> new Pool(length, minLength, highWatermark));
+    }
+
+    private void refill(Pool pool) {
+        if (pool.refilling.compareAndSet(false, true)) {
+            try {
+                producer.execute(() -> fill(pool));
+            } catch (RejectedExecutionException e) {
+                pool.refilling.set(false);
+            }
+        }
+    }
+
+    private void fill(Pool pool) {
+        try {
+            while (pool.queue.size() < highWatermark && ! Thread.currentThread().isInterrupted()) {
+                Dictionary dictionary = this.jumbleEngine.getDictionary();
+                GameState state = this.jumbleEngine.createGameState(pool.length, pool.minLength);
+                if (! pool.queue.offer(new Pooled(dictionary, state))) {
+                    break;
+                }
+            }
+        } catch (GoodQuestionException | RuntimeException e) {
+            LOG.error("Cannot fill game pool, length=[{}], minLength=[{}]", pool.length, pool.minLength, e);
+        } finally {
+            pool.refilling.set(false);
+        }
+    }
+
+    @Override
+    public void close() {
+        producer.shutdownNow();
+        LOG.info("Closed game pool, {}", this);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("pools=[").append(pools.size()).append(']');
+        sb.append(", hits=[").append(hits.sum()).append(']');
+        sb.append(", misses=[").append(misses.sum()).append(']');
+        return sb.toString();
+    }
+
+    private static final class Pooled {
+
+        final Dictionary dictionary;
+
+        final GameState state;
+
+        Pooled(Dictionary dictionary, GameState state) {
+            this.dictionary = dictionary;
+            this.state = state;
+        }
+
+    }
+
+    private static final class Pool {
+
+        final int length;
+
+        final int minLength;
+
+        final BlockingQueue<Pooled> queue;
+
+        final AtomicBoolean refilling = new AtomicBoolean();
+
+        Pool(int length, int minLength, int capacity) {
+            this.length = length;
+            this.minLength = minLength;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+    }
+
+}
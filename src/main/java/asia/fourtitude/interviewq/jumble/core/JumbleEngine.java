@@ -1,31 +1,86 @@
 package asia.fourtitude.interviewq.jumble.core;
 
-import java.io.*;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import asia.fourtitude.interviewq.jumble.dictionary.Dictionary;
+import asia.fourtitude.interviewq.jumble.dictionary.WordWeights;
 import asia.fourtitude.interviewq.jumble.exception.GoodQuestionException;
 
 import asia.fourtitude.interviewq.jumble.util.Constant;
 
 
 public class JumbleEngine {
+    /*
+     * Random words picked to find one with sub words, before giving up.
+     */
+    private static final int MAX_WORD_PICKS = 1000;
+
     private Random random = new Random();
 
-    //file reader
-    private List<String> loadWordList(String filePath) {
-        List<String> wordList = new ArrayList<>();
-        try (InputStream inputStream = getClass().getResourceAsStream(filePath);
-             BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
+    /*
+     * Word list is loaded once, and shared (read only) by all queries.
+     * Replaced as a whole (never modified) when the word list changes;
+     * each query reads the reference once and works on that snapshot.
+     */
+    private final AtomicReference<Dictionary> dictionary;
 
-            String word;
-            while ((word = reader.readLine()) != null) {
-                wordList.add(word);
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    /*
+     * Ranks the matches of `topWordsMatchingPrefix`, replaced as a whole.
+     */
+    private volatile WordWeights wordWeights = WordWeights.none();
 
-        return wordList;
+    public JumbleEngine() {
+        this(loadDefaultDictionary());
+    }
+
+    public JumbleEngine(Dictionary dictionary) {
+        Objects.requireNonNull(dictionary, "dictionary must not be null");
+        this.dictionary = new AtomicReference<>(dictionary.rank(wordWeights));
+    }
+
+    public Dictionary getDictionary() {
+        return dictionary.get();
+    }
+
+    /**
+     * Publishes a new, fully built dictionary, its ranking by the word
+     * weights built first (on the calling thread, e.g. the watcher).
+     * Queries already running finish on the previous one.
+     *
+     * @param dictionary  The new dictionary.
+     */
+    public synchronized void replaceDictionary(Dictionary dictionary) {
+        Objects.requireNonNull(dictionary, "dictionary must not be null");
+        this.dictionary.set(dictionary.rank(wordWeights));
+    }
+
+    public WordWeights getWordWeights() {
+        return wordWeights;
+    }
+
+    /**
+     * Ranks the current dictionary by the weights, then publishes them.
+     * Synchronized with {@link #replaceDictionary} (writers only), so the
+     * published dictionary is always ranked by the published weights.
+     *
+     * @param wordWeights  The weights ranking `topWordsMatchingPrefix`.
+     */
+    public synchronized void setWordWeights(WordWeights wordWeights) {
+        Objects.requireNonNull(wordWeights, "wordWeights must not be null");
+        this.dictionary.get().rank(wordWeights);
+        this.wordWeights = wordWeights;
+    }
+
+    /*
+     * Prefers the compiled dictionary produced by the build, falls back to
+     * the plain word list (e.g. running from IDE without the build step).
+     */
+    private static Dictionary loadDefaultDictionary() {
+        if (JumbleEngine.class.getResource(Constant.COMPILED_FILE_PATH) != null) {
+            return Dictionary.loadResource(Constant.COMPILED_FILE_PATH);
+        }
+        return Dictionary.loadResource(Constant.FILE_PATH);
     }
 
     /**
@@ -88,41 +143,7 @@ public class JumbleEngine {
          * Refer to the method's Javadoc (above) and implement accordingly.
          * Must pass the corresponding unit tests.
          */
-        List<String> palindromes = new ArrayList<>();
-
-        try (InputStream inputStream = getClass().getResourceAsStream("/words.txt")) {
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
-
-                String word;
-                while ((word = reader.readLine()) != null) {
-                    if (isPalindrome(word)) {
-                        palindromes.add(word);
-                    }
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        return palindromes;
-    }
-
-    private boolean isPalindrome(String word) {
-        if (word.length() <= 1) {
-            return false;
-        }
-
-        int left = 0;
-        int right = word.length() - 1;
-
-        while (left < right) {
-            if (word.charAt(left) != word.charAt(right)) {
-                return false;
-            }
-            left++;
-            right--;
-        }
-
-        return true;
+        return dictionary.get().palindromes();
     }
 
     /**
@@ -142,19 +163,10 @@ public class JumbleEngine {
          * Refer to the method's Javadoc (above) and implement accordingly.
          * Must pass the corresponding unit tests.
          */
-        List<String> wordList = this.loadWordList(Constant.FILE_PATH);
-        Collections.shuffle(wordList);
-
         if(length == null) {
             return "";
         }
-
-        for (String word : wordList) {
-            if (word.length() == length) {
-                return word;
-            }
-        }
-        return null;
+        return dictionary.get().randomWord(length);
     }
 
     /**
@@ -175,20 +187,7 @@ public class JumbleEngine {
          * Must pass the corresponding unit tests.
          */
 
-        if(word==null) {
-            return false;
-        }
-
-        String lowercaseWord = word.toLowerCase();
-        lowercaseWord = lowercaseWord.trim();
-
-        List<String> wordList = this.loadWordList(Constant.FILE_PATH);
-        for (String wordTemp : wordList) {
-            if (wordTemp.equalsIgnoreCase(lowercaseWord)) {
-                return true;
-            }
-        }
-        return false;
+        return dictionary.get().contains(word);
     }
 
     /**
@@ -212,23 +211,64 @@ public class JumbleEngine {
          * Refer to the method's Javadoc (above) and implement accordingly.
          * Must pass the corresponding unit tests.
          */
-        List<String> wordList = this.loadWordList(Constant.FILE_PATH);
-        List<String> wordsMatchingPrefixList = new ArrayList<>();
-
-        if(prefix!= null && isValidPrefix(prefix.trim())) {
-            String lowercasePrefix = prefix.toLowerCase();
-            lowercasePrefix = lowercasePrefix.trim();
-            for (String word : wordList) {
-                if (word.toLowerCase().startsWith(lowercasePrefix)) {
-                    wordsMatchingPrefixList.add(word);
-                }
-            }
+        return wordsMatchingPrefix(dictionary.get(), prefix);
+    }
+
+    /**
+     * Like {@link #wordsMatchingPrefix(String)}, on the given snapshot (as
+     * returned by {@link #getDictionary()} earlier).
+     */
+    public Collection<String> wordsMatchingPrefix(Dictionary dictionary, String prefix) {
+        if (prefix == null) {
+            return Collections.emptyList();
+        }
+        String trimmed = prefix.trim();
+        if (! isValidPrefix(trimmed)) {
+            return Collections.emptyList();
         }
-        return wordsMatchingPrefixList;
+        return dictionary.wordsWithPrefix(trimmed);
+    }
+
+    /**
+     * Like {@link #wordsMatchingPrefix(String)}, but only the best `limit`
+     * words, ranked by the word weights (higher first), then shorter, then
+     * alphabetically.
+     *
+     * @param prefix  The prefix to match.
+     * @param limit   Maximum number of words, 1 to {@link Dictionary#MAX_RANKED_LIMIT}.
+     * @return  The best words matching the prefix, best first.
+     */
+    public List<String> topWordsMatchingPrefix(String prefix, int limit) {
+        return topWordsMatchingPrefix(dictionary.get(), wordWeights, prefix, limit);
+    }
+
+    /**
+     * Like {@link #topWordsMatchingPrefix(String, int)}, on the given
+     * snapshots (as returned by {@link #getDictionary()} and
+     * {@link #getWordWeights()} earlier).
+     */
+    public List<String> topWordsMatchingPrefix(Dictionary dictionary, WordWeights wordWeights, String prefix, int limit) {
+        if (prefix == null) {
+            return Collections.emptyList();
+        }
+        String trimmed = prefix.trim();
+        if (! isValidPrefix(trimmed)) {
+            return Collections.emptyList();
+        }
+        return dictionary.topWordsWithPrefix(trimmed, limit, wordWeights);
     }
 
     private boolean isValidPrefix(String prefix) {
-        return !prefix.isEmpty() && prefix.matches("^[a-zA-Z]+$");
+        if (prefix.isEmpty()) {
+            return false;
+        }
+        for (int pos = 0; pos < prefix.length(); pos++) {
+            char ch = prefix.charAt(pos);
+            if (! ((ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z'))) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -260,29 +300,13 @@ public class JumbleEngine {
             return new ArrayList<>();
         }
 
-        List<String> wordList = loadWordList(Constant.FILE_PATH);
-        List<String> matchingWords = new ArrayList<>();
-
-        if (startChar == null) {
-            startChar = '\0';
-        }
-        if (endChar == null) {
-            endChar = '\0';
+        if (startChar != null && startChar == '\0') {
+            startChar = null;
         }
-
-
-        for (String word : wordList) {
-            char firstChar = Character.toLowerCase(word.charAt(0));
-            char lastChar = Character.toLowerCase(word.charAt(word.length() - 1));
-
-            if ((startChar == '\0' || firstChar == Character.toLowerCase(startChar)) &&
-                    (endChar == '\0' || lastChar == Character.toLowerCase(endChar)) &&
-                    (length == null || word.length() == length)) {
-                matchingWords.add(word);
-            }
+        if (endChar != null && endChar == '\0') {
+            endChar = null;
         }
-
-        return matchingWords;
+        return dictionary.get().search(startChar, endChar, length);
     }
 
     /**
@@ -313,7 +337,17 @@ public class JumbleEngine {
          * Refer to the method's Javadoc (above) and implement accordingly.
          * Must pass the corresponding unit tests.
          */
-        throw new GoodQuestionException("Good question (•‿•)");
+        if (minLength == null) {
+            minLength = 3;
+        }
+        if (word == null || minLength <= 0) {
+            return Collections.emptyList();
+        }
+        String trimmed = word.trim();
+        if (trimmed.length() < minLength) {
+            return Collections.emptyList();
+        }
+        return dictionary.get().subWords(trimmed, minLength);
     }
 
     /**
@@ -322,6 +356,7 @@ public class JumbleEngine {
      *
      * Word is of length 6 characters.
      * The minimum length of sub words is of length 3 characters.
+     * Words without any sub word (nothing to guess) are skipped.
      *
      * @param length     The length of selected word.
      *                   Expects >= 3.
@@ -343,16 +378,21 @@ public class JumbleEngine {
         if (minLength > length) {
             throw new IllegalArgumentException("Expect minLength=[" + minLength + "] greater than length=[" + length + "]");
         }
-        String original = this.pickOneRandomWord(length);
-        if (original == null) {
-            throw new IllegalArgumentException("Cannot find valid word to create game state");
-        }
-        String scramble = this.scramble(original);
-        Map<String, Boolean> subWords = new TreeMap<>();
-        for (String subWord : this.generateSubWords(original, minLength)) {
-            subWords.put(subWord, Boolean.FALSE);
+        // same snapshot for word and sub words, even if replaced meanwhile
+        Dictionary snapshot = this.dictionary.get();
+        for (int pick = 0; pick < MAX_WORD_PICKS; pick++) {
+            String original = snapshot.randomWord(length);
+            if (original == null) {
+                break;
+            }
+            // shared by every game of the same anagram class
+            int[] solutions = snapshot.subWordOrdinals(original, minLength);
+            // the original is one of them (minLength <= length), not to guess
+            if (solutions.length > 1) {
+                return new GameState(original, this.scramble(original), minLength, snapshot, solutions);
+            }
         }
-        return new GameState(original, scramble, subWords);
+        throw new IllegalArgumentException("Cannot find valid word to create game state");
     }
 
 }
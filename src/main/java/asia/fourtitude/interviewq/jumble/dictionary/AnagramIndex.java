@@ -0,0 +1,271 @@
+package asia.fourtitude.interviewq.jumble.dictionary;
+
+import java.util.Arrays;
+
+/**
+ * Words grouped by letter-count signature (anagram class).
+ *
+ * A signature packs the count of each letter 'a'..'z' in 4 bits: letters
+ * 'a'..'p' in `lo`, 'q'..'z' in `hi`. Words having other characters, or a
+ * letter more than 15 times, have no signature and are not indexed.
+ *
+ * Sub words of a base word are the words whose signature is a sub-multiset
+ * of the base signature. These are found by enumerating the sub-multisets
+ * and looking each one up, unless there are more of them than signatures
+ * in the index (long base words), in which case the signatures are scanned
+ * instead. Either way cost is bounded by the number of distinct signatures.
+ */
+final class AnagramIndex {
+
+    private static final int LETTERS = 26;
+
+    private static final int LO_LETTERS = 16;
+
+    private static final int MAX_COUNT = 15;
+
+    /*
+     * Per signature group: packed counts, total letters, and its ordinals
+     * `ordinals[starts[group] .. starts[group + 1])`.
+     */
+    private final long[] sigLo;
+
+    private final long[] sigHi;
+
+    private final int[] sigLength;
+
+    private final int[] starts;
+
+    private final int[] ordinals;
+
+    /*
+     * Open addressing from signature to group + 1 (0 is empty).
+     */
+    private final int[] table;
+
+    private final int mask;
+
+    AnagramIndex(Dictionary dictionary) {
+        int size = dictionary.size();
+        long[] lo = new long[size];
+        long[] hi = new long[size];
+        Integer[] sorted = new Integer[size];
+        int indexed = 0;
+        int[] counts = new int[LETTERS];
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            if (count(dictionary, ordinal, counts)) {
+                lo[ordinal] = packLo(counts);
+                hi[ordinal] = packHi(counts);
+                sorted[indexed++] = ordinal;
+            }
+        }
+        Arrays.sort(sorted, 0, indexed, (a, b) -> {
+            int cmp = Long.compare(lo[a], lo[b]);
+            if (cmp == 0) {
+                cmp = Long.compare(hi[a], hi[b]);
+            }
+            return cmp != 0 ? cmp : Integer.compare(a, b);
+        });
+
+        int groups = 0;
+        for (int pos = 0; pos < indexed; pos++) {
+            if (pos == 0 || lo[sorted[pos]] != lo[sorted[pos - 1]] || hi[sorted[pos]] != hi[sorted[pos - 1]]) {
+                groups++;
+            }
+        }
+        this.sigLo = new long[groups];
+        this.sigHi = new long[groups];
+        this.sigLength = new int[groups];
+        this.starts = new int[groups + 1];
+        this.ordinals = new int[indexed];
+        int group = -1;
+        for (int pos = 0; pos < indexed; pos++) {
+            int ordinal = sorted[pos];
+            if (group < 0 || lo[ordinal] != sigLo[group] || hi[ordinal] != sigHi[group]) {
+                group++;
+                sigLo[group] = lo[ordinal];
+                sigHi[group] = hi[ordinal];
+                sigLength[group] = dictionary.keyLength(ordinal);
+                starts[group] = pos;
+            }
+            ordinals[pos] = ordinal;
+        }
+        starts[groups] = indexed;
+
+        int capacity = Integer.highestOneBit(Math.max(2, groups) * 2 - 1) << 1;
+        this.table = new int[capacity];
+        this.mask = capacity - 1;
+        for (group = 0; group < groups; group++) {
+            int slot = hash(sigLo[group], sigHi[group]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = group + 1;
+        }
+    }
+
+    /**
+     * Finds the ordinals of words that can be built from the letters of
+     * `word` (each letter used at most as many times as it appears).
+     *
+     * @param word       The base word, case insensitive.
+     * @param minLength  The minimum length (inclusive) of sub words.
+     * @return  The ordinals, ascending. Includes the base word, if indexed.
+     */
+    int[] subWords(CharSequence word, int minLength) {
+        int[] counts = new int[LETTERS];
+        int length = 0;
+        for (int pos = 0; pos < word.length(); pos++) {
+            int letter = Character.toLowerCase(word.charAt(pos)) - 'a';
+            if (letter >= 0 && letter < LETTERS && counts[letter] < MAX_COUNT) {
+                counts[letter]++;
+                length++;
+            }
+        }
+        if (length < minLength) {
+            return new int[0];
+        }
+
+        Collector collector = new Collector();
+        if (combinations(counts) > sigLo.length) {
+            scan(counts, minLength, collector);
+        } else {
+            int[] letters = new int[LETTERS];
+            int distinct = 0;
+            for (int letter = 0; letter < LETTERS; letter++) {
+                if (counts[letter] > 0) {
+                    letters[distinct++] = letter;
+                }
+            }
+            enumerate(counts, letters, distinct, 0, new int[LETTERS], 0, length, minLength, collector);
+        }
+        int[] result = Arrays.copyOf(collector.ordinals, collector.size);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /*
+     * Depth-first over the distinct letters, choosing how many of each to
+     * use. `remaining` is the most letters still obtainable, used to prune
+     * branches that cannot reach `minLength`.
+     */
+    private void enumerate(int[] counts, int[] letters, int distinct, int depth,
+            int[] chosen, int length, int remaining, int minLength, Collector collector) {
+        if (length + remaining < minLength) {
+            return;
+        }
+        if (depth == distinct) {
+            if (length > 0) {
+                lookup(packLo(chosen), packHi(chosen), collector);
+            }
+            return;
+        }
+        int letter = letters[depth];
+        int max = counts[letter];
+        for (int count = 0; count <= max; count++) {
+            chosen[letter] = count;
+            enumerate(counts, letters, distinct, depth + 1, chosen, length + count, remaining - max, minLength, collector);
+        }
+        chosen[letter] = 0;
+    }
+
+    private void scan(int[] counts, int minLength, Collector collector) {
+        long baseLo = packLo(counts);
+        long baseHi = packHi(counts);
+        for (int group = 0; group < sigLo.length; group++) {
+            if (sigLength[group] >= minLength && contains(baseLo, sigLo[group]) && contains(baseHi, sigHi[group])) {
+                collector.add(ordinals, starts[group], starts[group + 1]);
+            }
+        }
+    }
+
+    private void lookup(long lo, long hi, Collector collector) {
+        int slot = hash(lo, hi) & mask;
+        int group;
+        while ((group = table[slot]) != 0) {
+            if (sigLo[group - 1] == lo && sigHi[group - 1] == hi) {
+                collector.add(ordinals, starts[group - 1], starts[group]);
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /*
+     * True if every 4-bit count in `sub` is <= the count in `base`.
+     */
+    private static boolean contains(long base, long sub) {
+        for (int shift = 0; shift < 64; shift += 4) {
+            if (((sub >>> shift) & 0xF) > ((base >>> shift) & 0xF)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long combinations(int[] counts) {
+        long combinations = 1;
+        for (int count : counts) {
+            combinations *= count + 1;
+            if (combinations > Integer.MAX_VALUE) {
+                break;
+            }
+        }
+        return combinations;
+    }
+
+    /*
+     * Counts the letters of the key at `ordinal`, false if key has no signature.
+     */
+    private static boolean count(Dictionary dictionary, int ordinal, int[] counts) {
+        Arrays.fill(counts, 0);
+        for (int pos = 0; pos < dictionary.keyLength(ordinal); pos++) {
+            int letter = dictionary.keyCharAt(ordinal, pos) - 'a';
+            if (letter < 0 || letter >= LETTERS || counts[letter] == MAX_COUNT) {
+                return false;
+            }
+            counts[letter]++;
+        }
+        return true;
+    }
+
+    private static long packLo(int[] counts) {
+        long packed = 0;
+        for (int letter = 0; letter < LO_LETTERS; letter++) {
+            packed |= (long) counts[letter] << (letter * 4);
+        }
+        return packed;
+    }
+
+    private static long packHi(int[] counts) {
+        long packed = 0;
+        for (int letter = LO_LETTERS; letter < LETTERS; letter++) {
+            packed |= (long) counts[letter] << ((letter - LO_LETTERS) * 4);
+        }
+        return packed;
+    }
+
+    private static int hash(long lo, long hi) {
+        long hash = lo * 0x9E3779B97F4A7C15L + hi;
+        hash ^= hash >>> 29;
+        hash *= 0xBF58476D1CE4E5B9L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private static final class Collector {
+
+        int[] ordinals = new int[16];
+
+        int size;
+
+        void add(int[] source, int from, int to) {
+            int count = to - from;
+            if (size + count > ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, Math.max(ordinals.length * 2, size + count));
+            }
+            System.arraycopy(source, from, ordinals, size, count);
+            size += count;
+        }
+
+    }
+
+}
@@ -0,0 +1,52 @@
+package asia.fourtitude.interviewq.jumble.dictionary;
+
+/**
+ * Word table held in heap String arrays.
+ */
+final class ArrayWordTable implements WordTable {
+
+    private final String[] words;
+
+    private final String[] keys;
+
+    ArrayWordTable(String[] words, String[] keys) {
+        this.words = words;
+        this.keys = keys;
+    }
+
+    @Override
+    public int size() {
+        return words.length;
+    }
+
+    @Override
+    public String word(int ordinal) {
+        return words[ordinal];
+    }
+
+    @Override
+    public int wordLength(int ordinal) {
+        return words[ordinal].length();
+    }
+
+    @Override
+    public char wordCharAt(int ordinal, int index) {
+        return words[ordinal].charAt(index);
+    }
+
+    @Override
+    public String key(int ordinal) {
+        return keys[ordinal];
+    }
+
+    @Override
+    public int keyLength(int ordinal) {
+        return keys[ordinal].length();
+    }
+
+    @Override
+    public char keyCharAt(int ordinal, int index) {
+        return keys[ordinal].charAt(index);
+    }
+
+}
@@ -0,0 +1,517 @@
+package asia.fourtitude.interviewq.jumble.dictionary;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Immutable, load-once snapshot of the word list.
+ *
+ * Words are trimmed, blank lines dropped, duplicates removed, and the
+ * remaining words ordered by their case-folded key. The position of a word
+ * in that order is its "ordinal", and all indexes built on top of the
+ * snapshot refer to words by ordinal.
+ */
+public final class Dictionary {
+
+    /**
+     * Maximum `limit` of {@link #topWordsWithPrefix(CharSequence, int, WordWeights)}.
+     */
+    public static final int MAX_RANKED_LIMIT = RankedPrefixIndex.MAX_K;
+
+    private final WordTable table;
+
+    private final WordHashIndex hashIndex;
+
+    private final PrefixIndex prefixIndex;
+
+    private final LengthIndex lengthIndex;
+
+    private final SearchIndex searchIndex;
+
+    private final AnagramIndex anagramIndex;
+
+    private final int[] palindromes;
+
+    private final SubWordCache subWordCache;
+
+    private final String version;
+
+    /*
+     * Built by `rank` before the snapshot is published (never on a
+     * lookup), replaced when the weights change.
+     */
+    private volatile RankedPrefixIndex rankedPrefixIndex;
+
+    private Dictionary(WordTable table) {
+        this.table = table;
+        this.version = contentVersion(table);
+        this.hashIndex = new WordHashIndex(this);
+        this.prefixIndex = new PrefixIndex(this);
+        this.lengthIndex = new LengthIndex(this);
+        this.searchIndex = new SearchIndex(this);
+        this.anagramIndex = new AnagramIndex(this);
+        this.palindromes = findPalindromes(table);
+        this.subWordCache = new SubWordCache(this, SubWordCache.DEFAULT_MAX_WEIGHT);
+    }
+
+    /**
+     * Builds a snapshot from arbitrary words.
+     *
+     * @param source  The words, in any order, may contain blanks and duplicates.
+     * @return  The snapshot.
+     */
+    public static Dictionary of(Collection<String> source) {
+        List<String> normalized = new ArrayList<>(source.size());
+        for (String word : source) {
+            if (word != null) {
+                word = word.trim();
+                if (! word.isEmpty()) {
+                    normalized.add(word);
+                }
+            }
+        }
+
+        String[] sorted = normalized.toArray(new String[0]);
+        Arrays.sort(sorted, Comparator.comparing(Dictionary::fold).thenComparing(Comparator.naturalOrder()));
+
+        int size = 0;
+        for (int pos = 0; pos < sorted.length; pos += 1) {
+            if (size == 0 || ! sorted[pos].equals(sorted[size - 1])) {
+                sorted[size++] = sorted[pos];
+            }
+        }
+        String[] words = Arrays.copyOf(sorted, size);
+        String[] keys = new String[size];
+        for (int pos = 0; pos < size; pos += 1) {
+            keys[pos] = fold(words[pos]);
+        }
+        return new Dictionary(new ArrayWordTable(words, keys));
+    }
+
+    /**
+     * Reads one word per line (UTF-8) and builds a snapshot.
+     *
+     * @param in  The input, closed by caller.
+     * @return  The snapshot.
+     * @throws IOException  When reading fails.
+     */
+    public static Dictionary load(InputStream in) throws IOException {
+        List<String> lines = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lines.add(line);
+        }
+        return of(lines);
+    }
+
+    /**
+     * Opens a compiled dictionary (see {@link DictionaryCompiler}) by
+     * mapping it into memory. Words are read from the mapped file as
+     * needed, not parsed.
+     *
+     * @param path  The compiled dictionary file.
+     * @return  The snapshot.
+     * @throws IOException  When the file cannot be mapped.
+     */
+    public static Dictionary map(Path path) throws IOException {
+        return new Dictionary(MappedWordTable.map(path));
+    }
+
+    /**
+     * Loads a snapshot from file. File ending with ".dict" is a compiled
+     * dictionary (mapped), otherwise a plain word list.
+     *
+     * @param path  The file.
+     * @return  The snapshot.
+     * @throws IOException  When reading fails.
+     */
+    public static Dictionary loadFile(Path path) throws IOException {
+        if (path.getFileName().toString().endsWith(".dict")) {
+            return map(path);
+        }
+        try (InputStream in = Files.newInputStream(path)) {
+            return load(in);
+        }
+    }
+
+    /**
+     * Loads a snapshot from classpath resource. Resource ending with
+     * ".dict" is a compiled dictionary, otherwise a plain word list.
+     *
+     * A compiled resource inside a jar cannot be mapped in place, so it is
+     * copied to a temporary file first.
+     *
+     * @param path  The resource path, e.g. "/words.txt".
+     * @return  The snapshot.
+     */
+    public static Dictionary loadResource(String path) {
+        URL url = Dictionary.class.getResource(path);
+        if (url == null) {
+            throw new IllegalStateException("Cannot find word list resource=[" + path + "]");
+        }
+        try {
+            if (! path.endsWith(".dict")) {
+                try (InputStream in = url.openStream()) {
+                    return load(in);
+                }
+            }
+            if ("file".equals(url.getProtocol())) {
+                return map(Paths.get(url.toURI()));
+            }
+            Path copy = Files.createTempFile("jumble-", ".dict");
+            copy.toFile().deleteOnExit();
+            try (InputStream in = url.openStream()) {
+                Files.copy(in, copy, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return map(copy);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read word list resource=[" + path + "]", e);
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Invalid word list resource=[" + url + "]", e);
+        }
+    }
+
+    private static int[] findPalindromes(WordTable table) {
+        int[] ordinals = new int[table.size()];
+        int count = 0;
+        for (int ordinal = 0; ordinal < table.size(); ordinal++) {
+            if (isPalindrome(table, ordinal)) {
+                ordinals[count++] = ordinal;
+            }
+        }
+        return Arrays.copyOf(ordinals, count);
+    }
+
+    /*
+     * Word of single letter is not considered as palindrome.
+     */
+    private static boolean isPalindrome(WordTable table, int ordinal) {
+        if (table.wordLength(ordinal) <= 1) {
+            return false;
+        }
+
+        int left = 0;
+        int right = table.wordLength(ordinal) - 1;
+
+        while (left < right) {
+            if (table.wordCharAt(ordinal, left) != table.wordCharAt(ordinal, right)) {
+                return false;
+            }
+            left++;
+            right--;
+        }
+
+        return true;
+    }
+
+    /*
+     * 64-bit FNV-1a over the words in ordinal order, as 16 hex digits.
+     */
+    private static String contentVersion(WordTable table) {
+        long hash = 0xcbf29ce484222325L;
+        for (int ordinal = 0; ordinal < table.size(); ordinal++) {
+            int length = table.wordLength(ordinal);
+            for (int index = 0; index < length; index++) {
+                hash ^= table.wordCharAt(ordinal, index);
+                hash *= 0x100000001b3L;
+            }
+            hash ^= '\n';
+            hash *= 0x100000001b3L;
+        }
+        String hex = Long.toHexString(hash);
+        return "0000000000000000".substring(hex.length()) + hex;
+    }
+
+    /**
+     * Case folding applied to words and to query input.
+     */
+    public static String fold(String word) {
+        return word.toLowerCase(Locale.ROOT);
+    }
+
+    public int size() {
+        return table.size();
+    }
+
+    public String word(int ordinal) {
+        return table.word(ordinal);
+    }
+
+    /**
+     * @return  The case-folded form of word at `ordinal`.
+     */
+    public String key(int ordinal) {
+        return table.key(ordinal);
+    }
+
+    int wordLength(int ordinal) {
+        return table.wordLength(ordinal);
+    }
+
+    /**
+     * @return  The length of the key at `ordinal` (does not allocate).
+     */
+    public int keyLength(int ordinal) {
+        return table.keyLength(ordinal);
+    }
+
+    char keyCharAt(int ordinal, int index) {
+        return table.keyCharAt(ordinal, index);
+    }
+
+    /**
+     * Finds the word, case insensitive, ignoring surrounding whitespace.
+     * Does not allocate.
+     *
+     * @param word  The word to look up.
+     * @return  The ordinal of the word, or -1 if not found.
+     */
+    public int indexOf(CharSequence word) {
+        return word == null ? -1 : hashIndex.indexOf(word);
+    }
+
+    public boolean contains(CharSequence word) {
+        return indexOf(word) >= 0;
+    }
+
+    /**
+     * Finds the words beginning with `prefix`, case insensitive.
+     *
+     * @param prefix  The prefix to match.
+     * @return  Read-only view (no copy) of the matching words, in ordinal order.
+     */
+    public List<String> wordsWithPrefix(CharSequence prefix) {
+        if (prefix == null || prefix.length() == 0) {
+            return Collections.emptyList();
+        }
+        int[] range = prefixIndex.range(prefix);
+        return new WordRange(this, range[0], range[1]);
+    }
+
+    /**
+     * Finds the best `limit` words beginning with `prefix`, case
+     * insensitive: higher weight first, then shorter, then alphabetically.
+     * Cost depends on `limit`, not on the number of matching words, once
+     * the ranking of `weights` is built by {@link #rank(WordWeights)}.
+     * With other weights (e.g. replaced while the lookup was running), the
+     * matching words are scanned instead, nothing is built.
+     *
+     * @param prefix   The prefix to match.
+     * @param limit    Maximum number of words, 1 to {@link #MAX_RANKED_LIMIT}.
+     * @param weights  The weight of words.
+     * @return  Read-only list of the best matching words, best first.
+     */
+    public List<String> topWordsWithPrefix(CharSequence prefix, int limit, WordWeights weights) {
+        if (limit < 1 || limit > MAX_RANKED_LIMIT) {
+            throw new IllegalArgumentException("Invalid limit=[" + limit + "], expect 1 to " + MAX_RANKED_LIMIT);
+        }
+        if (prefix == null || prefix.length() == 0) {
+            return Collections.emptyList();
+        }
+        int[] range = prefixIndex.range(prefix);
+        if (range[0] == range[1]) {
+            return Collections.emptyList();
+        }
+        RankedPrefixIndex index = rankedPrefixIndex;
+        if (index == null || index.weights() != weights) {
+            return new OrdinalList(this, RankedPrefixIndex.scan(this, weights, range[0], range[1], limit));
+        }
+        return new OrdinalList(this, index.top(range[0], range[1], limit));
+    }
+
+    /**
+     * Builds the ranking of {@link #topWordsWithPrefix} by `weights`
+     * (replacing the one of other weights), if not built yet. Call before
+     * publishing the snapshot, or the weights, to lookups.
+     *
+     * @param weights  The weight of words.
+     * @return  This dictionary.
+     */
+    public Dictionary rank(WordWeights weights) {
+        RankedPrefixIndex index = rankedPrefixIndex;
+        if (index == null || index.weights() != weights) {
+            rankedPrefixIndex = new RankedPrefixIndex(this, weights);
+        }
+        return this;
+    }
+
+    /**
+     * @return  true if the ranking by `weights` is built.
+     */
+    public boolean isRankedBy(WordWeights weights) {
+        RankedPrefixIndex index = rankedPrefixIndex;
+        return index != null && index.weights() == weights;
+    }
+
+    /**
+     * Picks one word of `length` at random, in constant time.
+     *
+     * @param length  The word length.
+     * @return  The word, or null if no word of `length`.
+     */
+    public String randomWord(int length) {
+        int count = lengthIndex.count(length);
+        if (count == 0) {
+            return null;
+        }
+        return table.word(lengthIndex.ordinal(length, ThreadLocalRandom.current().nextInt(count)));
+    }
+
+    /**
+     * @return  Number of words of `length`.
+     */
+    public int countOfLength(int length) {
+        return lengthIndex.count(length);
+    }
+
+    /**
+     * Finds the words matching all the given criteria. Letters are case
+     * insensitive, null criteria are ignored.
+     *
+     * @param startChar  The first letter.
+     * @param endChar    The last letter.
+     * @param length     The word length.
+     * @return  Read-only list of matching words, in ordinal order.
+     *          Empty if all criteria are null.
+     */
+    public List<String> search(Character startChar, Character endChar, Integer length) {
+        int[] ordinals = searchIndex.search(
+                startChar == null ? null : Character.toLowerCase(startChar),
+                endChar == null ? null : Character.toLowerCase(endChar),
+                length);
+        return ordinals.length == 0 ? Collections.emptyList() : new OrdinalList(this, ordinals);
+    }
+
+    /**
+     * Like {@link #search(Character, Character, Integer)}, but iterates the
+     * matching words from the index instead of collecting their ordinals:
+     * the criteria are intersected as the iterator is consumed.
+     *
+     * @return  Read-only iterator of matching words, in ordinal order.
+     *          Empty if all criteria are null.
+     */
+    public Iterator<String> iterateSearch(Character startChar, Character endChar, Integer length) {
+        PrimitiveIterator.OfInt ordinals = searchIndex.iterate(
+                startChar == null ? null : Character.toLowerCase(startChar),
+                endChar == null ? null : Character.toLowerCase(endChar),
+                length);
+        return new Iterator<String>() {
+
+            @Override
+            public boolean hasNext() {
+                return ordinals.hasNext();
+            }
+
+            @Override
+            public String next() {
+                return table.word(ordinals.nextInt());
+            }
+
+        };
+    }
+
+    /**
+     * Finds the words that can be built from the letters of `word`, each
+     * letter used at most as many times as it appears in `word`. The word
+     * itself is not included.
+     *
+     * @param word       The base word, case insensitive.
+     * @param minLength  The minimum length (inclusive) of sub words, >= 1.
+     * @return  Read-only list of sub words, in ordinal order.
+     */
+    public List<String> subWords(CharSequence word, int minLength) {
+        if (word == null || minLength < 1) {
+            return Collections.emptyList();
+        }
+        int[] ordinals = anagramIndex.subWords(word, minLength);
+        int self = indexOf(word);
+        if (self >= 0) {
+            int pos = Arrays.binarySearch(ordinals, self);
+            if (pos >= 0) {
+                int[] others = new int[ordinals.length - 1];
+                System.arraycopy(ordinals, 0, others, 0, pos);
+                System.arraycopy(ordinals, pos + 1, others, pos, others.length - pos);
+                ordinals = others;
+            }
+        }
+        return ordinals.length == 0 ? Collections.emptyList() : new OrdinalList(this, ordinals);
+    }
+
+    /**
+     * Like {@link #subWords(CharSequence, int)}, but as ordinals, cached per
+     * anagram class: every word with the same letters gets the same array.
+     *
+     * @param word       The base word, case insensitive.
+     * @param minLength  The minimum length (inclusive) of sub words, >= 1.
+     * @return  Shared, must not be modified. Ordinals of the sub words,
+     *          including `word` itself and its anagrams, ordered by word
+     *          length then alphabetically.
+     */
+    public int[] subWordOrdinals(CharSequence word, int minLength) {
+        if (word == null || minLength < 1) {
+            return new int[0];
+        }
+        return subWordCache.get(word, minLength);
+    }
+
+    int[] anagramSubWords(CharSequence word, int minLength) {
+        return anagramIndex.subWords(word, minLength);
+    }
+
+    /**
+     * @return  The sub word cache of this snapshot, for its statistics.
+     */
+    public SubWordCache subWordCache() {
+        return subWordCache;
+    }
+
+    /**
+     * @return  Read-only view of the palindrome words (of 2 letters or more),
+     *          computed once when the snapshot is built.
+     */
+    public List<String> palindromes() {
+        return new OrdinalList(this, palindromes);
+    }
+
+    /**
+     * @return  Read-only view of all words, in ordinal order.
+     */
+    public List<String> words() {
+        return new WordRange(this, 0, table.size());
+    }
+
+    /**
+     * @return  Version of the content: same words, same version, whatever
+     *          the source (word list or compiled file) and load time.
+     */
+    public String version() {
+        return version;
+    }
+
+    @Override
+    public String toString() {
+        return "size=[" + table.size() + "], version=[" + version + "]";
+    }
+
+}
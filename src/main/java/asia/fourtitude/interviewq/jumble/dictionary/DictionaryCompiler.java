@@ -0,0 +1,88 @@
+package asia.fourtitude.interviewq.jumble.dictionary;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Compiles a word list (one word per line) into the binary format read by
+ * {@link MappedWordTable}. Runs at build time, see "pom.xml".
+ *
+ * Usage: DictionaryCompiler &lt;words.txt&gt; &lt;words.dict&gt;
+ */
+public final class DictionaryCompiler {
+
+    private DictionaryCompiler() {
+    }
+
+    /**
+     * Writes `dictionary` in compiled form.
+     *
+     * @param dictionary  The dictionary, already normalized and ordered.
+     * @param out         The output, closed by caller.
+     * @throws IOException  When writing fails.
+     */
+    public static void write(Dictionary dictionary, OutputStream out) throws IOException {
+        int size = dictionary.size();
+        int[] entries = new int[size * 4];
+        int charCount = 0;
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            String word = dictionary.word(ordinal);
+            String key = dictionary.key(ordinal);
+            entries[ordinal * 4] = charCount;
+            entries[ordinal * 4 + 1] = word.length();
+            charCount += word.length();
+            if (key.equals(word)) {
+                entries[ordinal * 4 + 2] = entries[ordinal * 4];
+            } else {
+                entries[ordinal * 4 + 2] = charCount;
+                charCount += key.length();
+            }
+            entries[ordinal * 4 + 3] = key.length();
+        }
+
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MappedWordTable.MAGIC);
+        data.writeInt(MappedWordTable.VERSION);
+        data.writeInt(size);
+        data.writeInt(charCount);
+        for (int entry : entries) {
+            data.writeInt(entry);
+        }
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            String word = dictionary.word(ordinal);
+            String key = dictionary.key(ordinal);
+            data.writeChars(word);
+            if (! key.equals(word)) {
+                data.writeChars(key);
+            }
+        }
+        data.flush();
+    }
+
+    public static void compile(Path source, Path target) throws IOException {
+        Dictionary dictionary;
+        try (InputStream in = Files.newInputStream(source)) {
+            dictionary = Dictionary.load(in);
+        }
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        try (OutputStream out = Files.newOutputStream(target)) {
+            write(dictionary, out);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: DictionaryCompiler <words.txt> <words.dict>");
+        }
+        compile(Paths.get(args[0]), Paths.get(args[1]));
+    }
+
+}
@@ -0,0 +1,174 @@
+package asia.fourtitude.interviewq.jumble.dictionary;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import asia.fourtitude.interviewq.jumble.util.WorkerThreads;
+
+/**
+ * Watches an external dictionary file, and publishes a freshly built
+ * {@link Dictionary} to `listener` whenever the file changes.
+ *
+ * The new snapshot, with all its indexes, is built on a background thread
+ * and only handed over once complete, so readers never see a partial one.
+ * Bursts of file events are coalesced (debounced) into one rebuild. If the
+ * rebuild fails, the error is logged and the current snapshot stays.
+ *
+ * A rebuilt snapshot is not published when it looks like a file caught
+ * mid-write: empty, less than {@link #MIN_SIZE_RATIO} of the last
+ * snapshot, or the file changed while it was read.
+ *
+ * A compiled (".dict") file must be replaced atomically (write a new file,
+ * then rename over the old one): only its creation is acted on, never an
+ * in-place modification, since the previous snapshot keeps mapping the old
+ * file until it is no longer used. A plain word list is best replaced the
+ * same way; in-place rewrites are picked up, with the checks above.
+ */
+public class DictionaryWatcher implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DictionaryWatcher.class);
+
+    static final long DEBOUNCE_MILLIS = 250;
+
+    /*
+     * A rebuilt snapshot smaller than this share of the last one is taken
+     * for a truncated file.
+     */
+    static final double MIN_SIZE_RATIO = 0.5;
+
+    private final Path path;
+
+    private final boolean compiled;
+
+    private final Consumer<Dictionary> listener;
+
+    private volatile int lastSize;
+
+    private final WatchService watchService;
+
+    private final ScheduledExecutorService executor;
+
+    private final Thread watchThread;
+
+    private ScheduledFuture<?> pending;
+
+    public DictionaryWatcher(Path path, Consumer<Dictionary> listener) throws IOException {
+        this(path, listener, null, WorkerThreads.PLATFORM);
+    }
+
+    /**
+     * @param current        The snapshot being served, that a rebuilt one
+     *                       is checked against; or null.
+     * @param workerThreads  Creates the watching and loading threads.
+     */
+    public DictionaryWatcher(Path path, Consumer<Dictionary> listener, Dictionary current, WorkerThreads workerThreads) throws IOException {
+        this.path = path.toAbsolutePath();
+        this.compiled = this.path.getFileName().toString().endsWith(".dict");
+        this.listener = listener;
+        this.lastSize = current == null ? 0 : current.size();
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.path.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> workerThreads.newThread("dictionary-loader", runnable));
+        this.watchThread = workerThreads.newThread("dictionary-watcher", this::watch);
+    }
+
+    public void start() {
+        watchThread.start();
+        LOG.info("Watching dictionary=[{}]", path);
+    }
+
+    /**
+     * Rebuilds the dictionary from file and publishes it, on the calling thread.
+     *
+     * @return  true if published.
+     */
+    public boolean reload() {
+        try {
+            long start = System.nanoTime();
+            BasicFileAttributes before = Files.readAttributes(path, BasicFileAttributes.class);
+            Dictionary dictionary = Dictionary.loadFile(path);
+            BasicFileAttributes after = Files.readAttributes(path, BasicFileAttributes.class);
+            if (before.size() != after.size() || ! before.lastModifiedTime().equals(after.lastModifiedTime())) {
+                // still being written, its next event reloads it
+                LOG.warn("Dictionary=[{}] changed while reading, keeping current one", path);
+                return false;
+            }
+            int last = lastSize;
+            if (dictionary.size() == 0 || dictionary.size() < last * MIN_SIZE_RATIO) {
+                LOG.error("Implausible dictionary=[{}], size=[{}], last size=[{}], keeping current one", path, dictionary.size(), last);
+                return false;
+            }
+            listener.accept(dictionary);
+            lastSize = dictionary.size();
+            LOG.info("Reloaded dictionary=[{}], {}, in {} ms", path, dictionary, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return true;
+        } catch (Exception e) {
+            LOG.error("Cannot reload dictionary=[{}], keeping current one", path, e);
+            return false;
+        }
+    }
+
+    private void watch() {
+        Path fileName = path.getFileName();
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if ((fileName.equals(event.context()) && isReplaced(event.kind())) || event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        scheduleReload();
+                    }
+                }
+                if (! key.reset()) {
+                    LOG.warn("Stop watching dictionary=[{}], directory no longer accessible", path);
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    /*
+     * Created, including renamed into place. Modified in place only for a
+     * plain word list: a mapped file is never re-read while rewritten.
+     */
+    private boolean isReplaced(WatchEvent.Kind<?> kind) {
+        return kind == StandardWatchEventKinds.ENTRY_CREATE
+                || (kind == StandardWatchEventKinds.ENTRY_MODIFY && ! compiled);
+    }
+
+    private synchronized void scheduleReload() {
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        pending = executor.schedule(this::reload, DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        executor.shutdownNow();
+    }
+
+}
@@ -0,0 +1,62 @@
+package asia.fourtitude.interviewq.jumble.dictionary;
+
+/**
+ * Word ordinals bucketed by word length.
+ *
+ * Compressed layout: `ordinals` holds all ordinals grouped by length, and
+ * the bucket of length L is `ordinals[offsets[L] .. offsets[L + 1])`.
+ */
+final class LengthIndex {
+
+    private final int[] offsets;
+
+    private final int[] ordinals;
+
+    LengthIndex(Dictionary dictionary) {
+        int maxLength = 0;
+        for (int ordinal = 0; ordinal < dictionary.size(); ordinal++) {
+            maxLength = Math.max(maxLength, dictionary.wordLength(ordinal));
+        }
+
+        int[] offsets = new int[maxLength + 2];
+        for (int ordinal = 0; ordinal < dictionary.size(); ordinal++) {
+            offsets[dictionary.wordLength(ordinal) + 1]++;
+        }
+        for (int length = 1; length < offsets.length; length++) {
+            offsets[length] += offsets[length - 1];
+        }
+
+        int[] next = offsets.clone();
+        int[] ordinals = new int[dictionary.size()];
+        for (int ordinal = 0; ordinal < dictionary.size(); ordinal++) {
+            ordinals[next[dictionary.wordLength(ordinal)]++] = ordinal;
+        }
+
+        this.offsets = offsets;
+        this.ordinals = ordinals;
+    }
+
+    int maxLength() {
+        return offsets.length - 2;
+    }
+
+    /**
+     * @return  Number of words of `length`, 0 if out of range.
+     */
+    int count(int length) {
+        if (length < 0 || length > maxLength()) {
+            return 0;
+        }
+        return offsets[length + 1] - offsets[length];
+    }
+
+    /**
+     * @param length  The word length, must have `count(length)` > 0.
+     * @param index   Position inside the bucket, 0 to `count(length)` - 1.
+     * @return  The ordinal.
+     */
+    int ordinal(int length, int index) {
+        return ordinals[offsets[length] + index];
+    }
+
+}
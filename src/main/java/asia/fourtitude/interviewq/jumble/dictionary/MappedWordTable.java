@@ -0,0 +1,118 @@
+package asia.fourtitude.interviewq.jumble.dictionary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Word table read directly from a compiled dictionary file, mapped into
+ * memory (read only). Nothing is parsed at load; words are decoded only
+ * when asked for, and processes mapping the same file share its pages.
+ *
+ * File layout (big endian), written by {@link DictionaryCompiler}:
+ * <pre>
+ *   int    MAGIC
+ *   int    VERSION
+ *   int    count                 number of words, in ordinal order
+ *   int    charCount
+ *   int[4] entries[count]        wordStart, wordLength, keyStart, keyLength
+ *   char   chars[charCount]      UTF-16 chars of words and keys
+ * </pre>
+ * Starts are in chars, relative to `chars`. A key equal to its word shares
+ * the word's chars.
+ */
+final class MappedWordTable implements WordTable {
+
+    static final int MAGIC = 0x4A4D424C; // "JMBL"
+
+    static final int VERSION = 1;
+
+    static final int HEADER_BYTES = 16;
+
+    static final int ENTRY_BYTES = 16;
+
+    private final ByteBuffer buffer;
+
+    private final int size;
+
+    private final int charsBase;
+
+    private MappedWordTable(ByteBuffer buffer) {
+        if (buffer.capacity() < HEADER_BYTES
+                || buffer.getInt(0) != MAGIC
+                || buffer.getInt(4) != VERSION) {
+            throw new IllegalStateException("Invalid compiled dictionary header");
+        }
+        this.buffer = buffer;
+        this.size = buffer.getInt(8);
+        this.charsBase = HEADER_BYTES + size * ENTRY_BYTES;
+        long expected = (long) charsBase + 2L * buffer.getInt(12);
+        if (size < 0 || expected != buffer.capacity()) {
+            throw new IllegalStateException("Invalid compiled dictionary size=[" + buffer.capacity() + "], expect=[" + expected + "]");
+        }
+    }
+
+    static MappedWordTable map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new MappedWordTable(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    static MappedWordTable wrap(ByteBuffer buffer) {
+        return new MappedWordTable(buffer);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String word(int ordinal) {
+        return decode(entry(ordinal, 0), entry(ordinal, 1));
+    }
+
+    @Override
+    public int wordLength(int ordinal) {
+        return entry(ordinal, 1);
+    }
+
+    @Override
+    public char wordCharAt(int ordinal, int index) {
+        return buffer.getChar(charsBase + 2 * (entry(ordinal, 0) + index));
+    }
+
+    @Override
+    public String key(int ordinal) {
+        return decode(entry(ordinal, 2), entry(ordinal, 3));
+    }
+
+    @Override
+    public int keyLength(int ordinal) {
+        return entry(ordinal, 3);
+    }
+
+    @Override
+    public char keyCharAt(int ordinal, int index) {
+        return buffer.getChar(charsBase + 2 * (entry(ordinal, 2) + index));
+    }
+
+    private int entry(int ordinal, int field) {
+        if (ordinal < 0 || ordinal >= size) {
+            throw new IndexOutOfBoundsException("ordinal=[" + ordinal + "], size=[" + size + "]");
+        }
+        return buffer.getInt(HEADER_BYTES + ordinal * ENTRY_BYTES + field * 4);
+    }
+
+    private String decode(int start, int length) {
+        char[] chars = new char[length];
+        int offset = charsBase + 2 * start;
+        for (int pos = 0; pos < length; pos++) {
+            chars[pos] = buffer.getChar(offset + 2 * pos);
+        }
+        return new String(chars);
+    }
+
+}
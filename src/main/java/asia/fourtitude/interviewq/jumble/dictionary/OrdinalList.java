@@ -0,0 +1,30 @@
+package asia.fourtitude.interviewq.jumble.dictionary;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Read-only view of the words at the given ordinals.
+ */
+final class OrdinalList extends AbstractList<String> implements RandomAccess {
+
+    private final Dictionary dictionary;
+
+    private final int[] ordinals;
+
+    OrdinalList(Dictionary dictionary, int[] ordinals) {
+        this.dictionary = dictionary;
+        this.ordinals = ordinals;
+    }
+
+    @Override
+    public String get(int index) {
+        return dictionary.word(ordinals[index]);
+    }
+
+    @Override
+    public int size() {
+        return ordinals.length;
+    }
+
+}
@@ -0,0 +1,369 @@
+package asia.fourtitude.interviewq.jumble.dictionary;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Compressed, immutable set of word ordinals.
+ *
+ * Ordinals are split into chunks of 65536 by their high 16 bits (as in
+ * "Roaring" bitmaps). A sparse chunk keeps its low 16 bits in a sorted
+ * char[]; a dense chunk (more than 4096 entries) keeps a 65536-bit long[].
+ * Both forms need at most 8 KiB per chunk.
+ */
+final class PostingList {
+
+    static final PostingList EMPTY = new PostingList(new char[0], new Object[0], 0);
+
+    private static final int ARRAY_MAX = 4096;
+
+    private static final int BITMAP_WORDS = 1024;
+
+    private final char[] keys;
+
+    /*
+     * Either char[] (sorted, sparse) or long[BITMAP_WORDS] (dense).
+     */
+    private final Object[] containers;
+
+    private final int cardinality;
+
+    private PostingList(char[] keys, Object[] containers, int cardinality) {
+        this.keys = keys;
+        this.containers = containers;
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * @param ordinals  Sorted, distinct ordinals.
+     * @param from      Start position (inclusive) in `ordinals`.
+     * @param to        End position (exclusive) in `ordinals`.
+     * @return  The compressed posting list.
+     */
+    static PostingList of(int[] ordinals, int from, int to) {
+        if (from >= to) {
+            return EMPTY;
+        }
+        int chunks = 0;
+        for (int pos = from; pos < to; pos++) {
+            if (pos == from || (ordinals[pos] >>> 16) != (ordinals[pos - 1] >>> 16)) {
+                chunks++;
+            }
+        }
+
+        char[] keys = new char[chunks];
+        Object[] containers = new Object[chunks];
+        int chunk = 0;
+        int start = from;
+        while (start < to) {
+            int high = ordinals[start] >>> 16;
+            int end = start;
+            while (end < to && (ordinals[end] >>> 16) == high) {
+                end++;
+            }
+            keys[chunk] = (char) high;
+            if (end - start > ARRAY_MAX) {
+                long[] bits = new long[BITMAP_WORDS];
+                for (int pos = start; pos < end; pos++) {
+                    int low = ordinals[pos] & 0xFFFF;
+                    bits[low >>> 6] |= 1L << low;
+                }
+                containers[chunk] = bits;
+            } else {
+                char[] lows = new char[end - start];
+                for (int pos = start; pos < end; pos++) {
+                    lows[pos - start] = (char) ordinals[pos];
+                }
+                containers[chunk] = lows;
+            }
+            chunk++;
+            start = end;
+        }
+        return new PostingList(keys, containers, to - from);
+    }
+
+    int cardinality() {
+        return cardinality;
+    }
+
+    boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * @return  The intersection of this and `other`.
+     */
+    PostingList and(PostingList other) {
+        int capacity = Math.min(keys.length, other.keys.length);
+        char[] resultKeys = new char[capacity];
+        Object[] resultContainers = new Object[capacity];
+        int count = 0;
+        int total = 0;
+
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Object container = and(containers[i], other.containers[j]);
+                int size = size(container);
+                if (size > 0) {
+                    resultKeys[count] = keys[i];
+                    resultContainers[count] = container;
+                    count++;
+                    total += size;
+                }
+                i++;
+                j++;
+            }
+        }
+        if (count == 0) {
+            return EMPTY;
+        }
+        return new PostingList(Arrays.copyOf(resultKeys, count), Arrays.copyOf(resultContainers, count), total);
+    }
+
+    /**
+     * @return  The ordinals, ascending.
+     */
+    int[] toArray() {
+        int[] ordinals = new int[cardinality];
+        int pos = 0;
+        for (int chunk = 0; chunk < keys.length; chunk++) {
+            int high = keys[chunk] << 16;
+            Object container = containers[chunk];
+            if (container instanceof char[]) {
+                for (char low : (char[]) container) {
+                    ordinals[pos++] = high | low;
+                }
+            } else {
+                long[] bits = (long[]) container;
+                for (int word = 0; word < bits.length; word++) {
+                    long value = bits[word];
+                    while (value != 0) {
+                        ordinals[pos++] = high | (word << 6) | Long.numberOfTrailingZeros(value);
+                        value &= value - 1;
+                    }
+                }
+            }
+        }
+        return ordinals;
+    }
+
+    /**
+     * @return  Iterates the ordinals, ascending, without copying them.
+     */
+    PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+
+            private int chunk = -1;
+
+            // position in char[] container, or word in long[] container
+            private int pos;
+
+            private long value;
+
+            private int next = advance();
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public int nextInt() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                int ordinal = next;
+                next = advance();
+                return ordinal;
+            }
+
+            private int advance() {
+                while (true) {
+                    if (chunk >= 0) {
+                        int high = keys[chunk] << 16;
+                        Object container = containers[chunk];
+                        if (container instanceof char[]) {
+                            char[] lows = (char[]) container;
+                            if (pos < lows.length) {
+                                return high | lows[pos++];
+                            }
+                        } else {
+                            long[] bits = (long[]) container;
+                            while (value == 0 && pos < bits.length - 1) {
+                                value = bits[++pos];
+                            }
+                            if (value != 0) {
+                                int ordinal = high | (pos << 6) | Long.numberOfTrailingZeros(value);
+                                value &= value - 1;
+                                return ordinal;
+                            }
+                        }
+                    }
+                    if (++chunk >= keys.length) {
+                        return -1;
+                    }
+                    Object container = containers[chunk];
+                    pos = 0;
+                    value = container instanceof long[] ? ((long[]) container)[0] : 0;
+                }
+            }
+
+        };
+    }
+
+    /**
+     * Intersects lazily: merges the iterators of `lists`, each advanced
+     * until they all agree on an ordinal, without materializing the
+     * intersection. Cost follows the ordinals iterated, list the most
+     * selective first to stop early.
+     *
+     * @return  Iterates the ordinals in all `lists`, ascending.
+     */
+    static PrimitiveIterator.OfInt intersect(PostingList... lists) {
+        if (lists.length == 0) {
+            return EMPTY.iterator();
+        }
+        if (lists.length == 1) {
+            return lists[0].iterator();
+        }
+        PrimitiveIterator.OfInt[] iterators = new PrimitiveIterator.OfInt[lists.length];
+        for (int index = 0; index < lists.length; index++) {
+            iterators[index] = lists[index].iterator();
+        }
+        return new PrimitiveIterator.OfInt() {
+
+            // next ordinal of each iterator, -1 when to be read
+            private final int[] heads = filled(iterators.length, -1);
+
+            private int next = advance();
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public int nextInt() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                int ordinal = next;
+                next = advance();
+                return ordinal;
+            }
+
+            private int advance() {
+                int target = -1;
+                int matched = 0;
+                int index = 0;
+                while (matched < iterators.length) {
+                    if (heads[index] < target || heads[index] < 0) {
+                        if (! iterators[index].hasNext()) {
+                            return -1;
+                        }
+                        heads[index] = iterators[index].nextInt();
+                        continue;
+                    }
+                    if (heads[index] > target) {
+                        target = heads[index];
+                        matched = 1;
+                    } else {
+                        matched++;
+                    }
+                    index = (index + 1) % iterators.length;
+                }
+                Arrays.fill(heads, -1);
+                return target;
+            }
+
+        };
+    }
+
+    private static int[] filled(int length, int value) {
+        int[] array = new int[length];
+        Arrays.fill(array, value);
+        return array;
+    }
+
+    private static int size(Object container) {
+        if (container instanceof char[]) {
+            return ((char[]) container).length;
+        }
+        int size = 0;
+        for (long value : (long[]) container) {
+            size += Long.bitCount(value);
+        }
+        return size;
+    }
+
+    private static Object and(Object left, Object right) {
+        if (left instanceof char[] && right instanceof char[]) {
+            return and((char[]) left, (char[]) right);
+        } else if (left instanceof char[]) {
+            return and((char[]) left, (long[]) right);
+        } else if (right instanceof char[]) {
+            return and((char[]) right, (long[]) left);
+        }
+        return and((long[]) left, (long[]) right);
+    }
+
+    private static char[] and(char[] left, char[] right) {
+        char[] result = new char[Math.min(left.length, right.length)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[count++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static char[] and(char[] lows, long[] bits) {
+        char[] result = new char[lows.length];
+        int count = 0;
+        for (char low : lows) {
+            if ((bits[low >>> 6] & (1L << low)) != 0) {
+                result[count++] = low;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static Object and(long[] left, long[] right) {
+        long[] bits = new long[BITMAP_WORDS];
+        int size = 0;
+        for (int word = 0; word < BITMAP_WORDS; word++) {
+            bits[word] = left[word] & right[word];
+            size += Long.bitCount(bits[word]);
+        }
+        if (size > ARRAY_MAX) {
+            return bits;
+        }
+        char[] lows = new char[size];
+        int count = 0;
+        for (int word = 0; word < BITMAP_WORDS; word++) {
+            long value = bits[word];
+            while (value != 0) {
+                lows[count++] = (char) ((word << 6) | Long.numberOfTrailingZeros(value));
+                value &= value - 1;
+            }
+        }
+        return lows;
+    }
+
+}
@@ -0,0 +1,61 @@
+package asia.fourtitude.interviewq.jumble.dictionary;
+
+/**
+ * Prefix lookup over the dictionary keys.
+ *
+ * Keys are already sorted by ordinal, so all keys sharing a prefix form one
+ * contiguous ordinal range, located with two binary searches. Cost is
+ * O(prefix length * log n), independent of the number of matches.
+ */
+final class PrefixIndex {
+
+    private final Dictionary dictionary;
+
+    PrefixIndex(Dictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * @param prefix  The prefix, case insensitive.
+     * @return  The ordinal range {from, to} (to exclusive) of keys starting with `prefix`.
+     */
+    int[] range(CharSequence prefix) {
+        int from = bound(prefix, false);
+        int to = bound(prefix, true);
+        return new int[] { from, to };
+    }
+
+    /*
+     * Finds first ordinal whose key (truncated to prefix length) is greater
+     * than or equals (`upper` = false), or greater than (`upper` = true) the
+     * prefix.
+     */
+    private int bound(CharSequence prefix, boolean upper) {
+        int lo = 0;
+        int hi = dictionary.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = compare(mid, prefix);
+            if (cmp < 0 || (upper && cmp == 0)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private int compare(int ordinal, CharSequence prefix) {
+        int keyLength = dictionary.keyLength(ordinal);
+        int length = Math.min(keyLength, prefix.length());
+        for (int pos = 0; pos < length; pos++) {
+            char keyChar = dictionary.keyCharAt(ordinal, pos);
+            char ch = Character.toLowerCase(prefix.charAt(pos));
+            if (keyChar != ch) {
+                return keyChar - ch;
+            }
+        }
+        return keyLength < prefix.length() ? -1 : 0;
+    }
+
+}
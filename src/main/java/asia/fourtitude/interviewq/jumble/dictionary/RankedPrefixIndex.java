@@ -0,0 +1,214 @@
+package asia.fourtitude.interviewq.jumble.dictionary;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Top-K lookup of the keys sharing a prefix, ranked by {@link WordWeights}
+ * (higher weight first, then shorter, then alphabetically).
+ *
+ * Keys are sorted, so each node of the (implicit) trie of keys is an
+ * ordinal range, the same one {@link PrefixIndex} finds for its prefix.
+ * The top `MAX_K` of every range larger than `MAX_K` is precomputed
+ * bottom-up, merging the top of the child ranges. A lookup is then the two
+ * binary searches of the range, one binary search of the node, and a copy
+ * of `limit` ordinals, whatever the number of matches. Ranges of `MAX_K`
+ * keys or less are ranked on the fly.
+ */
+final class RankedPrefixIndex {
+
+    static final int MAX_K = 50;
+
+    private final Dictionary dictionary;
+
+    private final WordWeights weights;
+
+    /*
+     * Weight by ordinal, null if all 0.
+     */
+    private final long[] weightByOrdinal;
+
+    private final Comparator<Integer> rank;
+
+    /*
+     * Sorted (from << 32 | to) of the precomputed ranges.
+     */
+    private final long[] nodes;
+
+    /*
+     * `MAX_K` ordinals per node, best first.
+     */
+    private final int[] top;
+
+    RankedPrefixIndex(Dictionary dictionary, WordWeights weights) {
+        this.dictionary = dictionary;
+        this.weights = weights;
+        this.weightByOrdinal = weightByOrdinal(dictionary, weights);
+        this.rank = Comparator.<Integer>comparingLong(ordinal -> - weight(ordinal))
+                .thenComparingInt(dictionary::keyLength)
+                .thenComparingInt(ordinal -> ordinal);
+
+        TreeMap<Long, int[]> built = new TreeMap<>();
+        build(0, dictionary.size(), 0, built);
+        this.nodes = new long[built.size()];
+        this.top = new int[built.size() * MAX_K];
+        int pos = 0;
+        for (Map.Entry<Long, int[]> node : built.entrySet()) {
+            this.nodes[pos] = node.getKey();
+            System.arraycopy(node.getValue(), 0, this.top, pos * MAX_K, MAX_K);
+            pos++;
+        }
+    }
+
+    private static long[] weightByOrdinal(Dictionary dictionary, WordWeights weights) {
+        if (weights.isEmpty()) {
+            return null;
+        }
+        long[] weightByOrdinal = new long[dictionary.size()];
+        for (Map.Entry<String, Long> entry : weights.asMap().entrySet()) {
+            int ordinal = dictionary.indexOf(entry.getKey());
+            if (ordinal >= 0) {
+                weightByOrdinal[ordinal] = entry.getValue();
+            }
+        }
+        return weightByOrdinal;
+    }
+
+    WordWeights weights() {
+        return weights;
+    }
+
+    private long weight(int ordinal) {
+        return weightByOrdinal == null ? 0 : weightByOrdinal[ordinal];
+    }
+
+    /**
+     * @param from   First ordinal of the range.
+     * @param to     Last ordinal (exclusive) of the range.
+     * @param limit  Maximum number of ordinals, at most `MAX_K`.
+     * @return  The best `limit` ordinals of the range, best first.
+     */
+    int[] top(int from, int to, int limit) {
+        if (to - from <= MAX_K) {
+            int[] ranked = ranked(from, to);
+            return ranked.length <= limit ? ranked : Arrays.copyOf(ranked, limit);
+        }
+        int node = Arrays.binarySearch(nodes, ((long) from << 32) | to);
+        if (node < 0) {
+            throw new IllegalStateException("No node of range from=[" + from + "], to=[" + to + "]");
+        }
+        return Arrays.copyOfRange(top, node * MAX_K, node * MAX_K + limit);
+    }
+
+    /*
+     * Ranks the keys of [from, to), all sharing their first `depth` chars,
+     * recording the top of every range larger than `MAX_K` into `built`.
+     * Returns the top (at most `MAX_K`) of the range.
+     */
+    private int[] build(int from, int to, int depth, TreeMap<Long, int[]> built) {
+        if (to - from <= MAX_K) {
+            return ranked(from, to);
+        }
+        int[] candidates = new int[0];
+        int count = 0;
+        int pos = from;
+        // the key equal to the prefix (if any) sorts first
+        while (pos < to && dictionary.keyLength(pos) == depth) {
+            candidates = append(candidates, count, new int[] { pos });
+            count++;
+            pos++;
+        }
+        while (pos < to) {
+            int end = childEnd(pos, to, depth);
+            int[] child = build(pos, end, depth + 1, built);
+            candidates = append(candidates, count, child);
+            count += child.length;
+            pos = end;
+        }
+        int[] ranked = sort(Arrays.copyOf(candidates, count));
+        int[] best = ranked.length <= MAX_K ? ranked : Arrays.copyOf(ranked, MAX_K);
+        // a node with a single child has the range of its child, already recorded
+        built.putIfAbsent(((long) from << 32) | to, best);
+        return best;
+    }
+
+    private static int[] append(int[] array, int count, int[] values) {
+        if (count + values.length > array.length) {
+            array = Arrays.copyOf(array, Math.max(array.length * 2, count + values.length));
+        }
+        System.arraycopy(values, 0, array, count, values.length);
+        return array;
+    }
+
+    /*
+     * Keys of [pos, to) are longer than `depth`, sorted by their char at
+     * `depth`: finds the end of the ones with the same char as `pos`.
+     */
+    private int childEnd(int pos, int to, int depth) {
+        char ch = dictionary.keyCharAt(pos, depth);
+        int lo = pos + 1;
+        int hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (dictionary.keyCharAt(mid, depth) <= ch) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /*
+     * The best `limit` keys of [from, to) by `weights`, scanning the range
+     * with a bounded heap: for lookups by weights no index is built for.
+     */
+    static int[] scan(Dictionary dictionary, WordWeights weights, int from, int to, int limit) {
+        long[] weightByPos = new long[to - from];
+        if (! weights.isEmpty()) {
+            for (int ordinal = from; ordinal < to; ordinal++) {
+                weightByPos[ordinal - from] = weights.weight(dictionary.key(ordinal));
+            }
+        }
+        Comparator<Integer> rank = Comparator.<Integer>comparingLong(ordinal -> - weightByPos[ordinal - from])
+                .thenComparingInt(dictionary::keyLength)
+                .thenComparingInt(ordinal -> ordinal);
+        // worst of the best so far on top
+        PriorityQueue<Integer> best = new PriorityQueue<>(limit + 1, rank.reversed());
+        for (int ordinal = from; ordinal < to; ordinal++) {
+            best.add(ordinal);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        int[] ordinals = new int[best.size()];
+        for (int pos = ordinals.length - 1; pos >= 0; pos--) {
+            ordinals[pos] = best.poll();
+        }
+        return ordinals;
+    }
+
+    private int[] ranked(int from, int to) {
+        int[] ordinals = new int[to - from];
+        for (int pos = 0; pos < ordinals.length; pos++) {
+            ordinals[pos] = from + pos;
+        }
+        return sort(ordinals);
+    }
+
+    private int[] sort(int[] ordinals) {
+        Integer[] boxed = new Integer[ordinals.length];
+        for (int pos = 0; pos < ordinals.length; pos++) {
+            boxed[pos] = ordinals[pos];
+        }
+        Arrays.sort(boxed, rank);
+        for (int pos = 0; pos < ordinals.length; pos++) {
+            ordinals[pos] = boxed[pos];
+        }
+        return ordinals;
+    }
+
+}
@@ -0,0 +1,115 @@
+package asia.fourtitude.interviewq.jumble.dictionary;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Posting lists of word ordinals keyed by first letter, last letter, and
+ * word length.
+ *
+ * A query intersects only the posting lists of the given criteria,
+ * starting from the smallest (most selective) one, so cost follows the
+ * size of the postings rather than the size of the dictionary. An
+ * iteration ({@link #iterate}) intersects lazily, as it is consumed.
+ */
+final class SearchIndex {
+
+    private final Map<Integer, PostingList> byFirst;
+
+    private final Map<Integer, PostingList> byLast;
+
+    private final Map<Integer, PostingList> byLength;
+
+    SearchIndex(Dictionary dictionary) {
+        this.byFirst = group(dictionary.size(), ordinal -> dictionary.keyCharAt(ordinal, 0));
+        this.byLast = group(dictionary.size(), ordinal -> dictionary.keyCharAt(ordinal, dictionary.keyLength(ordinal) - 1));
+        this.byLength = group(dictionary.size(), dictionary::wordLength);
+    }
+
+    /**
+     * @param first   The first letter (folded), or null to ignore.
+     * @param last    The last letter (folded), or null to ignore.
+     * @param length  The word length, or null to ignore.
+     * @return  The matching ordinals, ascending. Empty if no criteria.
+     */
+    int[] search(Character first, Character last, Integer length) {
+        return query(first, last, length).toArray();
+    }
+
+    /**
+     * Like {@link #search(Character, Character, Integer)}, as a posting list.
+     */
+    PostingList query(Character first, Character last, Integer length) {
+        PostingList[] postings = postings(first, last, length);
+        if (postings.length == 0) {
+            return PostingList.EMPTY;
+        }
+        PostingList result = postings[0];
+        for (int pos = 1; pos < postings.length && ! result.isEmpty(); pos++) {
+            result = result.and(postings[pos]);
+        }
+        return result;
+    }
+
+    /**
+     * Like {@link #search(Character, Character, Integer)}, intersected
+     * while iterated (see {@link PostingList#intersect}).
+     */
+    PrimitiveIterator.OfInt iterate(Character first, Character last, Integer length) {
+        return PostingList.intersect(postings(first, last, length));
+    }
+
+    /*
+     * Posting lists of the given criteria, most selective first.
+     */
+    private PostingList[] postings(Character first, Character last, Integer length) {
+        PostingList[] postings = new PostingList[3];
+        int count = 0;
+        if (first != null) {
+            postings[count++] = byFirst.getOrDefault((int) first, PostingList.EMPTY);
+        }
+        if (last != null) {
+            postings[count++] = byLast.getOrDefault((int) last, PostingList.EMPTY);
+        }
+        if (length != null) {
+            postings[count++] = byLength.getOrDefault(length, PostingList.EMPTY);
+        }
+        // plan: most selective first, then narrow down
+        Arrays.sort(postings, 0, count, (a, b) -> Integer.compare(a.cardinality(), b.cardinality()));
+        return Arrays.copyOf(postings, count);
+    }
+
+    /*
+     * Groups ordinals by key: sorts (key, ordinal) pairs packed in a long,
+     * then cuts each run of the same key into a posting list.
+     */
+    private static Map<Integer, PostingList> group(int size, IntUnaryOperator keyOf) {
+        long[] pairs = new long[size];
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            pairs[ordinal] = ((long) keyOf.applyAsInt(ordinal) << 32) | ordinal;
+        }
+        Arrays.sort(pairs);
+
+        Map<Integer, PostingList> postings = new HashMap<>();
+        int[] ordinals = new int[size];
+        for (int pos = 0; pos < size; pos++) {
+            ordinals[pos] = (int) pairs[pos];
+        }
+        int start = 0;
+        while (start < size) {
+            int key = (int) (pairs[start] >>> 32);
+            int end = start;
+            while (end < size && (int) (pairs[end] >>> 32) == key) {
+                end++;
+            }
+            postings.put(key, PostingList.of(ordinals, start, end));
+            start = end;
+        }
+        return Collections.unmodifiableMap(postings);
+    }
+
+}
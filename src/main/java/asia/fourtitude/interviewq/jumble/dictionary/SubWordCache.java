@@ -0,0 +1,192 @@
+package asia.fourtitude.interviewq.jumble.dictionary;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of sub word solutions, keyed by anagram class (the sorted
+ * letters of the base word) and minimum length.
+ *
+ * All words of an anagram class ("listen", "silent", "tinsel") have the
+ * same solution, so they share one cached array. Entries are weighted by
+ * their number of ordinals, and the least recently used ones are evicted
+ * once the total weight exceeds `maxWeight`.
+ *
+ * One cache per {@link Dictionary} snapshot, as ordinals are only valid
+ * within their snapshot.
+ */
+public final class SubWordCache {
+
+    static final long DEFAULT_MAX_WEIGHT = 1L << 20;
+
+    /*
+     * Approximate per entry cost (key, map entry, array header), in ordinals.
+     */
+    private static final int ENTRY_WEIGHT = 16;
+
+    private static final int LETTERS = 26;
+
+    private final Dictionary dictionary;
+
+    private final long maxWeight;
+
+    private final LinkedHashMap<Key, int[]> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    private long weight;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    SubWordCache(Dictionary dictionary, long maxWeight) {
+        this.dictionary = dictionary;
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * @param word       The base word, case insensitive.
+     * @param minLength  The minimum length (inclusive) of sub words, >= 1.
+     * @return  Shared (must not be modified) ordinals of the sub words,
+     *          including the base word and its anagrams, ordered by word
+     *          length then alphabetically.
+     */
+    int[] get(CharSequence word, int minLength) {
+        Key key = new Key(letters(word), minLength);
+        int[] ordinals;
+        synchronized (this) {
+            ordinals = entries.get(key);
+        }
+        if (ordinals != null) {
+            hits.increment();
+            return ordinals;
+        }
+        misses.increment();
+
+        // computed outside the lock, a concurrent miss may compute it too
+        ordinals = byLength(dictionary.anagramSubWords(word, minLength));
+        synchronized (this) {
+            int[] existing = entries.putIfAbsent(key, ordinals);
+            if (existing != null) {
+                return existing;
+            }
+            weight += weight(ordinals);
+            Iterator<int[]> eldest = entries.values().iterator();
+            while (weight > maxWeight && entries.size() > 1) {
+                weight -= weight(eldest.next());
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+        return ordinals;
+    }
+
+    private static long weight(int[] ordinals) {
+        return ordinals.length + ENTRY_WEIGHT;
+    }
+
+    /*
+     * Letters 'a'..'z' of `word`, case folded and sorted (counting sort).
+     */
+    private static String letters(CharSequence word) {
+        int[] counts = new int[LETTERS];
+        int length = 0;
+        for (int pos = 0; pos < word.length(); pos++) {
+            int letter = Character.toLowerCase(word.charAt(pos)) - 'a';
+            if (letter >= 0 && letter < LETTERS) {
+                counts[letter]++;
+                length++;
+            }
+        }
+        char[] sorted = new char[length];
+        int pos = 0;
+        for (int letter = 0; letter < LETTERS; letter++) {
+            for (int count = 0; count < counts[letter]; count++) {
+                sorted[pos++] = (char) ('a' + letter);
+            }
+        }
+        return new String(sorted);
+    }
+
+    /*
+     * Reorders ascending ordinals by (word length, ordinal), i.e. by length
+     * then alphabetically.
+     */
+    private int[] byLength(int[] ordinals) {
+        long[] packed = new long[ordinals.length];
+        for (int pos = 0; pos < ordinals.length; pos++) {
+            packed[pos] = ((long) dictionary.keyLength(ordinals[pos]) << 32) | ordinals[pos];
+        }
+        Arrays.sort(packed);
+        int[] sorted = new int[packed.length];
+        for (int pos = 0; pos < packed.length; pos++) {
+            sorted[pos] = (int) packed[pos];
+        }
+        return sorted;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return  Ratio of hits to lookups, 0 if no lookup yet.
+     */
+    public double hitRate() {
+        return stats().getHitRate();
+    }
+
+    public SubWordCacheStats stats() {
+        int size;
+        long currentWeight;
+        synchronized (this) {
+            size = entries.size();
+            currentWeight = weight;
+        }
+        return new SubWordCacheStats(size, currentWeight, maxWeight, hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    @Override
+    public String toString() {
+        return stats().toString();
+    }
+
+    private static final class Key {
+
+        final String letters;
+
+        final int minLength;
+
+        Key(String letters, int minLength) {
+            this.letters = letters;
+            this.minLength = minLength;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (! (other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return minLength == key.minLength && letters.equals(key.letters);
+        }
+
+        @Override
+        public int hashCode() {
+            return letters.hashCode() * 31 + minLength;
+        }
+
+    }
+
+}
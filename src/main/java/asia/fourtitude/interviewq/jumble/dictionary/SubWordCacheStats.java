@@ -0,0 +1,85 @@
+package asia.fourtitude.interviewq.jumble.dictionary;
+
+/**
+ * Point-in-time counters of a {@link SubWordCache}.
+ *
+ * Counters start over with each {@link Dictionary} snapshot, as each has
+ * its own cache. A low `hitRate` with many `evictions` means the weight
+ * budget is too small for the variety of requested words.
+ */
+public class SubWordCacheStats {
+
+    private final int entries;
+
+    private final long weight;
+
+    private final long maxWeight;
+
+    private final long hits;
+
+    private final long misses;
+
+    private final long evictions;
+
+    public SubWordCacheStats(int entries, long weight, long maxWeight, long hits, long misses, long evictions) {
+        this.entries = entries;
+        this.weight = weight;
+        this.maxWeight = maxWeight;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    public int getEntries() {
+        return entries;
+    }
+
+    public long getWeight() {
+        return weight;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return  Ratio of hits to lookups, 0 if no lookup yet.
+     */
+    public double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * @return  Ratio of misses to lookups, 0 if no lookup yet.
+     */
+    public double getMissRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) misses / lookups;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("entries=[").append(entries).append(']');
+        sb.append(", weight=[").append(weight).append('/').append(maxWeight).append(']');
+        sb.append(", hits=[").append(hits).append(']');
+        sb.append(", misses=[").append(misses).append(']');
+        sb.append(", evictions=[").append(evictions).append(']');
+        sb.append(", hitRate=[").append(String.format("%.3f", getHitRate())).append(']');
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,112 @@
+package asia.fourtitude.interviewq.jumble.dictionary;
+
+/**
+ * Case-insensitive membership index over the dictionary keys.
+ *
+ * Open addressing (linear probing) on two parallel primitive arrays: the
+ * full hash of each key, and the ordinal + 1 of the key (0 marks an empty
+ * slot). Lookups fold the input one char at a time, so no String is
+ * created per query.
+ */
+final class WordHashIndex {
+
+    private final Dictionary dictionary;
+
+    private final int[] hashes;
+
+    private final int[] slots;
+
+    private final int mask;
+
+    WordHashIndex(Dictionary dictionary) {
+        this.dictionary = dictionary;
+        int capacity = Integer.highestOneBit(Math.max(2, dictionary.size()) * 2 - 1) << 1;
+        this.hashes = new int[capacity];
+        this.slots = new int[capacity];
+        this.mask = capacity - 1;
+
+        for (int ordinal = 0; ordinal < dictionary.size(); ordinal++) {
+            int hash = hash(dictionary, ordinal);
+            int slot = hash & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            hashes[slot] = hash;
+            slots[slot] = ordinal + 1;
+        }
+    }
+
+    /**
+     * Finds the ordinal of `word`, ignoring case and surrounding whitespace.
+     *
+     * @param word  The word to look up.
+     * @return  The ordinal, or -1 if not found.
+     */
+    int indexOf(CharSequence word) {
+        int start = 0;
+        int end = word.length();
+        while (start < end && Character.isWhitespace(word.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(word.charAt(end - 1))) {
+            end--;
+        }
+        if (start == end) {
+            return -1;
+        }
+
+        int hash = hash(word, start, end);
+        int slot = hash & mask;
+        int ordinal;
+        while ((ordinal = slots[slot]) != 0) {
+            if (hashes[slot] == hash && matches(ordinal - 1, word, start, end)) {
+                return ordinal - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    private boolean matches(int ordinal, CharSequence word, int start, int end) {
+        if (dictionary.keyLength(ordinal) != end - start) {
+            return false;
+        }
+        for (int pos = start; pos < end; pos++) {
+            if (dictionary.keyCharAt(ordinal, pos - start) != Character.toLowerCase(word.charAt(pos))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(Dictionary dictionary, int ordinal) {
+        int hash = 0;
+        for (int pos = 0; pos < dictionary.keyLength(ordinal); pos++) {
+            hash = 31 * hash + dictionary.keyCharAt(ordinal, pos);
+        }
+        return mix(hash);
+    }
+
+    private static int hash(CharSequence word, int start, int end) {
+        int hash = 0;
+        for (int pos = start; pos < end; pos++) {
+            hash = 31 * hash + Character.toLowerCase(word.charAt(pos));
+        }
+        return mix(hash);
+    }
+
+    private static int mix(int hash) {
+        // murmur3 finalizer, spreads the bits used by the mask
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+}
@@ -0,0 +1,36 @@
+package asia.fourtitude.interviewq.jumble.dictionary;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Read-only view of the words with ordinal in [from, to). Nothing is copied.
+ */
+final class WordRange extends AbstractList<String> implements RandomAccess {
+
+    private final Dictionary dictionary;
+
+    private final int from;
+
+    private final int to;
+
+    WordRange(Dictionary dictionary, int from, int to) {
+        this.dictionary = dictionary;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= to - from) {
+            throw new IndexOutOfBoundsException("index=[" + index + "], size=[" + (to - from) + "]");
+        }
+        return dictionary.word(from + index);
+    }
+
+    @Override
+    public int size() {
+        return to - from;
+    }
+
+}
@@ -0,0 +1,25 @@
+package asia.fourtitude.interviewq.jumble.dictionary;
+
+/**
+ * Storage of the words and their case-folded keys, by ordinal.
+ *
+ * Indexes read keys char by char through this interface, so they work the
+ * same over heap arrays and over a memory-mapped compiled dictionary.
+ */
+interface WordTable {
+
+    int size();
+
+    String word(int ordinal);
+
+    int wordLength(int ordinal);
+
+    char wordCharAt(int ordinal, int index);
+
+    String key(int ordinal);
+
+    int keyLength(int ordinal);
+
+    char keyCharAt(int ordinal, int index);
+
+}
@@ -0,0 +1,151 @@
+package asia.fourtitude.interviewq.jumble.dictionary;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable weight of words (e.g. frequency in a corpus, or popularity in
+ * games), ranking the matches of an autocomplete: higher weight first.
+ * Words without weight have weight 0.
+ *
+ * Words are case insensitive (folded as {@link Dictionary#fold(String)}).
+ */
+public final class WordWeights {
+
+    private static final WordWeights NONE = new WordWeights(Collections.emptyMap());
+
+    private final Map<String, Long> weights;
+
+    private final String version;
+
+    private WordWeights(Map<String, Long> weights) {
+        this.weights = weights;
+        this.version = contentVersion(weights);
+    }
+
+    /**
+     * @return  No weights: matches rank shortest first, then alphabetically.
+     */
+    public static WordWeights none() {
+        return NONE;
+    }
+
+    /**
+     * @param source  Weight by word; for words differing only by case, the
+     *                highest weight is kept.
+     * @return  The weights.
+     */
+    public static WordWeights of(Map<String, ? extends Number> source) {
+        Map<String, Long> weights = new HashMap<>(source.size() * 2);
+        for (Map.Entry<String, ? extends Number> entry : source.entrySet()) {
+            if (entry.getKey() != null && entry.getValue() != null) {
+                weights.merge(Dictionary.fold(entry.getKey().trim()), entry.getValue().longValue(), Math::max);
+            }
+        }
+        return weights.isEmpty() ? NONE : new WordWeights(weights);
+    }
+
+    /**
+     * Reads one "word weight" per line (UTF-8, separated by whitespace).
+     * Blank lines and lines starting with "#" are ignored.
+     *
+     * @param in  The input, closed by caller.
+     * @return  The weights.
+     * @throws IOException  When reading fails, or a line is invalid.
+     */
+    public static WordWeights load(InputStream in) throws IOException {
+        Map<String, Long> weights = new HashMap<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        int number = 0;
+        while ((line = reader.readLine()) != null) {
+            number += 1;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\\s+");
+            if (fields.length != 2) {
+                throw new IOException("Invalid weight line=[" + number + "], expect word and weight: " + line);
+            }
+            try {
+                weights.put(fields[0], Long.parseLong(fields[1]));
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid weight line=[" + number + "], weight=[" + fields[1] + "]", e);
+            }
+        }
+        return of(weights);
+    }
+
+    /**
+     * @param path  The file, as of {@link #load(InputStream)}.
+     * @return  The weights.
+     * @throws IOException  When reading fails, or a line is invalid.
+     */
+    public static WordWeights loadFile(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return load(in);
+        }
+    }
+
+    /**
+     * @param key  The folded word.
+     * @return  The weight, 0 if none.
+     */
+    public long weight(String key) {
+        Long weight = weights.get(key);
+        return weight == null ? 0 : weight;
+    }
+
+    public boolean isEmpty() {
+        return weights.isEmpty();
+    }
+
+    public int size() {
+        return weights.size();
+    }
+
+    Map<String, Long> asMap() {
+        return weights;
+    }
+
+    /**
+     * @return  Version of the content: same weights, same version.
+     */
+    public String version() {
+        return version;
+    }
+
+    private static String contentVersion(Map<String, Long> weights) {
+        long hash = 0xcbf29ce484222325L;
+        for (Map.Entry<String, Long> entry : new TreeMap<>(weights).entrySet()) {
+            String key = entry.getKey();
+            for (int index = 0; index < key.length(); index++) {
+                hash ^= key.charAt(index);
+                hash *= 0x100000001b3L;
+            }
+            long weight = entry.getValue();
+            for (int shift = 0; shift < 64; shift += 8) {
+                hash ^= (weight >>> shift) & 0xff;
+                hash *= 0x100000001b3L;
+            }
+        }
+        String hex = Long.toHexString(hash);
+        return "0000000000000000".substring(hex.length()) + hex;
+    }
+
+    @Override
+    public String toString() {
+        return "size=[" + weights.size() + "], version=[" + version + "]";
+    }
+
+}
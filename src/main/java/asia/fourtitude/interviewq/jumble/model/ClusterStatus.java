@@ -0,0 +1,88 @@
+package asia.fourtitude.interviewq.jumble.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.media.Schema.RequiredMode;
+
+@JsonInclude(Include.NON_NULL)
+public class ClusterStatus {
+
+    @Schema(
+            description = "Base URL of this instance.",
+            example = "http://localhost:8081",
+            requiredMode = RequiredMode.AUTO)
+    private String self;
+
+    @Schema(
+            description = "Base URLs of all instances in the ring.",
+            example = "[\"http://localhost:8081\", \"http://localhost:8082\"]",
+            requiredMode = RequiredMode.AUTO)
+    private List<String> nodes;
+
+    @Schema(
+            description = "Number of games held by this instance.",
+            example = "1234",
+            requiredMode = RequiredMode.AUTO)
+    private Integer games;
+
+    @Schema(
+            description = "Number of games moved by the operation (handed off, or received).",
+            example = "42",
+            requiredMode = RequiredMode.AUTO)
+    private Integer moved;
+
+    public String getSelf() {
+        return self;
+    }
+
+    public void setSelf(String self) {
+        this.self = self;
+    }
+
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    public void setNodes(List<String> nodes) {
+        this.nodes = nodes;
+    }
+
+    public Integer getGames() {
+        return games;
+    }
+
+    public void setGames(Integer games) {
+        this.games = games;
+    }
+
+    public Integer getMoved() {
+        return moved;
+    }
+
+    public void setMoved(Integer moved) {
+        this.moved = moved;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        if (self != null) {
+            sb.append(sb.length() == 0 ? "" : ", ").append("self=[").append(self).append(']');
+        }
+        if (nodes != null) {
+            sb.append(sb.length() == 0 ? "" : ", ").append("nodes=").append(nodes);
+        }
+        if (games != null) {
+            sb.append(sb.length() == 0 ? "" : ", ").append("games=[").append(games).append(']');
+        }
+        if (moved != null) {
+            sb.append(sb.length() == 0 ? "" : ", ").append("moved=[").append(moved).append(']');
+        }
+        return sb.toString();
+    }
+
+}
@@ -1,6 +1,8 @@
 package asia.fourtitude.interviewq.jumble.model;
 
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 import asia.fourtitude.interviewq.jumble.core.GameState;
 
@@ -10,7 +12,10 @@ public class GameGuessModel {
 
     private Date createdAt;
 
-    private Date modifiedAt;
+    /*
+     * Updated concurrently by guesses on the same game.
+     */
+    private final AtomicReference<Date> modifiedAt = new AtomicReference<>();
 
     private GameState gameState;
 
@@ -31,11 +36,25 @@ public class GameGuessModel {
     }
 
     public Date getModifiedAt() {
-        return modifiedAt;
+        return modifiedAt.get();
     }
 
     public void setModifiedAt(Date modifiedAt) {
-        this.modifiedAt = modifiedAt;
+        this.modifiedAt.set(modifiedAt);
+    }
+
+    /**
+     * Advances `modifiedAt` to `at`, unless already later (a concurrent
+     * update won), so it never moves backwards.
+     */
+    public void updateModifiedAt(Date at) {
+        Date current;
+        do {
+            current = modifiedAt.get();
+            if (current != null && ! at.after(current)) {
+                return;
+            }
+        } while (! modifiedAt.compareAndSet(current, at));
     }
 
     public GameState getGameState() {
@@ -46,6 +65,19 @@ public class GameGuessModel {
         this.gameState = gameState;
     }
 
+    /**
+     * Fills `output` with the game: id, words and counts.
+     */
+    public void fillOutput(GameGuessOutput output) {
+        List<String> guessedWords = gameState.getGuessedWords();
+        output.setId(id);
+        output.setOriginalWord(gameState.getOriginal());
+        output.setScrambleWord(gameState.getScramble());
+        output.setTotalWords(gameState.getTotalWords());
+        output.setRemainingWords(gameState.getTotalWords() - guessedWords.size());
+        output.setGuessedWords(guessedWords);
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -55,6 +87,7 @@ public class GameGuessModel {
         if (createdAt != null) {
             sb.append(sb.length() == 0 ? "" : ", ").append("createdAt=[").append(createdAt.toInstant()).append(']');
         }
+        Date modifiedAt = this.modifiedAt.get();
         if (modifiedAt != null) {
             sb.append(sb.length() == 0 ? "" : ", ").append("modifiedAt=[").append(modifiedAt.toInstant()).append(']');
         }
@@ -0,0 +1,102 @@
+package asia.fourtitude.interviewq.jumble.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.media.Schema.RequiredMode;
+
+/**
+ * Compact outcome of one guess in a batch (no game board details).
+ */
+@JsonInclude(Include.NON_NULL)
+public class GameGuessResult {
+
+    @Schema(
+            title = "Result",
+            description = "Result message.",
+            example = "AnyOf[\"Guessed correctly.\", \"Guessed incorrectly.\", \"All words guessed.\", \"Invalid Game ID.\", \"Game board/state not found.\"]",
+            requiredMode = RequiredMode.AUTO)
+    private String result;
+
+    @Schema(
+            title = "ID",
+            description = "Unique identifier of the game state.",
+            example = "4579256c-326f-4169-9b56-6d1d1a2c11f0",
+            requiredMode = RequiredMode.AUTO)
+    private String id;
+
+    @Schema(
+            description = "The word used in guessing play.",
+            example = "motto",
+            requiredMode = RequiredMode.AUTO)
+    @JsonProperty(value = "guess_word")
+    private String guessWord;
+
+    @Schema(
+            description = "The numbers of remaining smaller/sub words to guess, after this guess (absent if game not found).",
+            example = "23",
+            requiredMode = RequiredMode.AUTO)
+    @JsonProperty(value = "remaining_words")
+    private Integer remainingWords;
+
+    public GameGuessResult() {
+    }
+
+    public GameGuessResult(String id, String guessWord) {
+        this.id = id;
+        this.guessWord = guessWord;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public void setResult(String result) {
+        this.result = result;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getGuessWord() {
+        return guessWord;
+    }
+
+    public void setGuessWord(String guessWord) {
+        this.guessWord = guessWord;
+    }
+
+    public Integer getRemainingWords() {
+        return remainingWords;
+    }
+
+    public void setRemainingWords(Integer remainingWords) {
+        this.remainingWords = remainingWords;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        if (result != null) {
+            sb.append(sb.length() == 0 ? "" : ", ").append("result=[").append(result).append(']');
+        }
+        if (id != null) {
+            sb.append(sb.length() == 0 ? "" : ", ").append("id=[").append(id).append(']');
+        }
+        if (guessWord != null) {
+            sb.append(sb.length() == 0 ? "" : ", ").append("guessWord=[").append(guessWord).append(']');
+        }
+        if (remainingWords != null) {
+            sb.append(sb.length() == 0 ? "" : ", ").append("remainingWords=[").append(remainingWords).append(']');
+        }
+        return sb.toString();
+    }
+
+}
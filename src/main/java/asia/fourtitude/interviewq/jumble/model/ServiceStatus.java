@@ -0,0 +1,74 @@
+package asia.fourtitude.interviewq.jumble.model;
+
+import asia.fourtitude.interviewq.jumble.dictionary.SubWordCacheStats;
+import asia.fourtitude.interviewq.jumble.repository.GameRepositoryStats;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.media.Schema.RequiredMode;
+
+public class ServiceStatus {
+
+    @Schema(
+            description = "Number of words of the dictionary in use.",
+            example = "69903",
+            requiredMode = RequiredMode.REQUIRED)
+    private int dictionarySize;
+
+    @Schema(
+            description = "Version of the dictionary in use (as in ETag).",
+            example = "9a3f0c6e1b2d4857",
+            requiredMode = RequiredMode.REQUIRED)
+    private String dictionaryVersion;
+
+    @Schema(
+            description = "Counters of the game repository: size, hits, misses, evictions, expirations.",
+            requiredMode = RequiredMode.REQUIRED)
+    private GameRepositoryStats games;
+
+    @Schema(
+            description = "Counters of the sub word cache of the dictionary in use: hits, misses, hit and miss rates, evictions.",
+            requiredMode = RequiredMode.REQUIRED)
+    private SubWordCacheStats subWordCache;
+
+    public int getDictionarySize() {
+        return dictionarySize;
+    }
+
+    public void setDictionarySize(int dictionarySize) {
+        this.dictionarySize = dictionarySize;
+    }
+
+    public String getDictionaryVersion() {
+        return dictionaryVersion;
+    }
+
+    public void setDictionaryVersion(String dictionaryVersion) {
+        this.dictionaryVersion = dictionaryVersion;
+    }
+
+    public GameRepositoryStats getGames() {
+        return games;
+    }
+
+    public void setGames(GameRepositoryStats games) {
+        this.games = games;
+    }
+
+    public SubWordCacheStats getSubWordCache() {
+        return subWordCache;
+    }
+
+    public void setSubWordCache(SubWordCacheStats subWordCache) {
+        this.subWordCache = subWordCache;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("dictionarySize=[").append(dictionarySize).append(']');
+        sb.append(", dictionaryVersion=[").append(dictionaryVersion).append(']');
+        sb.append(", games=[").append(games).append(']');
+        sb.append(", subWordCache=[").append(subWordCache).append(']');
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,504 @@
+package asia.fourtitude.interviewq.jumble.repository;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only binary journal of game changes, with snapshots.
+ *
+ * Files in `directory`: numbered journal segments "journal-N.log", and
+ * snapshots "snapshot-N.bin" holding every live game at the moment segment
+ * N was started. State = latest snapshot K + replay of segments >= K.
+ * Each file starts with a header, followed by records framed as
+ * [length][crc32][payload]; a torn or corrupt record ends the file.
+ *
+ * Appends are queued and written by a single writer thread, which drains
+ * whatever is queued into one write followed by one fsync (group commit).
+ * By default appenders do not wait for it (write-behind: a crash loses the
+ * last few milliseconds of changes). In strict mode, appenders block until
+ * their record is fsynced.
+ *
+ * Replaying is idempotent (a game record replaces the game, a guess sets
+ * a flag), so a record may safely be in both a snapshot and a segment.
+ */
+public class GameJournal implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GameJournal.class);
+
+    static final int MAGIC = 0x4A4D474A;  // "JMGJ"
+
+    static final int VERSION = 1;
+
+    static final byte GAME = 1;
+
+    static final byte GUESSES = 2;
+
+    static final byte REMOVE = 3;
+
+    private static final int QUEUE_CAPACITY = 1 << 16;
+
+    private static final int MAX_BATCH = 4096;
+
+    private static final String JOURNAL_PREFIX = "journal-";
+
+    private static final String JOURNAL_SUFFIX = ".log";
+
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+
+    private final Path directory;
+
+    private final boolean strict;
+
+    private final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+    /*
+     * Segments before this one are from previous runs, and are replayed
+     * by `recover()`.
+     */
+    private final long firstSegment;
+
+    private final Thread writer;
+
+    private volatile boolean closed;
+
+    /*
+     * Owned by the writer thread.
+     */
+    private long segment;
+
+    private FileChannel channel;
+
+    /**
+     * @param directory  The directory of journal and snapshot files, created if needed.
+     * @param strict     true to make appends wait for fsync.
+     */
+    public GameJournal(Path directory, boolean strict) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.strict = strict;
+        long last = 0;
+        for (long seq : list(JOURNAL_PREFIX, JOURNAL_SUFFIX)) {
+            last = Math.max(last, seq);
+        }
+        for (long seq : list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            last = Math.max(last, seq);
+        }
+        // never append to a segment of a previous run, it may end torn
+        this.firstSegment = last + 1;
+        this.segment = firstSegment;
+        this.channel = openSegment(segment);
+        this.writer = new Thread(this::write, "game-journal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public boolean isStrict() {
+        return strict;
+    }
+
+    void appendGame(GameRecord record) {
+        append(payload(GAME, out -> record.write(out)));
+    }
+
+    /*
+     * The words newly guessed by one update of the game.
+     */
+    void appendGuesses(String id, List<String> words, long at) {
+        append(payload(GUESSES, out -> {
+            out.writeUTF(id);
+            out.writeLong(at);
+            out.writeInt(words.size());
+            for (String word : words) {
+                out.writeUTF(word);
+            }
+        }));
+    }
+
+    void appendRemove(String id) {
+        append(payload(REMOVE, out -> out.writeUTF(id)));
+    }
+
+    private interface Body {
+
+        void write(DataOutputStream out) throws IOException;
+
+    }
+
+    private static byte[] payload(byte type, Body body) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(type);
+            body.write(out);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void append(byte[] payload) {
+        Entry entry = new Entry(Entry.RECORD, payload, strict ? new CompletableFuture<>() : null);
+        enqueue(entry);
+        if (entry.done != null) {
+            await(entry.done);
+        }
+    }
+
+    private void enqueue(Entry entry) {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed, directory=[" + directory + "]");
+        }
+        try {
+            queue.put(entry);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted appending to journal", e);
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw new UncheckedIOException((IOException) e.getCause());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Starts a new segment. Every record appended before this call is in an
+     * earlier segment.
+     *
+     * @return  The number of the new segment.
+     */
+    long rotate() {
+        Entry entry = new Entry(Entry.ROTATE, null, new CompletableFuture<>());
+        enqueue(entry);
+        return await(entry.done);
+    }
+
+    private void write() {
+        List<Entry> batch = new ArrayList<>();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        boolean stop = false;
+        while (! stop) {
+            batch.clear();
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                // stops on CLOSE only, so that nothing queued is lost
+                continue;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+
+            IOException error = null;
+            bytes.reset();
+            try {
+                for (Entry entry : batch) {
+                    if (entry.type == Entry.RECORD) {
+                        frame(entry.payload, bytes);
+                    } else if (entry.type == Entry.ROTATE) {
+                        flush(bytes);
+                        channel.close();
+                        segment++;
+                        channel = openSegment(segment);
+                        entry.done.complete(segment);
+                    } else {
+                        stop = true;
+                    }
+                }
+                flush(bytes);
+            } catch (IOException e) {
+                error = e;
+                LOG.error("Cannot write game journal, directory=[{}], {} records lost", directory, batch.size(), e);
+            }
+            for (Entry entry : batch) {
+                if (entry.done != null && ! entry.done.isDone()) {
+                    if (error == null) {
+                        entry.done.complete(segment);
+                    } else {
+                        entry.done.completeExceptionally(error);
+                    }
+                }
+            }
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOG.warn("Cannot close game journal, directory=[{}]", directory, e);
+        }
+        // raced with close
+        IOException closedError = new IOException("Journal is closed, directory=[" + directory + "]");
+        for (Entry entry = queue.poll(); entry != null; entry = queue.poll()) {
+            if (entry.done != null) {
+                entry.done.completeExceptionally(closedError);
+            }
+        }
+    }
+
+    /*
+     * One write and one fsync for everything framed so far.
+     */
+    private void flush(ByteArrayOutputStream bytes) throws IOException {
+        if (bytes.size() > 0) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            bytes.reset();
+        }
+        channel.force(false);
+    }
+
+    private static void frame(byte[] payload, ByteArrayOutputStream bytes) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(payload.length);
+        out.writeInt((int) crc.getValue());
+        out.write(payload);
+    }
+
+    private FileChannel openSegment(long seq) throws IOException {
+        FileChannel channel = FileChannel.open(file(JOURNAL_PREFIX, seq, JOURNAL_SUFFIX),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(8);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        return channel;
+    }
+
+    /**
+     * Writes all `records` as snapshot `seq` (atomically: temporary file,
+     * fsync, rename), then deletes the segments and snapshots it replaces.
+     *
+     * @param seq  A segment number returned by `rotate()`, taken before
+     *             collecting `records`.
+     */
+    void snapshot(long seq, Collection<GameRecord> records) throws IOException {
+        Path tmp = directory.resolve(SNAPSHOT_PREFIX + seq + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(tmp.toFile())) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos, 64 * 1024));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            for (GameRecord record : records) {
+                bytes.reset();
+                frame(payload(GAME, record::write), bytes);
+                bytes.writeTo(out);
+            }
+            out.flush();
+            fos.getFD().sync();
+        }
+        Files.move(tmp, file(SNAPSHOT_PREFIX, seq, SNAPSHOT_SUFFIX),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        for (long old : list(JOURNAL_PREFIX, JOURNAL_SUFFIX)) {
+            if (old < seq) {
+                Files.deleteIfExists(file(JOURNAL_PREFIX, old, JOURNAL_SUFFIX));
+            }
+        }
+        for (long old : list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (old < seq) {
+                Files.deleteIfExists(file(SNAPSHOT_PREFIX, old, SNAPSHOT_SUFFIX));
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the games of previous runs: latest readable snapshot, then
+     * the segments after it.
+     *
+     * @return  The games, in order of creation.
+     */
+    Collection<GameRecord> recover() throws IOException {
+        Map<String, GameRecord> games = new LinkedHashMap<>();
+        List<Long> snapshots = list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        long from = 0;
+        for (int pos = snapshots.size() - 1; pos >= 0; pos--) {
+            long seq = snapshots.get(pos);
+            games.clear();
+            if (read(file(SNAPSHOT_PREFIX, seq, SNAPSHOT_SUFFIX), games)) {
+                from = seq;
+                break;
+            }
+            LOG.warn("Ignoring incomplete snapshot=[{}]", seq);
+        }
+        if (from == 0) {
+            games.clear();
+        }
+        for (long seq : list(JOURNAL_PREFIX, JOURNAL_SUFFIX)) {
+            if (seq >= from && seq < firstSegment) {
+                read(file(JOURNAL_PREFIX, seq, JOURNAL_SUFFIX), games);
+            }
+        }
+        return games.values();
+    }
+
+    /*
+     * Applies the records of `file` to `games`, stopping at the first torn
+     * or corrupt record.
+     *
+     * @return  true if the whole file was read.
+     */
+    private static boolean read(Path file, Map<String, GameRecord> games) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024))) {
+            try {
+                if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                    LOG.warn("Ignoring file=[{}], not a game journal", file);
+                    return false;
+                }
+            } catch (EOFException e) {
+                return false;
+            }
+            CRC32 crc = new CRC32();
+            while (true) {
+                byte[] payload;
+                try {
+                    int length = in.readInt();
+                    int checksum = in.readInt();
+                    if (length <= 0 || length > (1 << 24)) {
+                        LOG.warn("Stop reading file=[{}], corrupt record length=[{}]", file, length);
+                        return false;
+                    }
+                    payload = new byte[length];
+                    in.readFully(payload);
+                    crc.reset();
+                    crc.update(payload, 0, length);
+                    if ((int) crc.getValue() != checksum) {
+                        LOG.warn("Stop reading file=[{}], corrupt record", file);
+                        return false;
+                    }
+                } catch (EOFException e) {
+                    // end of file, or torn last record
+                    return true;
+                }
+                apply(payload, games);
+            }
+        }
+    }
+
+    private static void apply(byte[] payload, Map<String, GameRecord> games) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte type = in.readByte();
+        if (type == GAME) {
+            GameRecord record = GameRecord.read(in);
+            games.put(record.id, record);
+        } else if (type == GUESSES) {
+            GameRecord record = games.get(in.readUTF());
+            long at = in.readLong();
+            int count = in.readInt();
+            for (int pos = 0; pos < count; pos++) {
+                String word = in.readUTF();
+                if (record != null) {
+                    record.guessed.add(word);
+                }
+            }
+            if (record != null) {
+                record.modifiedAt = Math.max(record.modifiedAt, at);
+            }
+        } else if (type == REMOVE) {
+            games.remove(in.readUTF());
+        } else {
+            throw new IOException("Unknown record type=[" + type + "]");
+        }
+    }
+
+    private Path file(String prefix, long seq, String suffix) {
+        return directory.resolve(prefix + seq + suffix);
+    }
+
+    /*
+     * Sequence numbers of files named `prefix` + N + `suffix`, ascending.
+     */
+    private List<Long> list(String prefix, String suffix) throws IOException {
+        List<Long> seqs = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*" + suffix)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    seqs.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+                } catch (NumberFormatException e) {
+                    LOG.warn("Ignoring file=[{}]", file);
+                }
+            }
+        }
+        Collections.sort(seqs);
+        return seqs;
+    }
+
+    /**
+     * Writes and fsyncs everything appended so far, then stops the writer.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            queue.put(new Entry(Entry.CLOSE, null, null));
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Entry {
+
+        static final int RECORD = 0;
+
+        static final int ROTATE = 1;
+
+        static final int CLOSE = 2;
+
+        final int type;
+
+        final byte[] payload;
+
+        final CompletableFuture<Long> done;
+
+        Entry(int type, byte[] payload, CompletableFuture<Long> done) {
+            this.type = type;
+            this.payload = payload;
+            this.done = done;
+        }
+
+    }
+
+}
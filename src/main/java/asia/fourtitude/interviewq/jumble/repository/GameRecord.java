@@ -0,0 +1,98 @@
+package asia.fourtitude.interviewq.jumble.repository;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import asia.fourtitude.interviewq.jumble.core.GameState;
+import asia.fourtitude.interviewq.jumble.dictionary.Dictionary;
+import asia.fourtitude.interviewq.jumble.model.GameGuessModel;
+
+/**
+ * Persistent form of a game: enough to rebuild its {@link GameState}
+ * against the current dictionary (sub words are recomputed, not stored).
+ * Used by the journal, and to hand off games to another instance.
+ */
+public final class GameRecord {
+
+    final String id;
+
+    final long createdAt;
+
+    long modifiedAt;
+
+    final String original;
+
+    final String scramble;
+
+    final int minLength;
+
+    final Set<String> guessed;
+
+    GameRecord(String id, long createdAt, long modifiedAt, String original, String scramble, int minLength, Set<String> guessed) {
+        this.id = id;
+        this.createdAt = createdAt;
+        this.modifiedAt = modifiedAt;
+        this.original = original;
+        this.scramble = scramble;
+        this.minLength = minLength;
+        this.guessed = guessed;
+    }
+
+    public static GameRecord of(GameGuessModel model) {
+        GameState state = model.getGameState();
+        return new GameRecord(model.getId(), time(model.getCreatedAt()), time(model.getModifiedAt()),
+                state.getOriginal(), state.getScramble(), state.getMinLength(),
+                new LinkedHashSet<>(state.getGuessedWords()));
+    }
+
+    private static long time(Date date) {
+        return date == null ? 0 : date.getTime();
+    }
+
+    public GameGuessModel toModel(Dictionary dictionary) {
+        GameState state = new GameState(original, scramble, minLength, dictionary,
+                dictionary.subWordOrdinals(original, minLength));
+        for (String word : guessed) {
+            state.updateGuessWord(word);
+        }
+        GameGuessModel model = new GameGuessModel();
+        model.setId(id);
+        model.setCreatedAt(new Date(createdAt));
+        model.setModifiedAt(new Date(modifiedAt));
+        model.setGameState(state);
+        return model;
+    }
+
+    public void write(DataOutput out) throws IOException {
+        out.writeUTF(id);
+        out.writeLong(createdAt);
+        out.writeLong(modifiedAt);
+        out.writeUTF(original);
+        out.writeUTF(scramble);
+        out.writeInt(minLength);
+        out.writeInt(guessed.size());
+        for (String word : guessed) {
+            out.writeUTF(word);
+        }
+    }
+
+    public static GameRecord read(DataInput in) throws IOException {
+        String id = in.readUTF();
+        long createdAt = in.readLong();
+        long modifiedAt = in.readLong();
+        String original = in.readUTF();
+        String scramble = in.readUTF();
+        int minLength = in.readInt();
+        int count = in.readInt();
+        Set<String> guessed = new LinkedHashSet<>();
+        for (int pos = 0; pos < count; pos++) {
+            guessed.add(in.readUTF());
+        }
+        return new GameRecord(id, createdAt, modifiedAt, original, scramble, minLength, guessed);
+    }
+
+}
@@ -0,0 +1,103 @@
+package asia.fourtitude.interviewq.jumble.repository;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+
+import asia.fourtitude.interviewq.jumble.core.GameState;
+import asia.fourtitude.interviewq.jumble.model.GameGuessModel;
+import asia.fourtitude.interviewq.jumble.model.GameGuessOutput;
+
+/**
+ * Stores the game boards/states, by game `id`.
+ *
+ * A repository may drop games on its own (idle too long, or over budget),
+ * so a game saved earlier is not guaranteed to be found later.
+ */
+public interface GameRepository {
+
+    /**
+     * Finds the game, and marks it as used (resets its idle timer).
+     *
+     * @param id  The game ID.
+     * @return  The game, or null if not found (never saved, removed or evicted).
+     */
+    GameGuessModel findById(String id);
+
+    /**
+     * Saves the game (insert, or replace the one of same `id`).
+     *
+     * @param model  The game, must have `id`.
+     */
+    void save(GameGuessModel model);
+
+    /**
+     * Saves a game restored from elsewhere (e.g. a journal), whose idle
+     * time keeps running from `idleMillis` instead of starting over.
+     *
+     * @param model       The game, must have `id`.
+     * @param idleMillis  How long the game has been idle already.
+     * @return  false if not saved, already idle longer than the idle timeout.
+     */
+    boolean restore(GameGuessModel model, long idleMillis);
+
+    /**
+     * Applies guesses on the game as one state update (see
+     * {@link GameState#guess(List)}), and marks it as used.
+     *
+     * The default updates the found game in place, for repositories holding
+     * the games themselves; others (e.g. decoding a copy) override it.
+     *
+     * @param id      The game ID.
+     * @param words   The guesses, in order, null for none.
+     * @param at      The modified time of the game, if any guess is newly correct.
+     * @param output  Filled with the game as of the update (id, words and
+     *                counts), if found.
+     * @return  The outcome of each guess, or null if the game is not found.
+     */
+    default GameState.Guess[] guess(String id, List<String> words, Date at, GameGuessOutput output) {
+        GameGuessModel model = findById(id);
+        if (model == null) {
+            return null;
+        }
+        GameState.Guess[] outcomes = model.getGameState().guess(words);
+        if (Arrays.asList(outcomes).contains(GameState.Guess.CORRECT)) {
+            model.updateModifiedAt(at);
+        }
+        model.fillOutput(output);
+        return outcomes;
+    }
+
+    /**
+     * @param id  The game ID.
+     * @return  The removed game, or null if not found.
+     */
+    GameGuessModel remove(String id);
+
+    /**
+     * Visits every game currently stored (weakly consistent: games saved or
+     * removed meanwhile may or may not be visited).
+     */
+    void forEach(Consumer<GameGuessModel> action);
+
+    /**
+     * @return  The number of games currently stored.
+     */
+    int size();
+
+    /**
+     * @return  Snapshot of the counters, for sizing the repository.
+     */
+    GameRepositoryStats stats();
+
+    /**
+     * Sets the listener of the games dropped by the repository on its own
+     * (evicted over budget, or expired idle), called with their `id` after
+     * the fact, outside any lock. Not called for {@link #remove(String)}.
+     *
+     * @param listener  The listener, or null.
+     */
+    void setRemovalListener(Consumer<String> listener);
+
+}
@@ -0,0 +1,70 @@
+package asia.fourtitude.interviewq.jumble.repository;
+
+/**
+ * Point-in-time counters of a {@link GameRepository}.
+ *
+ * `evictions` are games dropped to stay within the entry budget (least
+ * recently used first), `expirations` are games dropped for being idle
+ * longer than the idle timeout. A high `evictions` count means the budget
+ * is too small for the traffic.
+ */
+public class GameRepositoryStats {
+
+    private final int size;
+
+    private final int capacity;
+
+    private final long hits;
+
+    private final long misses;
+
+    private final long evictions;
+
+    private final long expirations;
+
+    public GameRepositoryStats(int size, int capacity, long hits, long misses, long evictions, long expirations) {
+        this.size = size;
+        this.capacity = capacity;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.expirations = expirations;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getExpirations() {
+        return expirations;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("size=[").append(size).append(']');
+        sb.append(", capacity=[").append(capacity).append(']');
+        sb.append(", hits=[").append(hits).append(']');
+        sb.append(", misses=[").append(misses).append(']');
+        sb.append(", evictions=[").append(evictions).append(']');
+        sb.append(", expirations=[").append(expirations).append(']');
+        return sb.toString();
+    }
+
+}
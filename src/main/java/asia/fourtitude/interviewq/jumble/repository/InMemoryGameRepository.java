@@ -0,0 +1,440 @@
+package asia.fourtitude.interviewq.jumble.repository;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import asia.fourtitude.interviewq.jumble.model.GameGuessModel;
+
+/**
+ * Bounded, expiring in-memory {@link GameRepository}.
+ *
+ * Games are spread over lock-striped shards, each an access ordered map
+ * guarded by its own lock, so requests on different games rarely contend.
+ *
+ * Entry budget: each shard holds at most `maxEntries / shards` (rounded
+ * up) games, and evicts its least recently used game to make room.
+ *
+ * Idle timeout: each shard keeps its games on a hashed timing wheel, in
+ * the bucket of the tick their idle deadline falls on. A background task
+ * advances the wheels every tick and only visits the buckets that came
+ * due, instead of scanning all games. Using a game just records the access
+ * time; when its bucket comes due and the game has been used since, it is
+ * moved to the bucket of its new deadline rather than expired. A game past
+ * its deadline is never returned, even before its bucket is visited.
+ */
+public class InMemoryGameRepository implements GameRepository, Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(InMemoryGameRepository.class);
+
+    static final int DEFAULT_SHARDS = 16;
+
+    /*
+     * Wheel covers `WHEEL_SIZE` ticks, and a deadline is at most
+     * `TICKS_PER_TIMEOUT` ticks ahead, so a game is never scheduled beyond
+     * one revolution.
+     */
+    static final int WHEEL_SIZE = 256;
+
+    static final int TICKS_PER_TIMEOUT = 64;
+
+    private static final long MIN_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final Shard[] shards;
+
+    private final int shardMask;
+
+    private final int capacity;
+
+    private final long idleNanos;
+
+    private final long tickNanos;
+
+    private final LongSupplier clock;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder expirations = new LongAdder();
+
+    private final ScheduledExecutorService expirer;
+
+    private volatile Consumer<String> removalListener;
+
+    /**
+     * @param maxEntries   The entry budget, across all shards.
+     * @param idleTimeout  Games not used for this long are expired.
+     */
+    public InMemoryGameRepository(int maxEntries, Duration idleTimeout) {
+        this(maxEntries, idleTimeout, DEFAULT_SHARDS, System::nanoTime, true);
+    }
+
+    /*
+     * Without `scheduled`, wheels only advance on `expire()` (for testing).
+     */
+    InMemoryGameRepository(int maxEntries, Duration idleTimeout, int shards, LongSupplier clock, boolean scheduled) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Invalid maxEntries=[" + maxEntries + "]");
+        }
+        if (idleTimeout == null || idleTimeout.isNegative() || idleTimeout.isZero()) {
+            throw new IllegalArgumentException("Invalid idleTimeout=[" + idleTimeout + "]");
+        }
+        int shardCount = Integer.highestOneBit(Math.max(1, Math.min(shards, maxEntries)) * 2 - 1);
+        int perShard = (maxEntries + shardCount - 1) / shardCount;
+        this.idleNanos = idleTimeout.toNanos();
+        this.tickNanos = Math.max(MIN_TICK_NANOS, idleNanos / TICKS_PER_TIMEOUT);
+        this.clock = clock;
+        this.capacity = perShard * shardCount;
+        this.shardMask = shardCount - 1;
+        this.shards = new Shard[shardCount];
+        long tick = clock.getAsLong() / tickNanos;
+        for (int pos = 0; pos < shardCount; pos++) {
+            this.shards[pos] = new Shard(perShard, tick);
+        }
+
+        if (scheduled) {
+            this.expirer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "game-expirer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.expirer.scheduleAtFixedRate(this::expire, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+        } else {
+            this.expirer = null;
+        }
+    }
+
+    private Shard shard(String id) {
+        int hash = id.hashCode();
+        hash ^= hash >>> 16;
+        return shards[hash & shardMask];
+    }
+
+    @Override
+    public GameGuessModel findById(String id) {
+        if (id == null) {
+            return null;
+        }
+        Shard shard = shard(id);
+        long now = clock.getAsLong();
+        boolean expired = false;
+        shard.lock.lock();
+        try {
+            Node node = shard.map.get(id);
+            if (node != null && now - node.lastAccess >= idleNanos) {
+                shard.remove(node);
+                expirations.increment();
+                expired = true;
+                node = null;
+            }
+            if (node == null) {
+                misses.increment();
+            } else {
+                node.lastAccess = now;
+                hits.increment();
+                return node.model;
+            }
+        } finally {
+            shard.lock.unlock();
+        }
+        if (expired) {
+            dropped(Collections.singletonList(id));
+        }
+        return null;
+    }
+
+    @Override
+    public void save(GameGuessModel model) {
+        put(model, clock.getAsLong());
+    }
+
+    @Override
+    public boolean restore(GameGuessModel model, long idleMillis) {
+        long idle = TimeUnit.MILLISECONDS.toNanos(Math.max(0, idleMillis));
+        if (idle >= idleNanos) {
+            return false;
+        }
+        put(model, clock.getAsLong() - idle);
+        return true;
+    }
+
+    /*
+     * Saves the game as last used at `lastAccess`.
+     */
+    private void put(GameGuessModel model, long lastAccess) {
+        String id = model.getId();
+        if (id == null) {
+            throw new IllegalArgumentException("Game has no id, model=[" + model + "]");
+        }
+        Shard shard = shard(id);
+        String evicted = null;
+        shard.lock.lock();
+        try {
+            Node node = shard.map.get(id);
+            if (node != null) {
+                node.model = model;
+                node.lastAccess = lastAccess;
+                return;
+            }
+            if (shard.map.size() >= shard.capacity) {
+                Iterator<Node> eldest = shard.map.values().iterator();
+                Node eldestNode = eldest.next();
+                shard.unschedule(eldestNode);
+                eldest.remove();
+                evictions.increment();
+                evicted = eldestNode.id;
+            }
+            node = new Node(id, model, lastAccess);
+            shard.map.put(id, node);
+            // a restored game may be due before the next tick to visit
+            shard.schedule(node, Math.max(deadlineTick(lastAccess), shard.tick));
+        } finally {
+            shard.lock.unlock();
+        }
+        if (evicted != null) {
+            dropped(Collections.singletonList(evicted));
+        }
+    }
+
+    private void dropped(List<String> ids) {
+        Consumer<String> listener = removalListener;
+        if (listener != null) {
+            ids.forEach(listener);
+        }
+    }
+
+    @Override
+    public GameGuessModel remove(String id) {
+        if (id == null) {
+            return null;
+        }
+        Shard shard = shard(id);
+        shard.lock.lock();
+        try {
+            Node node = shard.map.get(id);
+            if (node == null) {
+                return null;
+            }
+            shard.remove(node);
+            return node.model;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /*
+     * First tick at or after the idle deadline of a game used at `lastAccess`.
+     */
+    private long deadlineTick(long lastAccess) {
+        return (lastAccess + idleNanos) / tickNanos + 1;
+    }
+
+    /**
+     * Advances the timing wheels up to now, expiring the games that came due.
+     */
+    void expire() {
+        try {
+            long now = clock.getAsLong();
+            long tick = now / tickNanos;
+            List<String> expired = new ArrayList<>();
+            for (Shard shard : shards) {
+                shard.lock.lock();
+                try {
+                    advance(shard, tick, now, expired);
+                } finally {
+                    shard.lock.unlock();
+                }
+            }
+            if (! expired.isEmpty()) {
+                expirations.add(expired.size());
+                LOG.debug("Expired {} idle games, {}", expired.size(), stats());
+                dropped(expired);
+            }
+        } catch (RuntimeException e) {
+            LOG.error("Cannot expire idle games", e);
+        }
+    }
+
+    private void advance(Shard shard, long tick, long now, List<String> expired) {
+        // after a long pause, one revolution visits every bucket
+        long from = Math.max(shard.tick, tick - WHEEL_SIZE + 1);
+        for (long current = from; current <= tick; current++) {
+            int bucket = (int) (current & (WHEEL_SIZE - 1));
+            Node node = shard.wheel[bucket];
+            shard.wheel[bucket] = null;
+            while (node != null) {
+                Node next = node.next;
+                node.prev = null;
+                node.next = null;
+                node.bucket = -1;
+                if (now - node.lastAccess >= idleNanos) {
+                    shard.map.remove(node.id);
+                    expired.add(node.id);
+                } else {
+                    shard.schedule(node, Math.max(deadlineTick(node.lastAccess), tick + 1));
+                }
+                node = next;
+            }
+        }
+        shard.tick = tick + 1;
+    }
+
+    @Override
+    public void forEach(Consumer<GameGuessModel> action) {
+        for (Shard shard : shards) {
+            // copied under lock, visited outside it
+            List<GameGuessModel> models;
+            shard.lock.lock();
+            try {
+                models = new ArrayList<>(shard.map.size());
+                for (Node node : shard.map.values()) {
+                    models.add(node.model);
+                }
+            } finally {
+                shard.lock.unlock();
+            }
+            models.forEach(action);
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                size += shard.map.size();
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public GameRepositoryStats stats() {
+        return new GameRepositoryStats(size(), capacity,
+                hits.sum(), misses.sum(), evictions.sum(), expirations.sum());
+    }
+
+    @Override
+    public void setRemovalListener(Consumer<String> listener) {
+        this.removalListener = listener;
+    }
+
+    @Override
+    public void close() {
+        if (expirer != null) {
+            expirer.shutdownNow();
+        }
+        LOG.info("Closed game repository, {}", stats());
+    }
+
+    @Override
+    public String toString() {
+        return stats().toString();
+    }
+
+    private static final class Node {
+
+        final String id;
+
+        GameGuessModel model;
+
+        long lastAccess;
+
+        /*
+         * Links in the wheel bucket (-1 when not scheduled).
+         */
+        int bucket = -1;
+
+        Node prev;
+
+        Node next;
+
+        Node(String id, GameGuessModel model, long lastAccess) {
+            this.id = id;
+            this.model = model;
+            this.lastAccess = lastAccess;
+        }
+
+    }
+
+    private static final class Shard {
+
+        final ReentrantLock lock = new ReentrantLock();
+
+        final LinkedHashMap<String, Node> map = new LinkedHashMap<>(16, 0.75f, true);
+
+        final Node[] wheel = new Node[WHEEL_SIZE];
+
+        final int capacity;
+
+        /*
+         * Next tick to visit.
+         */
+        long tick;
+
+        Shard(int capacity, long tick) {
+            this.capacity = capacity;
+            this.tick = tick;
+        }
+
+        void schedule(Node node, long deadlineTick) {
+            int bucket = (int) (deadlineTick & (WHEEL_SIZE - 1));
+            Node head = wheel[bucket];
+            node.bucket = bucket;
+            node.prev = null;
+            node.next = head;
+            if (head != null) {
+                head.prev = node;
+            }
+            wheel[bucket] = node;
+        }
+
+        void unschedule(Node node) {
+            if (node.bucket < 0) {
+                return;
+            }
+            if (node.prev != null) {
+                node.prev.next = node.next;
+            } else {
+                wheel[node.bucket] = node.next;
+            }
+            if (node.next != null) {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            node.bucket = -1;
+        }
+
+        void remove(Node node) {
+            unschedule(node);
+            map.remove(node.id);
+        }
+
+    }
+
+}
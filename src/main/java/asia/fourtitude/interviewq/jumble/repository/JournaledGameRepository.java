@@ -0,0 +1,205 @@
+package asia.fourtitude.interviewq.jumble.repository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import asia.fourtitude.interviewq.jumble.core.GameState;
+import asia.fourtitude.interviewq.jumble.core.JumbleEngine;
+import asia.fourtitude.interviewq.jumble.dictionary.Dictionary;
+import asia.fourtitude.interviewq.jumble.model.GameGuessModel;
+import asia.fourtitude.interviewq.jumble.model.GameGuessOutput;
+
+/**
+ * {@link GameRepository} that survives restarts: changes go to `delegate`
+ * and are appended to a {@link GameJournal}.
+ *
+ * On start, games of the previous run are rebuilt from the journal (latest
+ * snapshot plus the segments after it) against the current dictionary.
+ * A snapshot of all games is written every `snapshotInterval` and on
+ * close, after which older segments are deleted (compaction).
+ *
+ * Games the delegate drops on its own (evicted or expired) are journaled
+ * as removed, so that they do not come back on recovery. A recovered game
+ * is idle since its last change, not since the restart. A game that cannot
+ * be rebuilt (e.g. its word is no longer in the dictionary) is skipped.
+ */
+public class JournaledGameRepository implements GameRepository, Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JournaledGameRepository.class);
+
+    private final GameRepository delegate;
+
+    private final GameJournal journal;
+
+    private final ScheduledExecutorService snapshotter;
+
+    private volatile Consumer<String> removalListener;
+
+    private volatile boolean closed;
+
+    public JournaledGameRepository(GameRepository delegate, GameJournal journal,
+            JumbleEngine jumbleEngine, Duration snapshotInterval) throws IOException {
+        this.delegate = delegate;
+        this.journal = journal;
+        delegate.setRemovalListener(this::dropped);
+        recover(jumbleEngine.getDictionary());
+
+        this.snapshotter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = snapshotInterval.toMillis();
+        this.snapshotter.scheduleWithFixedDelay(this::snapshot, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private void recover(Dictionary dictionary) throws IOException {
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        Collection<GameRecord> records = journal.recover();
+        int restored = 0;
+        int skipped = 0;
+        for (GameRecord record : records) {
+            try {
+                if (delegate.restore(record.toModel(dictionary), now - Math.max(record.createdAt, record.modifiedAt))) {
+                    restored++;
+                }
+            } catch (RuntimeException e) {
+                // e.g. word dropped by a dictionary reload, or too many sub words for the delegate
+                LOG.warn("Cannot recover game id=[{}], original=[{}], skipped: {}", record.id, record.original, e.toString());
+                skipped++;
+            }
+        }
+        LOG.info("Recovered {} games ({} idle too long, {} skipped) in {} ms", restored, records.size() - restored - skipped,
+                skipped, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        // recovered games are in the next snapshot, the old files can go
+        snapshot();
+    }
+
+    /**
+     * Writes a snapshot of all games, and compacts the journal.
+     *
+     * @return  true if written.
+     */
+    public synchronized boolean snapshot() {
+        try {
+            long start = System.nanoTime();
+            long seq = journal.rotate();
+            List<GameRecord> records = new ArrayList<>(delegate.size());
+            delegate.forEach(model -> records.add(GameRecord.of(model)));
+            journal.snapshot(seq, records);
+            LOG.debug("Wrote snapshot=[{}] of {} games in {} ms", seq, records.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return true;
+        } catch (IOException | RuntimeException e) {
+            LOG.error("Cannot write game snapshot", e);
+            return false;
+        }
+    }
+
+    @Override
+    public GameGuessModel findById(String id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public void save(GameGuessModel model) {
+        delegate.save(model);
+        journal.appendGame(GameRecord.of(model));
+    }
+
+    @Override
+    public boolean restore(GameGuessModel model, long idleMillis) {
+        if (! delegate.restore(model, idleMillis)) {
+            return false;
+        }
+        journal.appendGame(GameRecord.of(model));
+        return true;
+    }
+
+    /**
+     * Journals the newly guessed words of the update as one record.
+     */
+    @Override
+    public GameState.Guess[] guess(String id, List<String> words, Date at, GameGuessOutput output) {
+        GameState.Guess[] outcomes = delegate.guess(id, words, at, output);
+        if (outcomes != null) {
+            List<String> newly = GameState.newlyGuessed(words, outcomes);
+            if (! newly.isEmpty()) {
+                journal.appendGuesses(id, newly, at.getTime());
+            }
+        }
+        return outcomes;
+    }
+
+    @Override
+    public GameGuessModel remove(String id) {
+        GameGuessModel model = delegate.remove(id);
+        if (model != null) {
+            journal.appendRemove(id);
+        }
+        return model;
+    }
+
+    /*
+     * Evicted or expired by the delegate.
+     */
+    private void dropped(String id) {
+        // the delegate may still expire games while closing
+        if (! closed) {
+            journal.appendRemove(id);
+        }
+        Consumer<String> listener = removalListener;
+        if (listener != null) {
+            listener.accept(id);
+        }
+    }
+
+    @Override
+    public void forEach(Consumer<GameGuessModel> action) {
+        delegate.forEach(action);
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public GameRepositoryStats stats() {
+        return delegate.stats();
+    }
+
+    @Override
+    public void setRemovalListener(Consumer<String> listener) {
+        this.removalListener = listener;
+    }
+
+    @Override
+    public void close() throws IOException {
+        snapshotter.shutdownNow();
+        try {
+            snapshotter.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        snapshot();
+        closed = true;
+        journal.close();
+        if (delegate instanceof Closeable) {
+            ((Closeable) delegate).close();
+        }
+    }
+
+}
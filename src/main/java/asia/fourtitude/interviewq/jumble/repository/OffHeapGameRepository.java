@@ -0,0 +1,899 @@
+package asia.fourtitude.interviewq.jumble.repository;
+
+import java.io.Closeable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import asia.fourtitude.interviewq.jumble.core.GameState;
+import asia.fourtitude.interviewq.jumble.dictionary.Dictionary;
+import asia.fourtitude.interviewq.jumble.model.GameGuessModel;
+import asia.fourtitude.interviewq.jumble.model.GameGuessOutput;
+
+/**
+ * Bounded, expiring {@link GameRepository} keeping games off the Java
+ * heap, for millions of games without the GC cost of their object graphs.
+ *
+ * Each game is a fixed layout record in a direct {@link ByteBuffer} slab
+ * (`SLAB_RECORDS` records per slab, allocated as needed): its id (as a
+ * UUID), timestamps, the dictionary ordinal of the original word, the
+ * scramble, and the guessed bits. Sub words are not stored, they are
+ * recomputed (cached per anagram class) from the original word. Records
+ * are found by an open addressing table of slot numbers, and freed slots
+ * are reused first.
+ *
+ * {@link #guess} applies guesses in place: their bits are set on the
+ * record with one CAS per 64-bit word, so concurrent guesses on the same
+ * game are all kept and exactly one of them sees a word as newly guessed,
+ * and the output is decoded from the record. {@link #findById} decodes a
+ * new {@link GameGuessModel} on every call, changes to it are not written
+ * back (save it again).
+ *
+ * Entry budget: when full, a game not used since the last sweep of the
+ * clock hand is evicted (second chance). Idle timeout: as in
+ * {@link InMemoryGameRepository}, records are linked (by slot, in the
+ * record itself) on a hashed timing wheel in the bucket of their idle
+ * deadline, and a background task only visits the buckets that came due,
+ * one bucket per write lock, instead of scanning all records.
+ *
+ * Only ids in UUID format can be stored, and games of at most
+ * `maxSolutions` sub words and `MAX_LENGTH` letters.
+ */
+public class OffHeapGameRepository implements GameRepository, Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OffHeapGameRepository.class);
+
+    static final int SLAB_SHIFT = 16;
+
+    static final int SLAB_RECORDS = 1 << SLAB_SHIFT;
+
+    static final int MAX_LENGTH = 32;
+
+    /*
+     * Wheel covers `WHEEL_SIZE` ticks, and a deadline is at most
+     * `TICKS_PER_TIMEOUT` ticks ahead, so a game is never scheduled beyond
+     * one revolution.
+     */
+    static final int WHEEL_SIZE = 256;
+
+    static final int TICKS_PER_TIMEOUT = 64;
+
+    private static final long MIN_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /*
+     * Record layout, longs 8-byte aligned for atomic access.
+     */
+    private static final int ID_MSB = 0;
+
+    private static final int ID_LSB = 8;
+
+    private static final int CREATED_AT = 16;
+
+    private static final int MODIFIED_AT = 24;
+
+    private static final int LAST_ACCESS = 32;
+
+    private static final int ORDINAL = 40;
+
+    private static final int DICTIONARY = 44;
+
+    private static final int MIN_LENGTH = 46;
+
+    private static final int USED = 47;
+
+    private static final int SCRAMBLE_LENGTH = 48;
+
+    private static final int ACCESSED = 49;
+
+    private static final int TOTAL_WORDS = 50;
+
+    private static final int SCRAMBLE = 52;
+
+    /*
+     * Wheel links, slot + 1 of the next and previous record of the bucket
+     * (0: none).
+     */
+    private static final int WHEEL_NEXT = SCRAMBLE + MAX_LENGTH;
+
+    private static final int WHEEL_PREV = WHEEL_NEXT + 4;
+
+    private static final int WHEEL_BUCKET = WHEEL_PREV + 4;
+
+    private static final int BITS = WHEEL_BUCKET + 4;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final int capacity;
+
+    private final int bitWords;
+
+    private final int recordSize;
+
+    private final long idleNanos;
+
+    private final long tickNanos;
+
+    private final LongSupplier clock;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private ByteBuffer[] slabs = new ByteBuffer[0];
+
+    /*
+     * Slot + 1 of each game by hash of its id (0: empty), linear probing.
+     */
+    private final int[] table;
+
+    private final int tableMask;
+
+    /*
+     * Freed slots, reused first (a stack).
+     */
+    private final int[] freeSlots;
+
+    private int freeCount;
+
+    /*
+     * Slots below are allocated (used or free).
+     */
+    private int allocated;
+
+    private int size;
+
+    private int clockHand;
+
+    /*
+     * Slot + 1 of the first record of each bucket (0: empty).
+     */
+    private final int[] wheel = new int[WHEEL_SIZE];
+
+    /*
+     * Next tick to visit.
+     */
+    private long wheelTick;
+
+    /*
+     * Dictionary snapshots the games refer to, by index, and the number of
+     * records referring to each: a snapshot no record refers to any more
+     * (replaced by a reload) is dropped, and its index reused.
+     */
+    private Dictionary[] dictionaries = new Dictionary[0];
+
+    private int[] pins = new int[0];
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder expirations = new LongAdder();
+
+    private final ScheduledExecutorService expirer;
+
+    private volatile Consumer<String> removalListener;
+
+    /**
+     * @param maxEntries    The entry budget.
+     * @param idleTimeout   Games not used for this long are expired.
+     * @param maxSolutions  The most sub words a stored game may have.
+     */
+    public OffHeapGameRepository(int maxEntries, Duration idleTimeout, int maxSolutions) {
+        this(maxEntries, idleTimeout, maxSolutions, System::nanoTime, true);
+    }
+
+    /*
+     * Without `scheduled`, the wheel only advances on `expire()` (for testing).
+     */
+    OffHeapGameRepository(int maxEntries, Duration idleTimeout, int maxSolutions, LongSupplier clock, boolean scheduled) {
+        if (maxEntries <= 0 || maxEntries > (1 << 28)) {
+            throw new IllegalArgumentException("Invalid maxEntries=[" + maxEntries + "]");
+        }
+        if (idleTimeout == null || idleTimeout.isNegative() || idleTimeout.isZero()) {
+            throw new IllegalArgumentException("Invalid idleTimeout=[" + idleTimeout + "]");
+        }
+        if (maxSolutions <= 0) {
+            throw new IllegalArgumentException("Invalid maxSolutions=[" + maxSolutions + "]");
+        }
+        this.capacity = maxEntries;
+        this.bitWords = (maxSolutions + 63) >>> 6;
+        this.recordSize = BITS + bitWords * 8;
+        this.idleNanos = idleTimeout.toNanos();
+        this.tickNanos = Math.max(MIN_TICK_NANOS, idleNanos / TICKS_PER_TIMEOUT);
+        this.clock = clock;
+        this.wheelTick = clock.getAsLong() / tickNanos;
+        this.table = new int[Integer.highestOneBit(maxEntries * 2 - 1) * 2];
+        this.tableMask = table.length - 1;
+        this.freeSlots = new int[maxEntries];
+
+        if (scheduled) {
+            this.expirer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "game-expirer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.expirer.scheduleAtFixedRate(this::expire, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+        } else {
+            this.expirer = null;
+        }
+    }
+
+    private ByteBuffer slab(int slot) {
+        return slabs[slot >>> SLAB_SHIFT];
+    }
+
+    private int offset(int slot) {
+        return (slot & (SLAB_RECORDS - 1)) * recordSize;
+    }
+
+    private static long getLong(ByteBuffer slab, int offset) {
+        return (long) LONGS.getOpaque(slab, offset);
+    }
+
+    private static void setLong(ByteBuffer slab, int offset, long value) {
+        LONGS.setOpaque(slab, offset, value);
+    }
+
+    private static int hash(long msb, long lsb) {
+        long hash = msb * 0x9E3779B97F4A7C15L + lsb;
+        hash ^= hash >>> 32;
+        return (int) (hash ^ (hash >>> 16));
+    }
+
+    private static UUID uuid(String id) {
+        if (id == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /*
+     * Table position holding the game, or of the empty entry ending its
+     * probe sequence (-1 - position). Under lock.
+     */
+    private int find(long msb, long lsb) {
+        int pos = hash(msb, lsb) & tableMask;
+        while (true) {
+            int entry = table[pos];
+            if (entry == 0) {
+                return -1 - pos;
+            }
+            int slot = entry - 1;
+            ByteBuffer slab = slab(slot);
+            int offset = offset(slot);
+            if (getLong(slab, offset + ID_MSB) == msb && getLong(slab, offset + ID_LSB) == lsb) {
+                return pos;
+            }
+            pos = (pos + 1) & tableMask;
+        }
+    }
+
+    /*
+     * Removes the table entry at `pos`, shifting back the entries probed
+     * past it (no tombstones). Under write lock.
+     */
+    private void unindex(int pos) {
+        int hole = pos;
+        int next = pos;
+        while (true) {
+            next = (next + 1) & tableMask;
+            int entry = table[next];
+            if (entry == 0) {
+                break;
+            }
+            int slot = entry - 1;
+            ByteBuffer slab = slab(slot);
+            int offset = offset(slot);
+            int home = hash(getLong(slab, offset + ID_MSB), getLong(slab, offset + ID_LSB)) & tableMask;
+            // movable unless its home lies cyclically in (hole, next]
+            boolean between = hole <= next ? (hole < home && home <= next) : (hole < home || home <= next);
+            if (! between) {
+                table[hole] = entry;
+                hole = next;
+            }
+        }
+        table[hole] = 0;
+    }
+
+    @Override
+    public GameGuessModel findById(String id) {
+        UUID uuid = uuid(id);
+        if (uuid == null) {
+            return null;
+        }
+        long now = clock.getAsLong();
+        lock.readLock().lock();
+        try {
+            int slot = lookup(uuid, now);
+            if (slot < 0) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return decode(slot);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /*
+     * Slot of the game, marked as used now, or -1 if not found or idle.
+     * Under (at least) read lock.
+     */
+    private int lookup(UUID uuid, long now) {
+        int pos = find(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        if (pos < 0) {
+            return -1;
+        }
+        int slot = table[pos] - 1;
+        ByteBuffer slab = slab(slot);
+        int offset = offset(slot);
+        // left for the sweep to free
+        if (now - getLong(slab, offset + LAST_ACCESS) >= idleNanos) {
+            return -1;
+        }
+        setLong(slab, offset + LAST_ACCESS, now);
+        slab.put(offset + ACCESSED, (byte) 1);
+        return slot;
+    }
+
+    private static String scramble(ByteBuffer slab, int offset) {
+        int length = slab.get(offset + SCRAMBLE_LENGTH);
+        char[] chars = new char[length];
+        for (int pos = 0; pos < length; pos++) {
+            chars[pos] = (char) (slab.get(offset + SCRAMBLE + pos) & 0xFF);
+        }
+        return new String(chars);
+    }
+
+    private long[] bits(ByteBuffer slab, int offset) {
+        long[] bits = new long[bitWords];
+        for (int index = 0; index < bitWords; index++) {
+            bits[index] = getLong(slab, offset + BITS + index * 8);
+        }
+        return bits;
+    }
+
+    private static String id(ByteBuffer slab, int offset) {
+        return new UUID(getLong(slab, offset + ID_MSB), getLong(slab, offset + ID_LSB)).toString();
+    }
+
+    private GameGuessModel decode(int slot) {
+        ByteBuffer slab = slab(slot);
+        int offset = offset(slot);
+        Dictionary dictionary = dictionaries[slab.getChar(offset + DICTIONARY)];
+        String original = dictionary.word(slab.getInt(offset + ORDINAL));
+        int minLength = slab.get(offset + MIN_LENGTH);
+        GameState state = new GameState(original, scramble(slab, offset), minLength, dictionary,
+                dictionary.subWordOrdinals(original, minLength), bits(slab, offset));
+        GameGuessModel model = new GameGuessModel();
+        model.setId(id(slab, offset));
+        model.setCreatedAt(new Date(getLong(slab, offset + CREATED_AT)));
+        model.setModifiedAt(new Date(getLong(slab, offset + MODIFIED_AT)));
+        model.setGameState(state);
+        return model;
+    }
+
+    /*
+     * Decodes the record into `output`. Under (at least) read lock.
+     */
+    private void output(ByteBuffer slab, int offset, Dictionary dictionary, String original, int[] solutions, GameGuessOutput output) {
+        List<String> guessedWords = new ArrayList<>();
+        for (int index = 0; index < bitWords; index++) {
+            long bits = getLong(slab, offset + BITS + index * 8);
+            while (bits != 0) {
+                int pos = (index << 6) + Long.numberOfTrailingZeros(bits);
+                guessedWords.add(dictionary.word(solutions[pos]));
+                bits &= bits - 1;
+            }
+        }
+        int totalWords = slab.getShort(offset + TOTAL_WORDS);
+        output.setId(id(slab, offset));
+        output.setOriginalWord(original);
+        output.setScrambleWord(scramble(slab, offset));
+        output.setTotalWords(totalWords);
+        output.setRemainingWords(totalWords - guessedWords.size());
+        output.setGuessedWords(guessedWords);
+    }
+
+    /**
+     * Applies the guesses on the record in place, without building the
+     * model: their bits are set with one CAS per 64-bit word, and `output`
+     * is decoded from the record right after.
+     */
+    @Override
+    public GameState.Guess[] guess(String id, List<String> words, Date at, GameGuessOutput output) {
+        UUID uuid = uuid(id);
+        if (uuid == null) {
+            return null;
+        }
+        long now = clock.getAsLong();
+        lock.readLock().lock();
+        try {
+            int slot = lookup(uuid, now);
+            if (slot < 0) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            ByteBuffer slab = slab(slot);
+            int offset = offset(slot);
+            Dictionary dictionary = dictionaries[slab.getChar(offset + DICTIONARY)];
+            String original = dictionary.word(slab.getInt(offset + ORDINAL));
+            int[] solutions = dictionary.subWordOrdinals(original, slab.get(offset + MIN_LENGTH));
+            int[] positions = GameState.positions(dictionary, solutions, original, words);
+            long[] masks = GameState.masks(positions, bitWords);
+            long[] newly = new long[bitWords];
+            boolean changed = false;
+            for (int index = 0; index < bitWords; index++) {
+                if (masks[index] == 0) {
+                    continue;
+                }
+                int field = offset + BITS + index * 8;
+                long bits;
+                do {
+                    bits = (long) LONGS.getVolatile(slab, field);
+                } while ((masks[index] & ~bits) != 0 && ! LONGS.compareAndSet(slab, field, bits, bits | masks[index]));
+                newly[index] = masks[index] & ~bits;
+                changed |= newly[index] != 0;
+            }
+            if (changed) {
+                updateModifiedAt(slab, offset, time(at));
+            }
+            output(slab, offset, dictionary, original, solutions, output);
+            return GameState.outcomes(positions, newly);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void updateModifiedAt(ByteBuffer slab, int offset, long modifiedAt) {
+        long current;
+        do {
+            current = (long) LONGS.getVolatile(slab, offset + MODIFIED_AT);
+        } while (current < modifiedAt && ! LONGS.compareAndSet(slab, offset + MODIFIED_AT, current, modifiedAt));
+    }
+
+    /**
+     * @throws IllegalArgumentException  The game cannot be stored (id not
+     *         a UUID, too many sub words, word too long or not ASCII).
+     */
+    @Override
+    public void save(GameGuessModel model) {
+        put(model, clock.getAsLong());
+    }
+
+    /**
+     * @throws IllegalArgumentException  As {@link #save(GameGuessModel)}.
+     */
+    @Override
+    public boolean restore(GameGuessModel model, long idleMillis) {
+        long idle = TimeUnit.MILLISECONDS.toNanos(Math.max(0, idleMillis));
+        if (idle >= idleNanos) {
+            return false;
+        }
+        put(model, clock.getAsLong() - idle);
+        return true;
+    }
+
+    /*
+     * Saves the game as last used at `lastAccess`.
+     */
+    private void put(GameGuessModel model, long lastAccess) {
+        UUID uuid = uuid(model.getId());
+        if (uuid == null) {
+            throw new IllegalArgumentException("Expect UUID id, model=[" + model + "]");
+        }
+        GameState state = model.getGameState();
+        long[] bits = state.getGuessedBits();
+        String scramble = state.getScramble();
+        if (bits.length > bitWords || state.getTotalWords() > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many sub words, max=[" + (bitWords * 64) + "], state=[" + state + "]");
+        }
+        if (scramble.length() > MAX_LENGTH || ! isLatin1(scramble)) {
+            throw new IllegalArgumentException("Cannot store scramble=[" + scramble + "]");
+        }
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        List<String> evicted = new ArrayList<>(1);
+        int ordinal = state.getDictionary().indexOf(state.getOriginal());
+        if (ordinal < 0) {
+            throw new IllegalArgumentException("Original word not in dictionary, state=[" + state + "]");
+        }
+        lock.writeLock().lock();
+        try {
+            // pinned first, so evicting its last other record cannot drop it
+            int dictionary = pin(state.getDictionary());
+            int found = find(msb, lsb);
+            int slot;
+            if (found >= 0) {
+                slot = table[found] - 1;
+                unpin(slab(slot).getChar(offset(slot) + DICTIONARY));
+                unschedule(slot);
+            } else {
+                slot = allocate(evicted);
+                // eviction may have shifted the probe sequence
+                found = find(msb, lsb);
+                table[-1 - found] = slot + 1;
+                size++;
+            }
+            ByteBuffer slab = slab(slot);
+            int offset = offset(slot);
+            setLong(slab, offset + ID_MSB, msb);
+            setLong(slab, offset + ID_LSB, lsb);
+            setLong(slab, offset + CREATED_AT, time(model.getCreatedAt()));
+            setLong(slab, offset + MODIFIED_AT, time(model.getModifiedAt()));
+            setLong(slab, offset + LAST_ACCESS, lastAccess);
+            slab.putInt(offset + ORDINAL, ordinal);
+            slab.putChar(offset + DICTIONARY, (char) dictionary);
+            slab.put(offset + MIN_LENGTH, (byte) state.getMinLength());
+            slab.put(offset + USED, (byte) 1);
+            slab.put(offset + SCRAMBLE_LENGTH, (byte) scramble.length());
+            slab.put(offset + ACCESSED, (byte) 1);
+            slab.putShort(offset + TOTAL_WORDS, (short) state.getTotalWords());
+            for (int pos = 0; pos < scramble.length(); pos++) {
+                slab.put(offset + SCRAMBLE + pos, (byte) scramble.charAt(pos));
+            }
+            for (int index = 0; index < bitWords; index++) {
+                setLong(slab, offset + BITS + index * 8, index < bits.length ? bits[index] : 0);
+            }
+            // a restored game may be due before the next tick to visit
+            schedule(slot, Math.max(deadlineTick(lastAccess), wheelTick));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        dropped(evicted);
+    }
+
+    private void dropped(List<String> ids) {
+        Consumer<String> listener = removalListener;
+        if (listener != null) {
+            ids.forEach(listener);
+        }
+    }
+
+    private static boolean isLatin1(String text) {
+        for (int pos = 0; pos < text.length(); pos++) {
+            if (text.charAt(pos) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long time(Date date) {
+        return date == null ? 0 : date.getTime();
+    }
+
+    /*
+     * Index of the dictionary, added if new, referred to by one more
+     * record. Under write lock.
+     */
+    private int pin(Dictionary dictionary) {
+        int free = -1;
+        for (int index = 0; index < dictionaries.length; index++) {
+            if (dictionaries[index] == dictionary) {
+                pins[index]++;
+                return index;
+            }
+            if (dictionaries[index] == null && free < 0) {
+                free = index;
+            }
+        }
+        if (free < 0) {
+            if (dictionaries.length > Character.MAX_VALUE) {
+                throw new IllegalStateException("Too many dictionaries=[" + dictionaries.length + "]");
+            }
+            free = dictionaries.length;
+            dictionaries = Arrays.copyOf(dictionaries, free + 1);
+            pins = Arrays.copyOf(pins, free + 1);
+        }
+        dictionaries[free] = dictionary;
+        pins[free] = 1;
+        return free;
+    }
+
+    /*
+     * One record less refers to the dictionary, dropped with the last.
+     * Under write lock.
+     */
+    private void unpin(int index) {
+        if (--pins[index] == 0) {
+            dictionaries[index] = null;
+        }
+    }
+
+    /*
+     * Number of dictionary snapshots pinned by records (for testing).
+     */
+    int pinnedDictionaries() {
+        lock.readLock().lock();
+        try {
+            int count = 0;
+            for (Dictionary dictionary : dictionaries) {
+                if (dictionary != null) {
+                    count++;
+                }
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /*
+     * A free slot: reused, new, or evicted (its id added to `evicted`).
+     * Under write lock.
+     */
+    private int allocate(List<String> evicted) {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (allocated < capacity) {
+            int slot = allocated++;
+            if ((slot >>> SLAB_SHIFT) >= slabs.length) {
+                int records = Math.min(SLAB_RECORDS, capacity - slot);
+                ByteBuffer slab = ByteBuffer.allocateDirect(records * recordSize).order(ByteOrder.nativeOrder());
+                slabs = Arrays.copyOf(slabs, slabs.length + 1);
+                slabs[slabs.length - 1] = slab;
+            }
+            return slot;
+        }
+        // clock: a game used since the hand last passed gets a second chance
+        while (true) {
+            int slot = clockHand;
+            clockHand = (clockHand + 1) % allocated;
+            ByteBuffer slab = slab(slot);
+            int offset = offset(slot);
+            if (slab.get(offset + USED) == 0) {
+                continue;
+            }
+            if (slab.get(offset + ACCESSED) != 0) {
+                slab.put(offset + ACCESSED, (byte) 0);
+                continue;
+            }
+            evicted.add(id(slab, offset));
+            free(slot);
+            evictions.increment();
+            return freeSlots[--freeCount];
+        }
+    }
+
+    /*
+     * Unindexes and frees the slot. Under write lock.
+     */
+    private void free(int slot) {
+        ByteBuffer slab = slab(slot);
+        int offset = offset(slot);
+        unindex(find(getLong(slab, offset + ID_MSB), getLong(slab, offset + ID_LSB)));
+        unpin(slab.getChar(offset + DICTIONARY));
+        unschedule(slot);
+        slab.put(offset + USED, (byte) 0);
+        freeSlots[freeCount++] = slot;
+        size--;
+    }
+
+    @Override
+    public GameGuessModel remove(String id) {
+        UUID uuid = uuid(id);
+        if (uuid == null) {
+            return null;
+        }
+        lock.writeLock().lock();
+        try {
+            int pos = find(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+            if (pos < 0) {
+                return null;
+            }
+            int slot = table[pos] - 1;
+            GameGuessModel model = decode(slot);
+            free(slot);
+            return model;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /*
+     * Links the record first in the bucket of `deadlineTick`. Under write lock.
+     */
+    private void schedule(int slot, long deadlineTick) {
+        int bucket = (int) (deadlineTick & (WHEEL_SIZE - 1));
+        ByteBuffer slab = slab(slot);
+        int offset = offset(slot);
+        int head = wheel[bucket];
+        slab.putInt(offset + WHEEL_NEXT, head);
+        slab.putInt(offset + WHEEL_PREV, 0);
+        slab.putInt(offset + WHEEL_BUCKET, bucket);
+        if (head != 0) {
+            slab(head - 1).putInt(offset(head - 1) + WHEEL_PREV, slot + 1);
+        }
+        wheel[bucket] = slot + 1;
+    }
+
+    /*
+     * Unlinks the record from its bucket. Under write lock.
+     */
+    private void unschedule(int slot) {
+        ByteBuffer slab = slab(slot);
+        int offset = offset(slot);
+        int next = slab.getInt(offset + WHEEL_NEXT);
+        int prev = slab.getInt(offset + WHEEL_PREV);
+        if (prev != 0) {
+            slab(prev - 1).putInt(offset(prev - 1) + WHEEL_NEXT, next);
+        } else {
+            wheel[slab.getInt(offset + WHEEL_BUCKET)] = next;
+        }
+        if (next != 0) {
+            slab(next - 1).putInt(offset(next - 1) + WHEEL_PREV, prev);
+        }
+        slab.putInt(offset + WHEEL_NEXT, 0);
+        slab.putInt(offset + WHEEL_PREV, 0);
+    }
+
+    /*
+     * First tick at or after the idle deadline of a game used at `lastAccess`.
+     */
+    private long deadlineTick(long lastAccess) {
+        return (lastAccess + idleNanos) / tickNanos + 1;
+    }
+
+    /**
+     * Advances the timing wheel up to now, expiring the games that came due.
+     */
+    void expire() {
+        try {
+            long now = clock.getAsLong();
+            long tick = now / tickNanos;
+            List<String> expired = new ArrayList<>();
+            while (true) {
+                // a bucket at a time, so requests wait for one bucket at most
+                lock.writeLock().lock();
+                try {
+                    if (wheelTick > tick) {
+                        break;
+                    }
+                    // after a long pause, one revolution visits every bucket
+                    wheelTick = Math.max(wheelTick, tick - WHEEL_SIZE + 1);
+                    advance(wheelTick, tick, now, expired);
+                    wheelTick++;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            if (! expired.isEmpty()) {
+                expirations.add(expired.size());
+                LOG.debug("Expired {} idle games, {}", expired.size(), stats());
+                dropped(expired);
+            }
+        } catch (RuntimeException e) {
+            LOG.error("Cannot expire idle games", e);
+        }
+    }
+
+    /*
+     * Frees the idle games of the bucket of tick `current`, and moves the
+     * ones used since to the bucket of their new deadline. Under write lock.
+     */
+    private void advance(long current, long tick, long now, List<String> expired) {
+        int entry = wheel[(int) (current & (WHEEL_SIZE - 1))];
+        while (entry != 0) {
+            int slot = entry - 1;
+            ByteBuffer slab = slab(slot);
+            int offset = offset(slot);
+            entry = slab.getInt(offset + WHEEL_NEXT);
+            long lastAccess = getLong(slab, offset + LAST_ACCESS);
+            if (now - lastAccess >= idleNanos) {
+                expired.add(id(slab, offset));
+                free(slot);
+            } else {
+                unschedule(slot);
+                schedule(slot, Math.max(deadlineTick(lastAccess), tick + 1));
+            }
+        }
+    }
+
+    @Override
+    public void forEach(Consumer<GameGuessModel> action) {
+        int slabCount;
+        lock.readLock().lock();
+        try {
+            slabCount = slabs.length;
+        } finally {
+            lock.readLock().unlock();
+        }
+        for (int index = 0; index < slabCount; index++) {
+            // decoded under lock, a slab at a time, visited outside it
+            List<GameGuessModel> models = new ArrayList<>();
+            lock.readLock().lock();
+            try {
+                int from = index << SLAB_SHIFT;
+                int to = Math.min(allocated, from + SLAB_RECORDS);
+                for (int slot = from; slot < to; slot++) {
+                    if (slab(slot).get(offset(slot) + USED) != 0) {
+                        models.add(decode(slot));
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            models.forEach(action);
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return  Bytes of direct memory held by the slabs.
+     */
+    public long offHeapBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (ByteBuffer slab : slabs) {
+                bytes += slab.capacity();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public GameRepositoryStats stats() {
+        return new GameRepositoryStats(size(), capacity,
+                hits.sum(), misses.sum(), evictions.sum(), expirations.sum());
+    }
+
+    @Override
+    public void setRemovalListener(Consumer<String> listener) {
+        this.removalListener = listener;
+    }
+
+    @Override
+    public void close() {
+        if (expirer != null) {
+            expirer.shutdownNow();
+        }
+        LOG.info("Closed off-heap game repository, {}, offHeapBytes=[{}]", stats(), offHeapBytes());
+    }
+
+    @Override
+    public String toString() {
+        return stats().toString();
+    }
+
+}
@@ -5,6 +5,7 @@ public final class Constant {
     private Constant() {
     }
     public static final String FILE_PATH = "/words.txt";
+    public static final String COMPILED_FILE_PATH = "/words.dict";
     public static final String BLANK_ERROR_MSG = "must not be blank";
 
 
@@ -0,0 +1,29 @@
+package asia.fourtitude.interviewq.jumble.util;
+
+/**
+ * Creates the threads of the engine's background work: game
+ * pre-generation, bulk game creation, bulkheads, dictionary loading.
+ *
+ * Platform threads by default. Built with the "virtual-threads" profile
+ * (Java 21+), the application provides virtual threads instead.
+ */
+@FunctionalInterface
+public interface WorkerThreads {
+
+    /**
+     * Daemon platform threads.
+     */
+    WorkerThreads PLATFORM = (name, task) -> {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    };
+
+    /**
+     * @param name  The thread name.
+     * @param task  Run by the thread.
+     * @return  A new daemon thread, not started.
+     */
+    Thread newThread(String name, Runnable task);
+
+}
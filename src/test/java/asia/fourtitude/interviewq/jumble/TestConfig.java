@@ -1,9 +1,18 @@
 package asia.fourtitude.interviewq.jumble;
 
+import java.time.Duration;
+
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 
+import asia.fourtitude.interviewq.jumble.cluster.GameCluster;
+import asia.fourtitude.interviewq.jumble.core.BulkGameCreator;
+import asia.fourtitude.interviewq.jumble.core.Bulkhead;
+import asia.fourtitude.interviewq.jumble.core.Bulkheads;
+import asia.fourtitude.interviewq.jumble.core.GameStatePool;
 import asia.fourtitude.interviewq.jumble.core.JumbleEngine;
+import asia.fourtitude.interviewq.jumble.repository.GameRepository;
+import asia.fourtitude.interviewq.jumble.repository.InMemoryGameRepository;
 
 @TestConfiguration
 public class TestConfig {
@@ -13,4 +22,31 @@ public class TestConfig {
         return new JumbleEngine();
     }
 
+    @Bean(destroyMethod = "close")
+    public GameStatePool gameStatePool(JumbleEngine jumbleEngine) {
+        return new GameStatePool(jumbleEngine, 2, 8);
+    }
+
+    @Bean(destroyMethod = "close")
+    public BulkGameCreator bulkGameCreator(JumbleEngine jumbleEngine) {
+        return new BulkGameCreator(jumbleEngine, 2);
+    }
+
+    @Bean(destroyMethod = "close")
+    public Bulkheads bulkheads() {
+        return new Bulkheads(
+                new Bulkhead("lookup", 2, 16, Duration.ofSeconds(5)),
+                new Bulkhead("generation", 2, 16, Duration.ofSeconds(10)));
+    }
+
+    @Bean(destroyMethod = "close")
+    public GameRepository gameRepository() {
+        return new InMemoryGameRepository(1000, Duration.ofMinutes(30));
+    }
+
+    @Bean
+    public GameCluster gameCluster() {
+        return GameCluster.standalone();
+    }
+
 }
@@ -0,0 +1,323 @@
+package asia.fourtitude.interviewq.jumble.cluster;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.RestTemplate;
+
+import asia.fourtitude.interviewq.jumble.JumbleApplication;
+import asia.fourtitude.interviewq.jumble.core.JumbleEngine;
+import asia.fourtitude.interviewq.jumble.model.ClusterStatus;
+import asia.fourtitude.interviewq.jumble.model.GameGuessInput;
+import asia.fourtitude.interviewq.jumble.model.GameGuessOutput;
+import asia.fourtitude.interviewq.jumble.model.GameGuessResult;
+
+/**
+ * Several instances of the application, on different ports of this machine.
+ */
+class GameClusterTest {
+
+    static final JumbleEngine ENGINE = new JumbleEngine();
+
+    static final String SECRET = "test-secret";
+
+    final List<ConfigurableApplicationContext> instances = new ArrayList<>();
+
+    final RestTemplate rest = new RestTemplate();
+
+    GameClusterTest() {
+        this.rest.setErrorHandler(new DefaultResponseErrorHandler() {
+
+            @Override
+            public boolean hasError(ClientHttpResponse response) {
+                return false;
+            }
+
+        });
+    }
+
+    @AfterEach
+    void stopInstances() {
+        for (ConfigurableApplicationContext instance : instances) {
+            instance.close();
+        }
+    }
+
+    static String freeNode() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return "http://localhost:" + socket.getLocalPort();
+        }
+    }
+
+    void start(String self, String... nodes) {
+        instances.add(new SpringApplicationBuilder(JumbleApplication.class)
+                .initializers(context -> context.getBeanFactory().registerSingleton("excludeTestConfiguration", new ExcludeTestConfiguration()))
+                .run(
+                        "--server.port=" + self.substring(self.lastIndexOf(':') + 1),
+                        "--jumble.cluster.self=" + self,
+                        "--jumble.cluster.nodes=" + String.join(",", nodes),
+                        "--jumble.cluster.secret=" + SECRET,
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.asia.fourtitude.interviewq.jumble=INFO"));
+    }
+
+    GameGuessOutput newGame(String node) {
+        return rest.getForObject(node + "/api/game/new", GameGuessOutput.class);
+    }
+
+    GameGuessOutput guess(String node, String id, String word) {
+        GameGuessInput input = new GameGuessInput();
+        input.setId(id);
+        input.setWord(word);
+        return rest.postForObject(node + "/api/game/guess", input, GameGuessOutput.class);
+    }
+
+    ResponseEntity<ClusterStatus> putNodes(String node, String secret, boolean leave, String... nodes) {
+        HttpHeaders headers = new HttpHeaders();
+        if (secret != null) {
+            headers.set(GameCluster.SECRET_HEADER, secret);
+        }
+        return rest.exchange(node + "/api/cluster/nodes" + (leave ? "?leave=true" : ""), HttpMethod.PUT,
+                new HttpEntity<>(Arrays.asList(nodes), headers), ClusterStatus.class);
+    }
+
+    ClusterStatus putNodes(String node, String... nodes) {
+        ResponseEntity<ClusterStatus> response = putNodes(node, SECRET, false, nodes);
+        assertTrue(response.getStatusCode().is2xxSuccessful());
+        return response.getBody();
+    }
+
+    int games(String node) {
+        return rest.getForObject(node + "/api/cluster/nodes", ClusterStatus.class).getGames();
+    }
+
+    static String subWord(GameGuessOutput game) throws Exception {
+        for (String word : ENGINE.generateSubWords(game.getOriginalWord(), 3)) {
+            if (! word.equals(game.getOriginalWord())) {
+                return word;
+            }
+        }
+        throw new AssertionError("No sub word, game=[" + game + "]");
+    }
+
+    /*
+     * Result of the first correct guess: a game may have one sub word only.
+     */
+    static String firstCorrect(GameGuessOutput game) {
+        return game.getTotalWords() == 1 ? "All words guessed." : "Guessed correctly.";
+    }
+
+    @Test
+    void givenTwoInstances_whenPlayOnEither_thenForwardedToOwner() throws Exception {
+        String a = freeNode();
+        String b = freeNode();
+        start(a, a, b);
+        start(b, a, b);
+        GameCluster ring = new GameCluster(a, Arrays.asList(a, b), Duration.ofSeconds(1));
+
+        GameGuessOutput gameA = newGame(a);
+        GameGuessOutput gameB = newGame(b);
+        assertEquals(a, ring.owner(gameA.getId()));
+        assertEquals(b, ring.owner(gameB.getId()));
+
+        // through the other instance
+        String wordB = subWord(gameB);
+        GameGuessOutput output = guess(a, gameB.getId(), wordB);
+        assertEquals(firstCorrect(gameB), output.getResult());
+        assertEquals(Arrays.asList(wordB), output.getGuessedWords());
+        assertEquals(Arrays.asList(wordB), guess(b, gameB.getId(), "zzzzzz").getGuessedWords());
+
+        // batch spanning both instances
+        String wordA = subWord(gameA);
+        GameGuessInput inputA = new GameGuessInput();
+        inputA.setId(gameA.getId());
+        inputA.setWord(wordA);
+        GameGuessInput inputB = new GameGuessInput();
+        inputB.setId(gameB.getId());
+        inputB.setWord("zzzzzz");
+        List<GameGuessResult> results = rest.exchange(b + "/api/game/guess/batch", HttpMethod.POST,
+                new HttpEntity<>(Arrays.asList(inputA, inputB)),
+                new ParameterizedTypeReference<List<GameGuessResult>>() {}).getBody();
+        assertEquals(firstCorrect(gameA), results.get(0).getResult());
+        assertEquals(gameA.getId(), results.get(0).getId());
+        assertEquals("Guessed incorrectly.", results.get(1).getResult());
+        assertEquals(Arrays.asList(wordA), guess(a, gameA.getId(), "zzzzzz").getGuessedWords());
+        assertEquals(1, games(a));
+        assertEquals(1, games(b));
+    }
+
+    @Test
+    void givenWrongSecret_whenChangeCluster_thenForbidden() throws Exception {
+        String a = freeNode();
+        String b = freeNode();
+        start(a, a, b);
+
+        assertEquals(HttpStatus.FORBIDDEN, putNodes(a, null, false, a).getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, putNodes(a, "wrong", true, b).getStatusCode());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        ResponseEntity<String> response = rest.exchange(a + GameCluster.GAMES_PATH, HttpMethod.POST,
+                new HttpEntity<>(GameCluster.encode(new ArrayList<>()), headers), String.class);
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        assertEquals(Arrays.asList(a, b), rest.getForObject(a + "/api/cluster/nodes", ClusterStatus.class).getNodes());
+    }
+
+    @Test
+    void givenGames_whenAddAndRemoveInstance_thenGamesRebalanced() throws Exception {
+        String a = freeNode();
+        String b = freeNode();
+        String c = freeNode();
+        start(a, a, b);
+        start(b, a, b);
+
+        List<GameGuessOutput> games = new ArrayList<>();
+        List<String> words = new ArrayList<>();
+        for (int count = 0; count < 40; count++) {
+            GameGuessOutput game = newGame(count % 2 == 0 ? a : b);
+            String word = subWord(game);
+            assertEquals(firstCorrect(game), guess(a, game.getId(), word).getResult());
+            games.add(game);
+            words.add(word);
+        }
+
+        // add: new instance first, then the others hand off to it
+        start(c, a, b, c);
+        assertEquals(0, putNodes(c, a, b, c).getMoved());
+        int moved = putNodes(a, a, b, c).getMoved() + putNodes(b, a, b, c).getMoved();
+        assertTrue(moved > 0);
+        assertEquals(moved, games(c));
+        assertEquals(40, games(a) + games(b) + games(c));
+        for (int pos = 0; pos < games.size(); pos++) {
+            GameGuessOutput output = guess(c, games.get(pos).getId(), "zzzzzz");
+            assertEquals(Arrays.asList(words.get(pos)), output.getGuessedWords(), output.toString());
+        }
+
+        // remove: the others first, then the leaving instance hands off everything
+        putNodes(a, a, b);
+        putNodes(b, a, b);
+        assertEquals(HttpStatus.BAD_REQUEST, putNodes(c, SECRET, false, a, b).getStatusCode());
+        assertEquals(moved, games(c));
+        assertEquals(moved, putNodes(c, SECRET, true, a, b).getBody().getMoved());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rest.getForEntity(c + "/api/game/new", GameGuessOutput.class).getStatusCode());
+        assertEquals(0, games(c));
+        assertEquals(40, games(a) + games(b));
+        for (int pos = 0; pos < games.size(); pos++) {
+            GameGuessOutput output = guess(b, games.get(pos).getId(), "zzzzzz");
+            assertEquals(Arrays.asList(words.get(pos)), output.getGuessedWords(), output.toString());
+        }
+    }
+
+    @Test
+    void givenGuessesDuringRebalance_whenAddInstance_thenNoGuessLostOrNotFound() throws Exception {
+        String a = freeNode();
+        String b = freeNode();
+        String c = freeNode();
+        start(a, a, b);
+        start(b, a, b);
+
+        List<GameGuessOutput> games = new ArrayList<>();
+        List<List<String>> answers = new ArrayList<>();
+        for (int count = 0; count < 400; count++) {
+            GameGuessOutput game = newGame(a);
+            List<String> words = new ArrayList<>(ENGINE.generateSubWords(game.getOriginalWord(), 3));
+            words.remove(game.getOriginalWord());
+            games.add(game);
+            answers.add(words);
+        }
+        start(c, a, b, c);
+        putNodes(c, a, b, c);
+
+        // every answer guessed through the old owner, while it hands off
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            CountDownLatch started = new CountDownLatch(4);
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                int first = thread;
+                futures.add(executor.submit(() -> {
+                    started.countDown();
+                    List<String> failures = new ArrayList<>();
+                    for (int round = 0; round < 5; round++) {
+                        for (int pos = first; pos < games.size(); pos += 4) {
+                            List<String> words = answers.get(pos);
+                            if (round < words.size()) {
+                                GameGuessOutput output = guess(a, games.get(pos).getId(), words.get(round));
+                                if (! output.getResult().startsWith("Guessed correctly") && ! output.getResult().startsWith("All words")) {
+                                    failures.add(output.toString());
+                                }
+                            }
+                        }
+                    }
+                    return failures;
+                }));
+            }
+            started.await();
+            assertTrue(putNodes(a, a, b, c).getMoved() > 0);
+            for (Future<List<String>> future : futures) {
+                assertEquals(Collections.emptyList(), future.get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(400, games(a) + games(c));
+        for (int pos = 0; pos < games.size(); pos++) {
+            List<String> expected = answers.get(pos).subList(0, Math.min(5, answers.get(pos).size()));
+            GameGuessOutput output = guess(c, games.get(pos).getId(), "zzzzzz");
+            assertEquals(new HashSet<>(expected), new HashSet<>(output.getGuessedWords()), output.toString());
+        }
+    }
+
+    /*
+     * Test configurations are for the sliced tests, not for these instances.
+     */
+    static final class ExcludeTestConfiguration extends TypeExcludeFilter {
+
+        @Override
+        public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) {
+            return metadataReader.getAnnotationMetadata().hasAnnotation(TestConfiguration.class.getName());
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj != null && obj.getClass() == getClass();
+        }
+
+        @Override
+        public int hashCode() {
+            return getClass().hashCode();
+        }
+
+    }
+
+}
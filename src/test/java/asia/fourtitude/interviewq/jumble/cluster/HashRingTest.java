@@ -0,0 +1,59 @@
+package asia.fourtitude.interviewq.jumble.cluster;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class HashRingTest {
+
+    static final String A = "http://localhost:8081";
+
+    static final String B = "http://localhost:8082";
+
+    static final String C = "http://localhost:8083";
+
+    static final String D = "http://localhost:8084";
+
+    @Test
+    void givenNodes_whenOwner_thenSpreadAndOrderIndependent() {
+        HashRing ring = new HashRing(Arrays.asList(A, B, C, A));
+        HashRing reversed = new HashRing(Arrays.asList(C, B, A));
+        assertEquals(Arrays.asList(A, B, C), ring.getNodes());
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int count = 0; count < 30000; count++) {
+            String id = UUID.randomUUID().toString();
+            String owner = ring.owner(id);
+            assertEquals(owner, reversed.owner(id));
+            counts.merge(owner, 1, Integer::sum);
+        }
+        assertEquals(3, counts.size());
+        for (int count : counts.values()) {
+            // 10000 each, give or take the unevenness of 128 points per node
+            assertTrue(count > 7000 && count < 13000, "count=[" + count + "]");
+        }
+    }
+
+    @Test
+    void givenAddedNode_whenOwner_thenOnlyKeysOfNewNodeMove() {
+        HashRing before = new HashRing(Arrays.asList(A, B, C));
+        HashRing after = new HashRing(Arrays.asList(A, B, C, D));
+        int moved = 0;
+        for (int count = 0; count < 20000; count++) {
+            String id = UUID.randomUUID().toString();
+            String owner = after.owner(id);
+            if (! owner.equals(before.owner(id))) {
+                assertEquals(D, owner);
+                moved++;
+            }
+        }
+        // about a quarter
+        assertTrue(moved > 3000 && moved < 7000, "moved=[" + moved + "]");
+    }
+
+}
@@ -1,17 +1,30 @@
 package asia.fourtitude.interviewq.jumble.controller;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import asia.fourtitude.interviewq.jumble.TestConfig;
 import asia.fourtitude.interviewq.jumble.core.JumbleEngine;
+import asia.fourtitude.interviewq.jumble.model.GameGuessInput;
+import asia.fourtitude.interviewq.jumble.model.GameGuessOutput;
+import asia.fourtitude.interviewq.jumble.model.GameGuessResult;
+import asia.fourtitude.interviewq.jumble.repository.GameRepository;
 
 @WebMvcTest(GameApiController.class)
 @Import(TestConfig.class)
@@ -25,6 +38,55 @@ class GameApiControllerTest {
     @Autowired
     JumbleEngine jumbleEngine;
 
+    @Autowired
+    GameRepository gameRepository;
+
+    private GameGuessOutput newGame() throws Exception {
+        String json = this.mvc.perform(get("/api/game/new"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return OM.readValue(json, GameGuessOutput.class);
+    }
+
+    private GameGuessOutput playGame(String id, String word, int expectedStatus) throws Exception {
+        GameGuessInput input = new GameGuessInput();
+        input.setId(id);
+        input.setWord(word);
+        String json = this.mvc.perform(post("/api/game/guess")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(OM.writeValueAsString(input)))
+                .andExpect(status().is(expectedStatus))
+                .andReturn().getResponse().getContentAsString();
+        return OM.readValue(json, GameGuessOutput.class);
+    }
+
+    private static GameGuessInput input(String id, String word) {
+        GameGuessInput input = new GameGuessInput();
+        input.setId(id);
+        input.setWord(word);
+        return input;
+    }
+
+    private List<GameGuessResult> playGames(List<GameGuessInput> inputs, int expectedStatus) throws Exception {
+        String json = this.mvc.perform(post("/api/game/guess/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(OM.writeValueAsString(inputs)))
+                .andExpect(status().is(expectedStatus))
+                .andReturn().getResponse().getContentAsString();
+        return OM.readValue(json, new TypeReference<List<GameGuessResult>>() {});
+    }
+
+    private List<String> answers(String id) {
+        return new ArrayList<>(this.gameRepository.findById(id).getGameState().getSubWords().keySet());
+    }
+
+    private static void assertSameGame(GameGuessOutput game, GameGuessOutput output) {
+        assertEquals(game.getId(), output.getId());
+        assertEquals(game.getOriginalWord(), output.getOriginalWord());
+        assertNotNull(output.getScrambleWord());
+        assertEquals(game.getTotalWords(), output.getTotalWords());
+    }
+
     /*
      * NOTE: Refer to "RootControllerTest.java", "GameWebControllerTest.java"
      * as reference. Search internet for resource/tutorial/help in implementing
@@ -54,7 +116,14 @@ class GameApiControllerTest {
          * g) `remainingWords` > 0 and same as `totalWords`
          * h) `guessedWords` is empty list
          */
-        assertTrue(false, "to be implemented");
+        GameGuessOutput output = newGame();
+        assertEquals("Created new game.", output.getResult());
+        assertNotNull(output.getId());
+        assertNotNull(output.getOriginalWord());
+        assertNotNull(output.getScrambleWord());
+        assertTrue(output.getTotalWords() > 0);
+        assertEquals(output.getTotalWords(), output.getRemainingWords());
+        assertTrue(output.getGuessedWords().isEmpty());
     }
 
     @Test
@@ -70,7 +139,11 @@ class GameApiControllerTest {
          * a) HTTP status == 404
          * b) `result` equals "Invalid Game ID."
          */
-        assertTrue(false, "to be implemented");
+        GameGuessOutput output = playGame(null, "anything", 404);
+        assertEquals("Invalid Game ID.", output.getResult());
+
+        output = playGame("not-a-game-id", null, 404);
+        assertEquals("Invalid Game ID.", output.getResult());
     }
 
     @Test
@@ -86,7 +159,8 @@ class GameApiControllerTest {
          * a) HTTP status == 404
          * b) `result` equals "Game board/state not found."
          */
-        assertTrue(false, "to be implemented");
+        GameGuessOutput output = playGame("4579256c-326f-4169-9b56-6d1d1a2c11f0", "anything", 404);
+        assertEquals("Game board/state not found.", output.getResult());
     }
 
     @Test
@@ -112,7 +186,13 @@ class GameApiControllerTest {
          * h) `remainingWords` is equals to `remainingWords` of previous game state (no change)
          * i) `guessedWords` is empty list (because this is first attempt)
          */
-        assertTrue(false, "to be implemented");
+        GameGuessOutput game = newGame();
+        GameGuessOutput output = playGame(game.getId(), null, 200);
+        assertEquals("Guessed incorrectly.", output.getResult());
+        assertSameGame(game, output);
+        assertNull(output.getGuessWord());
+        assertEquals(game.getRemainingWords(), output.getRemainingWords());
+        assertTrue(output.getGuessedWords().isEmpty());
     }
 
     @Test
@@ -138,7 +218,13 @@ class GameApiControllerTest {
          * h) `remainingWords` is equals to `remainingWords` of previous game state (no change)
          * i) `guessedWords` is empty list (because this is first attempt)
          */
-        assertTrue(false, "to be implemented");
+        GameGuessOutput game = newGame();
+        GameGuessOutput output = playGame(game.getId(), "zzzzzz", 200);
+        assertEquals("Guessed incorrectly.", output.getResult());
+        assertSameGame(game, output);
+        assertEquals("zzzzzz", output.getGuessWord());
+        assertEquals(game.getRemainingWords(), output.getRemainingWords());
+        assertTrue(output.getGuessedWords().isEmpty());
     }
 
     @Test
@@ -165,7 +251,19 @@ class GameApiControllerTest {
          * i) `guessedWords` is not empty list
          * j) `guessWords` contains input `guessWord`
          */
-        assertTrue(false, "to be implemented");
+        GameGuessOutput game = newGame();
+        String word = answers(game.getId()).get(0);
+        GameGuessOutput output = playGame(game.getId(), word, 200);
+        assertSameGame(game, output);
+        assertEquals(word, output.getGuessWord());
+        if (game.getTotalWords() == 1) {
+            assertEquals("All words guessed.", output.getResult());
+        } else {
+            assertEquals("Guessed correctly.", output.getResult());
+        }
+        assertEquals(game.getRemainingWords() - 1, output.getRemainingWords());
+        assertFalse(output.getGuessedWords().isEmpty());
+        assertTrue(output.getGuessedWords().contains(word));
     }
 
     @Test
@@ -193,7 +291,114 @@ class GameApiControllerTest {
          * i) `guessedWords` is not empty list
          * j) `guessWords` contains input `guessWord`
          */
-        assertTrue(false, "to be implemented");
+        GameGuessOutput game = newGame();
+        List<String> answers = answers(game.getId());
+        for (String word : answers.subList(0, answers.size() - 1)) {
+            assertEquals("Guessed correctly.", playGame(game.getId(), word, 200).getResult());
+        }
+        String word = answers.get(answers.size() - 1);
+        GameGuessOutput output = playGame(game.getId(), word, 200);
+        assertEquals("All words guessed.", output.getResult());
+        assertSameGame(game, output);
+        assertEquals(word, output.getGuessWord());
+        assertEquals(0, output.getRemainingWords());
+        assertFalse(output.getGuessedWords().isEmpty());
+        assertTrue(output.getGuessedWords().contains(word));
+    }
+
+    @Test
+    void givenCreateNewGames_whenPlayGamesInBatch_thenResultPerGuess() throws Exception {
+        GameGuessOutput game1 = newGame();
+        GameGuessOutput game2 = newGame();
+        List<String> answers1 = answers(game1.getId());
+        List<String> answers2 = answers(game2.getId());
+        String missing = "4579256c-326f-4169-9b56-6d1d1a2c11f0";
+
+        List<GameGuessResult> results = playGames(Arrays.asList(
+                input(game1.getId(), answers1.get(0)),
+                input(game2.getId(), answers2.get(0)),
+                input(game1.getId(), "zzzzzz"),
+                input("not-an-id", "answer"),
+                input(game1.getId(), answers1.get(0).toUpperCase()),
+                input(missing, "answer")), 200);
+
+        assertEquals(6, results.size());
+        assertEquals("Guessed correctly.", results.get(0).getResult());
+        assertEquals(game1.getId(), results.get(0).getId());
+        assertEquals(answers1.get(0), results.get(0).getGuessWord());
+        assertEquals(game1.getTotalWords() - 1, results.get(0).getRemainingWords());
+        assertEquals("Guessed correctly.", results.get(1).getResult());
+        assertEquals(game2.getTotalWords() - 1, results.get(1).getRemainingWords());
+        assertEquals("Guessed incorrectly.", results.get(2).getResult());
+        assertEquals(game1.getTotalWords() - 1, results.get(2).getRemainingWords());
+        assertEquals("Invalid Game ID.", results.get(3).getResult());
+        assertNull(results.get(3).getRemainingWords());
+        // already guessed, not counted twice
+        assertEquals("Guessed correctly.", results.get(4).getResult());
+        assertEquals(game1.getTotalWords() - 1, results.get(4).getRemainingWords());
+        assertEquals("Game board/state not found.", results.get(5).getResult());
+        assertEquals(missing, results.get(5).getId());
+
+        // applied to the stored games
+        GameGuessOutput output = playGame(game1.getId(), "zzzzzz", 200);
+        assertEquals(Arrays.asList(answers1.get(0)), output.getGuessedWords());
+    }
+
+    @Test
+    void givenCreateNewGame_whenPlayAllWordsInBatch_thenAllGuessed() throws Exception {
+        GameGuessOutput game = newGame();
+        List<GameGuessInput> inputs = new ArrayList<>();
+        for (String word : answers(game.getId())) {
+            inputs.add(input(game.getId(), word));
+        }
+        List<GameGuessResult> results = playGames(inputs, 200);
+        assertEquals(inputs.size(), results.size());
+        GameGuessResult last = results.get(results.size() - 1);
+        assertEquals("All words guessed.", last.getResult());
+        assertEquals(0, last.getRemainingWords());
+
+        List<GameGuessResult> invalid = playGames(new ArrayList<>(), 400);
+        assertEquals(1, invalid.size());
+        assertTrue(invalid.get(0).getResult().startsWith("Invalid batch size"));
+    }
+
+    @Test
+    void whenCreateNewGamesInBulk_thenStreamedOnePerLine() throws Exception {
+        MvcResult result = this.mvc.perform(get("/api/game/new/bulk").param("count", "25"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String ndjson = this.mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = ndjson.split("\n");
+        assertEquals(25, lines.length);
+        for (String line : lines) {
+            GameGuessOutput output = OM.readValue(line, GameGuessOutput.class);
+            assertEquals("Created new game.", output.getResult());
+            assertEquals(output.getTotalWords(), output.getRemainingWords());
+            assertTrue(output.getGuessedWords().isEmpty());
+            // registered, playable
+            assertEquals("Guessed incorrectly.", playGame(output.getId(), "zzzzzz", 200).getResult());
+        }
+
+        this.mvc.perform(get("/api/game/new/bulk").param("count", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenCreateNewGameAsync_thenRegistered() throws Exception {
+        MvcResult result = this.mvc.perform(get("/api/game/new/async"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String json = this.mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        GameGuessOutput output = OM.readValue(json, GameGuessOutput.class);
+        assertEquals("Created new game.", output.getResult());
+        assertNotNull(this.gameRepository.findById(output.getId()));
     }
 
 }
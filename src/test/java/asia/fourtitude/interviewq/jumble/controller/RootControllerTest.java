@@ -73,6 +73,20 @@ class RootControllerTest {
                 .andExpect(content().string(containsString("<p>The number of palindrome words: <span>61</span></p>")));
     }
 
+    @Test
+    void givenETag_whenVisitPalindrome_thenNotModified() throws Exception {
+        String etag = this.mockMvc.perform(get("/palindrome"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", containsString("no-cache")))
+                .andReturn().getResponse().getHeader("ETag");
+        this.mockMvc.perform(get("/palindrome").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+        this.mockMvc.perform(get("/palindrome").header("If-None-Match", "\"other\""))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void givenExistWord_whenExecExists_thenExist() throws Exception {
         String word = "qwerty";
@@ -0,0 +1,53 @@
+package asia.fourtitude.interviewq.jumble.controller;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import asia.fourtitude.interviewq.jumble.TestConfig;
+import asia.fourtitude.interviewq.jumble.core.JumbleEngine;
+import asia.fourtitude.interviewq.jumble.dictionary.Dictionary;
+
+@WebMvcTest(StatusApiController.class)
+@Import(TestConfig.class)
+class StatusApiControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    JumbleEngine jumbleEngine;
+
+    @Test
+    void whenGetStatus_thenSubWordCacheHitAndMissRates() throws Exception {
+        Dictionary bundled = this.jumbleEngine.getDictionary();
+        Dictionary dictionary = Dictionary.of(Arrays.asList("listen", "silent", "tin", "ten"));
+        this.jumbleEngine.replaceDictionary(dictionary);
+        try {
+            dictionary.subWordOrdinals("listen", 3);
+            dictionary.subWordOrdinals("silent", 3);
+
+            this.mvc.perform(get("/api/status"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.dictionarySize").value(4))
+                    .andExpect(jsonPath("$.dictionaryVersion").value(dictionary.version()))
+                    .andExpect(jsonPath("$.games.size").value(greaterThanOrEqualTo(0)))
+                    .andExpect(jsonPath("$.subWordCache.entries").value(1))
+                    .andExpect(jsonPath("$.subWordCache.hits").value(1))
+                    .andExpect(jsonPath("$.subWordCache.misses").value(1))
+                    .andExpect(jsonPath("$.subWordCache.hitRate").value(0.5))
+                    .andExpect(jsonPath("$.subWordCache.missRate").value(0.5));
+        } finally {
+            this.jumbleEngine.replaceDictionary(bundled);
+        }
+    }
+
+}
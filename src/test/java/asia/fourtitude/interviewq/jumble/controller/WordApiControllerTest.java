@@ -0,0 +1,154 @@
+package asia.fourtitude.interviewq.jumble.controller;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import asia.fourtitude.interviewq.jumble.TestConfig;
+import asia.fourtitude.interviewq.jumble.core.JumbleEngine;
+import asia.fourtitude.interviewq.jumble.dictionary.Dictionary;
+
+@WebMvcTest(WordApiController.class)
+@Import(TestConfig.class)
+class WordApiControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    JumbleEngine jumbleEngine;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    private Dictionary bundled;
+
+    @AfterEach
+    void restoreDictionary() {
+        if (bundled != null) {
+            this.jumbleEngine.replaceDictionary(bundled);
+        }
+    }
+
+    @Test
+    void whenAutoComplete_thenStrongETagAndCacheControl() throws Exception {
+        String etag = "\"" + this.jumbleEngine.getDictionary().version() + "\"";
+        this.mvc.perform(get("/api/word/awe"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(header().string("Cache-Control", containsString("no-cache")))
+                .andExpect(jsonPath("$", hasItem("awesome")));
+
+        this.mvc.perform(get("/api/word/awe").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void givenReplacedDictionary_whenAutoComplete_thenNewETag() throws Exception {
+        String etag = this.mvc.perform(get("/api/word/awe"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        bundled = this.jumbleEngine.getDictionary();
+        this.jumbleEngine.replaceDictionary(Dictionary.of(Arrays.asList("awe", "awed")));
+        String replaced = this.mvc.perform(get("/api/word/awe").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[\"awe\", \"awed\"]"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, replaced);
+    }
+
+    @Test
+    void givenLimit_whenAutoComplete_thenBestWordsWithWeightsInETag() throws Exception {
+        String etag = "\"" + this.jumbleEngine.getDictionary().version() + "-" + this.jumbleEngine.getWordWeights().version() + "\"";
+        this.mvc.perform(get("/api/word/awe").param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().json("[\"awe\", \"awed\", \"awes\"]", true));
+
+        this.mvc.perform(get("/api/word/awe").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        this.mvc.perform(get("/api/word/awe").param("limit", String.valueOf(Dictionary.MAX_RANKED_LIMIT + 1)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenStream_thenSameWordsAsIndex() throws Exception {
+        Dictionary dictionary = this.jumbleEngine.getDictionary();
+        String etag = "\"" + dictionary.version() + "\"";
+        assertEquals(this.objectMapper.writeValueAsString(dictionary.palindromes()), stream(get("/api/word/stream/palindromes")), "palindromes");
+        assertEquals(this.objectMapper.writeValueAsString(dictionary.wordsWithPrefix("q")), stream(get("/api/word/stream/prefix/Q")), "prefix=Q");
+        assertEquals(this.objectMapper.writeValueAsString(dictionary.search('z', null, 4)),
+                stream(get("/api/word/stream/search").param("start", "z").param("length", "4")), "start=z, length=4");
+        assertEquals("[]", stream(get("/api/word/stream/search").param("start", "q").param("end", "q")), "start=q, end=q");
+        assertEquals(this.objectMapper.writeValueAsString(dictionary.search('a', 's', 5)),
+                stream(get("/api/word/stream/search").param("start", "a").param("end", "s").param("length", "5")), "start=a, end=s, length=5");
+
+        this.mvc.perform(get("/api/word/stream/palindromes").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        this.mvc.perform(get("/api/word/stream/search").param("start", "a").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        this.mvc.perform(get("/api/word/stream/search"))
+                .andExpect(status().isBadRequest());
+        this.mvc.perform(get("/api/word/stream/prefix/a1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String stream(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = this.mvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return this.mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + this.jumbleEngine.getDictionary().version() + "\""))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    @Test
+    void whenAsync_thenSameAnswersAsSync() throws Exception {
+        MvcResult result = this.mvc.perform(get("/api/word/async/awe").param("limit", "3"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        this.mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[\"awe\", \"awed\", \"awes\"]", true));
+
+        result = this.mvc.perform(get("/api/word/async/exists/Awesome"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        this.mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("true"));
+
+        result = this.mvc.perform(get("/api/word/async/subWords/yellow").param("minLength", "3"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        this.mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasItems("low", "yowl")));
+
+        result = this.mvc.perform(get("/api/word/async/subWords/yellow").param("minLength", "0"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        this.mvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest());
+    }
+
+}
@@ -0,0 +1,56 @@
+package asia.fourtitude.interviewq.jumble.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import asia.fourtitude.interviewq.jumble.dictionary.Dictionary;
+
+class BulkGameCreatorTest {
+
+    static final JumbleEngine ENGINE = new JumbleEngine(Dictionary.of(Arrays.asList("silent", "listen", "orange", "lint", "range", "tin")));
+
+    @Test
+    void givenCount_whenCreate_thenEachGameSentOnCallerThread() throws Exception {
+        try (BulkGameCreator creator = new BulkGameCreator(ENGINE, 3)) {
+            List<GameState> states = Collections.synchronizedList(new ArrayList<>());
+            Thread caller = Thread.currentThread();
+            creator.create(50, 6, 3, state -> {
+                assertSame(caller, Thread.currentThread());
+                states.add(state);
+            });
+            assertEquals(50, states.size());
+            for (GameState state : states) {
+                assertEquals(6, state.getOriginal().length());
+                assertTrue(state.getTotalWords() > 0);
+            }
+            assertEquals(50, states.stream().distinct().count());
+        }
+    }
+
+    @Test
+    void givenFailingSink_whenCreate_thenStopped() throws Exception {
+        try (BulkGameCreator creator = new BulkGameCreator(ENGINE, 2)) {
+            AtomicInteger received = new AtomicInteger();
+            IOException e = assertThrows(IOException.class, () -> creator.create(1000, 6, 3, state -> {
+                if (received.incrementAndGet() == 5) {
+                    throw new IOException("Broken pipe");
+                }
+            }));
+            assertEquals("Broken pipe", e.getMessage());
+            assertEquals(5, received.get());
+
+            // still usable by later requests
+            creator.create(3, 6, 3, state -> received.incrementAndGet());
+            assertEquals(8, received.get());
+        }
+    }
+
+}
@@ -0,0 +1,100 @@
+package asia.fourtitude.interviewq.jumble.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import asia.fourtitude.interviewq.jumble.util.WorkerThreads;
+
+class BulkheadTest {
+
+    @Test
+    void givenSaturatedBulkhead_whenSubmit_thenRejectedAndOtherBulkheadUnaffected() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        try (Bulkhead generation = new Bulkhead("generation", 1, 1, Duration.ofSeconds(10));
+                Bulkhead lookup = new Bulkhead("lookup", 1, 1, Duration.ofSeconds(10))) {
+            CompletableFuture<Boolean> running = generation.submit(() -> release.await(10, TimeUnit.SECONDS));
+            CompletableFuture<Boolean> queued = generation.submit(() -> true);
+            CompletableFuture<Boolean> rejected = generation.submit(() -> true);
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> rejected.get(1, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof RejectedExecutionException, "cause");
+            assertTrue(Bulkhead.isOverloaded(e), "isOverloaded");
+            assertEquals(1, generation.getRejected(), "rejected");
+            assertEquals("found", lookup.submit(() -> "found").get(1, TimeUnit.SECONDS), "lookup");
+
+            release.countDown();
+            assertTrue(running.get(1, TimeUnit.SECONDS), "running");
+            assertTrue(queued.get(1, TimeUnit.SECONDS), "queued");
+        }
+    }
+
+    @Test
+    void givenSlowTask_whenTimeout_thenCancelledAndQueuedNeverRuns() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        AtomicBoolean ran = new AtomicBoolean();
+        try (Bulkhead bulkhead = new Bulkhead("generation", 1, 1, Duration.ofMillis(100))) {
+            // holds the thread (past its interrupt) until released
+            CompletableFuture<Boolean> slow = bulkhead.submit(() -> {
+                while (release.getCount() > 0) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        interrupted.set(true);
+                    }
+                }
+                return true;
+            });
+            CompletableFuture<Boolean> queued = bulkhead.submit(() -> ran.getAndSet(true));
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> slow.get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof TimeoutException, "cause");
+            assertTrue(Bulkhead.isOverloaded(e), "isOverloaded");
+            assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS), "queued");
+            // counted and interrupted right after the futures complete
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while ((bulkhead.getTimedOut() < 2 || ! interrupted.get()) && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(2, bulkhead.getTimedOut(), "timedOut");
+            assertTrue(interrupted.get(), "interrupted");
+
+            release.countDown();
+            assertEquals("after", bulkhead.submit(() -> "after").get(1, TimeUnit.SECONDS), "after");
+            assertFalse(ran.get(), "queued ran");
+        }
+    }
+
+    @Test
+    void givenFailingTask_whenSubmit_thenNotOverloaded() {
+        try (Bulkhead bulkhead = new Bulkhead("lookup", 1, 1, Duration.ofSeconds(1))) {
+            CompletableFuture<Object> failed = bulkhead.submit(() -> { throw new IllegalStateException("boom"); });
+            ExecutionException e = assertThrows(ExecutionException.class, () -> failed.get(1, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof IllegalStateException, "cause");
+            assertFalse(Bulkhead.isOverloaded(e), "isOverloaded");
+        }
+    }
+
+    @Test
+    void givenWorkerThreads_whenSubmit_thenRunOnTheirThreads() throws Exception {
+        WorkerThreads workerThreads = (name, task) -> {
+            Thread thread = WorkerThreads.PLATFORM.newThread("custom-" + name, task);
+            assertTrue(thread.isDaemon(), "daemon");
+            return thread;
+        };
+        try (Bulkhead bulkhead = new Bulkhead("lookup", 1, 1, Duration.ofSeconds(1), workerThreads)) {
+            assertEquals("custom-bulkhead-lookup-1", bulkhead.submit(() -> Thread.currentThread().getName()).get(1, TimeUnit.SECONDS));
+        }
+    }
+
+}
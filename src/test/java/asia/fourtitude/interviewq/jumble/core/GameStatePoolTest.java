@@ -0,0 +1,52 @@
+package asia.fourtitude.interviewq.jumble.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import asia.fourtitude.interviewq.jumble.dictionary.Dictionary;
+
+class GameStatePoolTest {
+
+    static void awaitSize(GameStatePool pool, int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (pool.size(6, 3) < size && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(size, pool.size(6, 3));
+    }
+
+    @Test
+    void givenEmptyPool_whenTake_thenCreatedInlineAndRefilled() throws Exception {
+        JumbleEngine engine = new JumbleEngine(Dictionary.of(Arrays.asList("silent", "listen", "lint", "nest", "tin")));
+        try (GameStatePool pool = new GameStatePool(engine, 2, 4)) {
+            GameState state = pool.take(6, 3);
+            assertNotNull(state);
+            assertEquals(6, state.getOriginal().length());
+            assertEquals(0, pool.hits());
+            assertEquals(1, pool.misses());
+
+            awaitSize(pool, 4);
+            assertNotSame(state, pool.take(6, 3));
+            assertEquals(1, pool.hits());
+        }
+    }
+
+    @Test
+    void givenReplacedDictionary_whenTake_thenStaleGamesDiscarded() throws Exception {
+        JumbleEngine engine = new JumbleEngine(Dictionary.of(Arrays.asList("silent", "tin")));
+        try (GameStatePool pool = new GameStatePool(engine, 1, 4)) {
+            pool.prefill(6, 3);
+            awaitSize(pool, 4);
+
+            engine.replaceDictionary(Dictionary.of(Arrays.asList("orange", "range", "anger")));
+            GameState state = pool.take(6, 3);
+            assertEquals("orange", state.getOriginal());
+            assertEquals(1, pool.misses());
+        }
+    }
+
+}
@@ -0,0 +1,134 @@
+package asia.fourtitude.interviewq.jumble.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import asia.fourtitude.interviewq.jumble.dictionary.Dictionary;
+import asia.fourtitude.interviewq.jumble.model.GameGuessModel;
+
+class GameStateTest {
+
+    static final Dictionary DICTIONARY = Dictionary.of(Arrays.asList("listen", "silent", "tinsel", "lens", "lint", "nest", "tin", "ten"));
+
+    static GameState newGame(String original) {
+        return new GameState(original, "nelist", 3, DICTIONARY, DICTIONARY.subWordOrdinals(original, 3));
+    }
+
+    @Test
+    void givenNewGame_whenGetSubWords_thenByLengthExcludingOriginal() {
+        GameState state = newGame("silent");
+        assertEquals(7, state.getTotalWords(), "totalWords");
+        Map<String, Boolean> subWords = state.getSubWords();
+        assertEquals(Arrays.asList("ten", "tin", "lens", "lint", "nest", "listen", "tinsel"),
+                new ArrayList<>(subWords.keySet()), "subWords");
+        assertFalse(subWords.containsKey("silent"), "subWords=silent");
+        assertEquals(Boolean.FALSE, subWords.get("lens"), "subWords[lens]");
+        assertNull(subWords.get("lenses"), "subWords[lenses]");
+        assertTrue(state.getGuessedWords().isEmpty(), "guessedWords");
+    }
+
+    @Test
+    void givenNewGame_whenUpdateGuessWord_thenGuessedByLength() {
+        GameState state = newGame("listen");
+        assertTrue(state.updateGuessWord("tinsel"), "guess=tinsel");
+        assertTrue(state.updateGuessWord("TEN"), "guess=TEN");
+        assertTrue(state.updateGuessWord("ten"), "guess=ten");
+        assertFalse(state.updateGuessWord("listen"), "guess=listen");
+        assertFalse(state.updateGuessWord("tent"), "guess=tent");
+        assertFalse(state.updateGuessWord(null), "guess=null");
+
+        assertEquals(Arrays.asList("ten", "tinsel"), state.getGuessedWords(), "guessedWords");
+        assertEquals(2, state.getGuessedCount(), "guessedCount");
+        assertEquals(Boolean.TRUE, state.getSubWords().get("tinsel"), "subWords[tinsel]");
+    }
+
+    @Test
+    void givenBatch_whenGuess_thenOneUpdateInOrder() {
+        GameState state = newGame("listen");
+        state.updateGuessWord("nest");
+        GameState.Guess[] outcomes = state.guess(Arrays.asList("TEN", "ten", "nest", "tent", null, "tinsel", "listen"));
+        assertArrayEquals(new GameState.Guess[] {
+                GameState.Guess.CORRECT, GameState.Guess.ALREADY_GUESSED, GameState.Guess.ALREADY_GUESSED,
+                GameState.Guess.INCORRECT, GameState.Guess.INCORRECT, GameState.Guess.CORRECT,
+                GameState.Guess.INCORRECT }, outcomes, "outcomes");
+        assertEquals(Arrays.asList("ten", "nest", "tinsel"), state.getGuessedWords(), "guessedWords");
+        assertEquals(3, state.getVersion(), "version");
+        assertEquals(Arrays.asList("TEN", "tinsel"),
+                GameState.newlyGuessed(Arrays.asList("TEN", "ten", "nest", "tent", null, "tinsel", "listen"), outcomes),
+                "newlyGuessed");
+    }
+
+    @Test
+    void givenSameAnagramClass_whenNewGame_thenGuessesNotShared() {
+        GameState first = newGame("listen");
+        GameState second = newGame("tinsel");
+        first.updateGuessWord("nest");
+        assertEquals(Boolean.TRUE, first.getSubWords().get("nest"), "first[nest]");
+        assertEquals(Boolean.FALSE, second.getSubWords().get("nest"), "second[nest]");
+    }
+
+    @Test
+    void givenConcurrentGuesses_whenGuess_thenNoLostUpdates() throws Exception {
+        // more than 64 solutions, so guesses span several bitset words
+        Dictionary dictionary = Dictionary.loadResource("/words.txt");
+        String original = "abducting";
+        int threads = 8;
+        int rounds = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < rounds; round++) {
+                GameState state = new GameState(original, "gnitcudba", 3, dictionary, dictionary.subWordOrdinals(original, 3));
+                List<String> words = new ArrayList<>(state.getSubWords().keySet());
+                assertTrue(words.size() > 64, "subWords.size>64");
+                GameGuessModel model = new GameGuessModel();
+                model.setModifiedAt(new Date(0));
+
+                AtomicInteger correct = new AtomicInteger();
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> futures = new ArrayList<>();
+                for (int thread = 0; thread < threads; thread++) {
+                    List<String> shuffled = new ArrayList<>(words);
+                    Collections.shuffle(shuffled, new Random(round * threads + thread));
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        for (String word : shuffled) {
+                            if (state.guess(word) == GameState.Guess.CORRECT) {
+                                correct.incrementAndGet();
+                                model.updateModifiedAt(new Date());
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> future : futures) {
+                    future.get(30, TimeUnit.SECONDS);
+                }
+
+                assertEquals(words.size(), correct.get(), "round=" + round + ";correct");
+                assertEquals(words.size(), state.getGuessedCount(), "round=" + round + ";guessedCount");
+                assertEquals(words.size(), state.getVersion(), "round=" + round + ";version");
+                assertEquals(words.size(), state.getGuessedWords().size(), "round=" + round + ";guessedWords");
+                assertTrue(model.getModifiedAt().getTime() > 0, "round=" + round + ";modifiedAt");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
@@ -2,8 +2,12 @@ package asia.fourtitude.interviewq.jumble.core;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 
+import asia.fourtitude.interviewq.jumble.dictionary.Dictionary;
+import asia.fourtitude.interviewq.jumble.dictionary.WordWeights;
 import asia.fourtitude.interviewq.jumble.exception.GoodQuestionException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -185,6 +189,18 @@ class JumbleEngineTest {
         assertNotNull(engine.createGameState(6, 6), "length=6;minLength=6");
     }
 
+    @Test
+    void givenWordWithoutSubWords_whenCreateGameState_thenSkipped() throws GoodQuestionException {
+        JumbleEngine local = new JumbleEngine(Dictionary.of(Arrays.asList("scuzzy", "silent", "tin", "ten")));
+        for (int count = 0; count < 20; count++) {
+            GameState state = local.createGameState(6, 3);
+            assertEquals("silent", state.getOriginal(), "count=" + count + ";original");
+            assertEquals(2, state.getTotalWords(), "count=" + count + ";totalWords");
+        }
+        JumbleEngine unplayable = new JumbleEngine(Dictionary.of(Arrays.asList("scuzzy", "tin")));
+        assertThrows(IllegalArgumentException.class, () -> { unplayable.createGameState(6, 3); }, "word=scuzzy");
+    }
+
     @Test
     void givenInvalidInput_whenCreateGameState_thenExpectException() {
         assertThrows(NullPointerException.class, () -> { engine.createGameState(null, null); }, "length=null;minLength=null");
@@ -193,4 +209,32 @@ class JumbleEngineTest {
         assertThrows(IllegalArgumentException.class, () -> { engine.createGameState(4, 5); }, "length=4;minLength=5");
     }
 
+    @Test
+    void givenSnapshot_whenReplaced_thenPrefixMatchedOnSnapshot() {
+        JumbleEngine local = new JumbleEngine(Dictionary.of(Arrays.asList("awe", "awed", "awes")));
+        Dictionary dictionary = local.getDictionary();
+        WordWeights weights = WordWeights.of(Collections.singletonMap("awes", 10));
+        local.replaceDictionary(Dictionary.of(Arrays.asList("awesome")));
+        local.setWordWeights(WordWeights.none());
+
+        assertEquals(Arrays.asList("awe", "awed", "awes"), local.wordsMatchingPrefix(dictionary, "AWE"));
+        assertEquals(Arrays.asList("awes", "awe"), local.topWordsMatchingPrefix(dictionary, weights, "awe", 2));
+        assertEquals(Arrays.asList("awesome"), local.wordsMatchingPrefix("awe"));
+    }
+
+    @Test
+    void givenWeights_whenReplaceDictionary_thenRankedBeforePublished() {
+        JumbleEngine local = new JumbleEngine(Dictionary.of(Arrays.asList("awe", "awed", "awes")));
+        assertTrue(local.getDictionary().isRankedBy(WordWeights.none()), "initial");
+        WordWeights weights = WordWeights.of(Collections.singletonMap("awed", 10));
+        local.setWordWeights(weights);
+        assertTrue(local.getDictionary().isRankedBy(weights), "weights");
+
+        Dictionary reloaded = Dictionary.of(Arrays.asList("awe", "awed", "awesome"));
+        assertFalse(reloaded.isRankedBy(weights), "reloaded");
+        local.replaceDictionary(reloaded);
+        assertTrue(reloaded.isRankedBy(weights), "published");
+        assertEquals(Arrays.asList("awed", "awe"), local.topWordsMatchingPrefix("awe", 2));
+    }
+
 }
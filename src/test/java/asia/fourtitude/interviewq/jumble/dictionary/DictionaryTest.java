@@ -0,0 +1,208 @@
+package asia.fourtitude.interviewq.jumble.dictionary;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DictionaryTest {
+
+    @Test
+    void givenUnsortedWordsWithBlanks_whenOf_thenNormalized() {
+        Dictionary dictionary = Dictionary.of(Arrays.asList("pear", " Apple ", "", "  ", null, "banana", "pear"));
+        assertEquals(Arrays.asList("Apple", "banana", "pear"), dictionary.words(), "words");
+        assertEquals("apple", dictionary.key(0), "key[0]");
+    }
+
+    @Test
+    void whenLoadResource_thenAllWords() {
+        Dictionary dictionary = Dictionary.loadResource("/words.txt");
+        assertEquals(64662, dictionary.size(), "size");
+        assertThrows(UnsupportedOperationException.class, () -> { dictionary.words().set(0, "x"); }, "words.readOnly");
+    }
+
+    @Test
+    void givenMissingResource_whenLoadResource_thenException() {
+        assertThrows(IllegalStateException.class, () -> { Dictionary.loadResource("/not-found.txt"); }, "path=/not-found.txt");
+    }
+
+    @Test
+    void givenMixedCaseAndPadding_whenContains_thenFound() {
+        Dictionary dictionary = Dictionary.of(Arrays.asList("panda", "Kangaroo", "mangos"));
+        assertTrue(dictionary.contains("Panda"), "word=Panda");
+        assertTrue(dictionary.contains(" kangaroo\t"), "word=<PADDED>kangaroo");
+        assertTrue(dictionary.contains(new StringBuilder("MaNGoS")), "word=MaNGoS");
+        assertEquals(0, dictionary.indexOf("KANGAROO"), "indexOf=KANGAROO");
+        assertFalse(dictionary.contains("pand"), "word=pand");
+        assertFalse(dictionary.contains(" "), "word=<BLANK>");
+        assertFalse(dictionary.contains(null), "word=null");
+    }
+
+    @Test
+    void givenPrefix_whenWordsWithPrefix_thenContiguousRange() {
+        Dictionary dictionary = Dictionary.of(Arrays.asList("pen", "Pendulum", "pendulums", "pea", "open", "pe"));
+        assertEquals(Arrays.asList("pen", "Pendulum", "pendulums"), dictionary.wordsWithPrefix("PEN"), "prefix=PEN");
+        assertEquals(Arrays.asList("pe", "pea", "pen", "Pendulum", "pendulums"), dictionary.wordsWithPrefix("pe"), "prefix=pe");
+        assertEquals(0, dictionary.wordsWithPrefix("pendulumss").size(), "prefix=pendulumss");
+        assertEquals(0, dictionary.wordsWithPrefix("z").size(), "prefix=z");
+        assertEquals(0, dictionary.wordsWithPrefix("").size(), "prefix=<EMPTY>");
+    }
+
+    @Test
+    void givenLength_whenRandomWord_thenWordOfLength() {
+        Dictionary dictionary = Dictionary.of(Arrays.asList("eye", "deed", "noon", "level"));
+        for (int pos = 0; pos < 20; pos++) {
+            assertEquals(4, dictionary.randomWord(4).length(), "length=4");
+        }
+        assertEquals("eye", dictionary.randomWord(3), "length=3");
+        assertEquals(2, dictionary.countOfLength(4), "countOfLength=4");
+        assertNull(dictionary.randomWord(0), "length=0");
+        assertNull(dictionary.randomWord(-1), "length=-1");
+        assertNull(dictionary.randomWord(99), "length=99");
+    }
+
+    @Test
+    void givenCriteria_whenSearch_thenIntersection() {
+        Dictionary dictionary = Dictionary.of(Arrays.asList("flower", "Fair", "far", "fur", "tar", "flour"));
+        assertEquals(Arrays.asList("Fair", "far", "flour", "flower", "fur"), dictionary.search('F', null, null), "start=F");
+        assertEquals(Arrays.asList("far", "fur"), dictionary.search('f', 'R', 3), "start=f;end=R;length=3");
+        assertEquals(Arrays.asList("far", "fur", "tar"), dictionary.search(null, null, 3), "length=3");
+        assertEquals(0, dictionary.search('f', 'x', null).size(), "start=f;end=x");
+        assertEquals(0, dictionary.search(null, null, null).size(), "all=null");
+    }
+
+    @Test
+    void givenBaseWord_whenSubWords_thenWordsFromLetters() {
+        Dictionary dictionary = Dictionary.loadResource("/words.txt");
+        assertEquals(Arrays.asList("low", "lowly", "lye", "ole", "owe", "owl", "well", "welly", "woe", "yell", "yeow", "yew", "yowl"),
+                dictionary.subWords("Yellow", 3), "word=Yellow;minLength=3");
+        assertFalse(dictionary.subWords("listen", 3).contains("listen"), "word=listen;self");
+        assertTrue(dictionary.subWords("listen", 3).contains("silent"), "word=listen;anagram");
+    }
+
+    @Test
+    void givenLongBaseWord_whenSubWords_thenSameAsEnumeration() {
+        // 2^22 sub-multisets, more than signatures in index: scans signatures
+        Dictionary dictionary = Dictionary.loadResource("/words.txt");
+        String word = "abcdefghijklmnopqrstuv";
+        for (String subWord : dictionary.subWords(word, 3)) {
+            for (char ch : subWord.toCharArray()) {
+                assertEquals(1, subWord.chars().filter(c -> c == ch).count(), "subWord=" + subWord);
+                assertTrue(ch >= 'a' && ch <= 'v', "subWord=" + subWord);
+            }
+        }
+        assertTrue(dictionary.subWords(word, 3).contains("quick"), "subWord=quick");
+    }
+
+    @Test
+    void whenPalindromes_thenPrecomputedReadOnly() {
+        Dictionary dictionary = Dictionary.of(Arrays.asList("a", "eye", "deed", "Level", "panda", "noon"));
+        assertEquals(Arrays.asList("deed", "eye", "noon"), dictionary.palindromes(), "palindromes");
+        assertThrows(UnsupportedOperationException.class, () -> { dictionary.palindromes().add("x"); }, "palindromes.readOnly");
+    }
+
+    @Test
+    void givenCompiledDictionary_whenMap_thenSameAnswers(@TempDir Path dir) throws IOException {
+        Dictionary text = Dictionary.of(Arrays.asList("Apple", "eye", "deed", "pen", "Pendulum", "pendulums", "listen", "silent", "tinsel"));
+        Path file = dir.resolve("words.dict");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            DictionaryCompiler.write(text, out);
+        }
+
+        Dictionary mapped = Dictionary.map(file);
+        assertEquals(text.words(), mapped.words(), "words");
+        assertEquals("apple", mapped.key(0), "key[0]");
+        assertTrue(mapped.contains("APPLE"), "contains=APPLE");
+        assertFalse(mapped.contains("apples"), "contains=apples");
+        assertEquals(text.wordsWithPrefix("pen"), mapped.wordsWithPrefix("PEN"), "prefix=PEN");
+        assertEquals(text.search('p', 's', null), mapped.search('p', 's', null), "start=p;end=s");
+        assertEquals(text.subWords("enlist", 3), mapped.subWords("enlist", 3), "subWords=enlist");
+        assertEquals(text.palindromes(), mapped.palindromes(), "palindromes");
+        assertEquals(text.version(), mapped.version(), "version");
+    }
+
+    @Test
+    void whenVersion_thenDependsOnContentOnly() {
+        Dictionary dictionary = Dictionary.of(Arrays.asList("eye", "deed", "noon"));
+        assertEquals(16, dictionary.version().length(), "version.length");
+        assertEquals(dictionary.version(), Dictionary.of(Arrays.asList("noon", " eye", "deed", "eye")).version(), "version.sameWords");
+        assertNotEquals(dictionary.version(), Dictionary.of(Arrays.asList("eye", "deed", "noons")).version(), "version.changedWord");
+        assertNotEquals(dictionary.version(), Dictionary.of(Arrays.asList("eyedeed", "noon")).version(), "version.joinedWords");
+    }
+
+    @Test
+    void givenWeights_whenTopWordsWithPrefix_thenHeaviestThenShortest() {
+        Dictionary dictionary = Dictionary.of(Arrays.asList("pen", "Pendulum", "pendulums", "pea", "penny", "pens", "open"));
+        assertEquals(Arrays.asList("pen", "pens", "penny"), dictionary.topWordsWithPrefix("PEN", 3, WordWeights.none()), "weights=none");
+
+        Map<String, Integer> frequency = new HashMap<>();
+        frequency.put("pendulum", 7);
+        frequency.put("Penny", 3);
+        WordWeights weights = WordWeights.of(frequency);
+        assertEquals(Arrays.asList("Pendulum", "penny", "pen", "pens"), dictionary.topWordsWithPrefix("pen", 4, weights), "weights");
+        assertEquals(Collections.emptyList(), dictionary.topWordsWithPrefix("pex", 4, weights), "prefix=pex");
+        assertThrows(IllegalArgumentException.class, () -> { dictionary.topWordsWithPrefix("pen", Dictionary.MAX_RANKED_LIMIT + 1, weights); }, "limit");
+    }
+
+    @Test
+    void givenManyMatches_whenTopWordsWithPrefix_thenSameAsSortingAllMatches() {
+        Dictionary dictionary = Dictionary.loadResource("/words.txt");
+        Map<String, Integer> frequency = new HashMap<>();
+        Random random = new Random(42);
+        for (String word : dictionary.words()) {
+            if (random.nextInt(4) == 0) {
+                frequency.put(word, random.nextInt(1000));
+            }
+        }
+        WordWeights weights = WordWeights.of(frequency);
+        Comparator<String> rank = Comparator.<String>comparingLong(word -> - weights.weight(Dictionary.fold(word)))
+                .thenComparingInt(String::length)
+                .thenComparingInt(dictionary::indexOf);
+        // scanned while not ranked by the weights, then looked up in the ranking
+        for (boolean ranked : new boolean[] { false, true }) {
+            if (ranked) {
+                dictionary.rank(weights);
+            }
+            assertEquals(ranked, dictionary.isRankedBy(weights), "ranked");
+            for (String prefix : Arrays.asList("s", "co", "con", "inter", "aardv", "zyz", "q")) {
+                List<String> all = new ArrayList<>(dictionary.wordsWithPrefix(prefix));
+                all.sort(rank);
+                for (int limit : new int[] { 1, 10, Dictionary.MAX_RANKED_LIMIT }) {
+                    assertEquals(all.subList(0, Math.min(limit, all.size())), dictionary.topWordsWithPrefix(prefix, limit, weights),
+                            "ranked=" + ranked + ", prefix=" + prefix + ", limit=" + limit);
+                }
+            }
+        }
+    }
+
+    @Test
+    void givenInvalidLine_whenLoadWeights_thenException() throws IOException {
+        WordWeights weights = WordWeights.load(new ByteArrayInputStream("# frequency\nthe 100\n\nThe 7\nof 80\n".getBytes()));
+        assertEquals(2, weights.size(), "size");
+        assertEquals(100, weights.weight("the"), "weight=the");
+        assertEquals(0, weights.weight("and"), "weight=and");
+        assertThrows(IOException.class, () -> { WordWeights.load(new ByteArrayInputStream("the many\n".getBytes())); }, "weight=many");
+    }
+
+    @Test
+    void givenNotCompiledFile_whenMap_thenException(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("words.dict");
+        Files.write(file, "aah\naardvark\n".getBytes());
+        assertThrows(IllegalStateException.class, () -> { Dictionary.map(file); }, "file=words.txt");
+    }
+
+}
@@ -0,0 +1,79 @@
+package asia.fourtitude.interviewq.jumble.dictionary;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import asia.fourtitude.interviewq.jumble.core.JumbleEngine;
+import asia.fourtitude.interviewq.jumble.util.WorkerThreads;
+
+class DictionaryWatcherTest {
+
+    @Test
+    void givenWatchedFile_whenChanged_thenEngineSwapsDictionary(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("words.txt");
+        write(file, "panda", "koala");
+        JumbleEngine engine = new JumbleEngine(Dictionary.loadFile(file));
+        LinkedBlockingQueue<Dictionary> published = new LinkedBlockingQueue<>();
+
+        try (DictionaryWatcher watcher = new DictionaryWatcher(file, dictionary -> {
+            engine.replaceDictionary(dictionary);
+            published.add(dictionary);
+        })) {
+            watcher.start();
+            assertTrue(engine.exists("panda"), "before;word=panda");
+            assertFalse(engine.exists("kangaroo"), "before;word=kangaroo");
+
+            write(file, "kangaroo", "koala");
+            Dictionary dictionary = published.poll(30, TimeUnit.SECONDS);
+            assertNotNull(dictionary, "published");
+            assertSame(dictionary, engine.getDictionary(), "engine.dictionary");
+            assertTrue(engine.exists("kangaroo"), "after;word=kangaroo");
+            assertFalse(engine.exists("panda"), "after;word=panda");
+        }
+    }
+
+    @Test
+    void givenUnreadableFile_whenReload_thenKeepCurrent(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("words.dict");
+        write(file, "not", "compiled");
+        JumbleEngine engine = new JumbleEngine(Dictionary.of(Arrays.asList("panda")));
+        try (DictionaryWatcher watcher = new DictionaryWatcher(file, engine::replaceDictionary)) {
+            assertFalse(watcher.reload(), "reload");
+        }
+        assertTrue(engine.exists("panda"), "word=panda");
+    }
+
+    @Test
+    void givenTruncatedFile_whenReload_thenKeepCurrent(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("words.txt");
+        write(file, "panda", "koala", "kangaroo", "wombat");
+        Dictionary current = Dictionary.loadFile(file);
+        JumbleEngine engine = new JumbleEngine(current);
+        try (DictionaryWatcher watcher = new DictionaryWatcher(file, engine::replaceDictionary, current, WorkerThreads.PLATFORM)) {
+            write(file);
+            assertFalse(watcher.reload(), "reload;empty");
+            write(file, "panda");
+            assertFalse(watcher.reload(), "reload;shrunk");
+            assertSame(current, engine.getDictionary(), "engine.dictionary");
+
+            write(file, "panda", "koala", "emu");
+            assertTrue(watcher.reload(), "reload;plausible");
+            assertTrue(engine.exists("emu"), "word=emu");
+        }
+    }
+
+    private static void write(Path file, String... words) throws IOException {
+        Files.write(file, Arrays.asList(words), StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,82 @@
+package asia.fourtitude.interviewq.jumble.dictionary;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class PostingListTest {
+
+    @Test
+    void givenSparseAndDenseChunks_whenAnd_thenIntersection() {
+        // multiples of 3 (dense chunks), and multiples of 5 over 3 chunks
+        int[] threes = IntStream.range(0, 200_000).filter(n -> n % 3 == 0).toArray();
+        int[] fives = IntStream.range(0, 200_000).filter(n -> n % 5 == 0).toArray();
+        int[] sparse = { 15, 16, 70_000, 70_005, 199_995 };
+
+        PostingList a = PostingList.of(threes, 0, threes.length);
+        PostingList b = PostingList.of(fives, 0, fives.length);
+        PostingList c = PostingList.of(sparse, 0, sparse.length);
+
+        int[] expected = IntStream.range(0, 200_000).filter(n -> n % 15 == 0).toArray();
+        assertArrayEquals(expected, a.and(b).toArray(), "dense&dense");
+        assertEquals(expected.length, a.and(b).cardinality(), "dense&dense.cardinality");
+        assertArrayEquals(new int[] { 15, 70_005, 199_995 }, c.and(a.and(b)).toArray(), "sparse&dense");
+        assertArrayEquals(new int[] { 15, 70_005, 199_995 }, a.and(b).and(c).toArray(), "dense&sparse");
+        assertArrayEquals(sparse, c.and(c).toArray(), "sparse&sparse");
+        assertTrue(c.and(PostingList.EMPTY).isEmpty(), "sparse&empty");
+    }
+
+    @Test
+    void givenRange_whenOf_thenOnlyRange() {
+        int[] ordinals = { 1, 2, 3, 4, 5 };
+        assertArrayEquals(new int[] { 2, 3, 4 }, PostingList.of(ordinals, 1, 4).toArray(), "range=[1,4)");
+        assertSame(PostingList.EMPTY, PostingList.of(ordinals, 2, 2), "range=[2,2)");
+        assertEquals(0, Arrays.stream(PostingList.EMPTY.toArray()).count(), "empty");
+    }
+
+    @Test
+    void givenSparseAndDenseChunks_whenIterator_thenSameAsToArray() {
+        int[] ordinals = IntStream.concat(IntStream.range(0, 70_000).filter(n -> n % 3 == 0), IntStream.of(70_001, 131_071, 200_000)).toArray();
+        PostingList list = PostingList.of(ordinals, 0, ordinals.length);
+        PrimitiveIterator.OfInt iterator = list.iterator();
+        int[] iterated = new int[list.cardinality()];
+        int pos = 0;
+        while (iterator.hasNext()) {
+            iterated[pos++] = iterator.nextInt();
+        }
+        assertArrayEquals(ordinals, iterated, "iterated");
+        assertThrows(NoSuchElementException.class, iterator::nextInt, "exhausted");
+        assertFalse(PostingList.EMPTY.iterator().hasNext(), "empty");
+    }
+
+    @Test
+    void givenSparseAndDenseChunks_whenIntersect_thenSameAsAnd() {
+        int[] threes = IntStream.range(0, 200_000).filter(n -> n % 3 == 0).toArray();
+        int[] fives = IntStream.range(0, 200_000).filter(n -> n % 5 == 0).toArray();
+        int[] sparse = { 15, 16, 70_000, 70_005, 199_995 };
+        PostingList a = PostingList.of(threes, 0, threes.length);
+        PostingList b = PostingList.of(fives, 0, fives.length);
+        PostingList c = PostingList.of(sparse, 0, sparse.length);
+
+        assertArrayEquals(a.and(b).toArray(), toArray(PostingList.intersect(a, b)), "dense&dense");
+        assertArrayEquals(new int[] { 15, 70_005, 199_995 }, toArray(PostingList.intersect(c, a, b)), "sparse&dense&dense");
+        assertArrayEquals(sparse, toArray(PostingList.intersect(c)), "single");
+        assertFalse(PostingList.intersect(c, PostingList.EMPTY).hasNext(), "sparse&empty");
+        assertFalse(PostingList.intersect().hasNext(), "none");
+        PrimitiveIterator.OfInt exhausted = PostingList.intersect(c, c);
+        assertArrayEquals(sparse, toArray(exhausted), "sparse&sparse");
+        assertThrows(NoSuchElementException.class, exhausted::nextInt, "exhausted");
+    }
+
+    static int[] toArray(PrimitiveIterator.OfInt iterator) {
+        IntStream.Builder builder = IntStream.builder();
+        iterator.forEachRemaining((int ordinal) -> builder.add(ordinal));
+        return builder.build().toArray();
+    }
+
+}
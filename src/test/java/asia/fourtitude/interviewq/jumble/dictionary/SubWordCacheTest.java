@@ -0,0 +1,49 @@
+package asia.fourtitude.interviewq.jumble.dictionary;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class SubWordCacheTest {
+
+    static List<String> words(Dictionary dictionary, int[] ordinals) {
+        List<String> words = new ArrayList<>();
+        for (int ordinal : ordinals) {
+            words.add(dictionary.word(ordinal));
+        }
+        return words;
+    }
+
+    @Test
+    void givenAnagrams_whenSubWordOrdinals_thenSharedArray() {
+        Dictionary dictionary = Dictionary.of(Arrays.asList("listen", "silent", "tinsel", "lens", "lint", "nest", "tin", "ten", "lie", "tile"));
+        int[] listen = dictionary.subWordOrdinals("listen", 3);
+        assertEquals(Arrays.asList("lie", "ten", "tin", "lens", "lint", "nest", "tile", "listen", "silent", "tinsel"),
+                words(dictionary, listen), "subWords=listen");
+        assertSame(listen, dictionary.subWordOrdinals("Silent", 3), "subWords=Silent");
+        assertSame(listen, dictionary.subWordOrdinals("tinsel", 3), "subWords=tinsel");
+        assertNotSame(listen, dictionary.subWordOrdinals("listen", 4), "subWords=listen;minLength=4");
+
+        SubWordCache cache = dictionary.subWordCache();
+        assertEquals(2, cache.hits(), "hits");
+        assertEquals(2, cache.misses(), "misses");
+        assertEquals(0.5, cache.hitRate(), 0.001, "hitRate");
+    }
+
+    @Test
+    void givenSmallBudget_whenGet_thenLeastRecentlyUsedEvicted() {
+        Dictionary dictionary = Dictionary.of(Arrays.asList("listen", "tin", "ten", "orange", "range", "anger"));
+        SubWordCache cache = new SubWordCache(dictionary, 30);
+        int[] listen = cache.get("listen", 3);
+        int[] orange = cache.get("orange", 3);
+        assertSame(orange, cache.get("orange", 3), "orange");
+        assertEquals(1, cache.evictions(), "evictions");
+        assertNotSame(listen, cache.get("listen", 3), "listen");
+        assertEquals(3, cache.misses(), "misses");
+    }
+
+}
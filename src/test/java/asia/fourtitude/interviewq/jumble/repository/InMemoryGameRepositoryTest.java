@@ -0,0 +1,128 @@
+package asia.fourtitude.interviewq.jumble.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import asia.fourtitude.interviewq.jumble.model.GameGuessModel;
+
+class InMemoryGameRepositoryTest {
+
+    static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+    InMemoryGameRepository repository(int maxEntries, int shards) {
+        return new InMemoryGameRepository(maxEntries, Duration.ofMinutes(10), shards, clock::get, false);
+    }
+
+    static GameGuessModel game(String id) {
+        GameGuessModel model = new GameGuessModel();
+        model.setId(id);
+        return model;
+    }
+
+    @Test
+    void whenSaveFindRemove_thenFound() {
+        InMemoryGameRepository repository = repository(100, 4);
+        GameGuessModel model = game("a");
+        repository.save(model);
+
+        assertSame(model, repository.findById("a"));
+        assertNull(repository.findById("b"));
+        assertNull(repository.findById(null));
+        assertEquals(1, repository.size());
+
+        assertSame(model, repository.remove("a"));
+        assertNull(repository.remove("a"));
+        assertNull(repository.findById("a"));
+        assertEquals(0, repository.size());
+
+        GameRepositoryStats stats = repository.stats();
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(0, stats.getEvictions());
+        assertEquals(0, stats.getExpirations());
+    }
+
+    @Test
+    void givenIdleGame_whenExpire_thenExpired() {
+        InMemoryGameRepository repository = repository(100, 4);
+        repository.save(game("idle"));
+        repository.save(game("used"));
+
+        clock.addAndGet(6 * MINUTE);
+        repository.expire();
+        assertNotNull(repository.findById("used"));
+
+        clock.addAndGet(6 * MINUTE);
+        repository.expire();
+        assertEquals(1, repository.size());
+        assertEquals(1, repository.stats().getExpirations());
+
+        clock.addAndGet(6 * MINUTE);
+        repository.expire();
+        assertEquals(0, repository.size());
+        assertEquals(2, repository.stats().getExpirations());
+    }
+
+    @Test
+    void givenIdleGame_whenFindBeforeExpire_thenNotFound() {
+        InMemoryGameRepository repository = repository(100, 4);
+        repository.save(game("idle"));
+
+        clock.addAndGet(10 * MINUTE);
+        assertNull(repository.findById("idle"));
+        assertEquals(1, repository.stats().getExpirations());
+    }
+
+    @Test
+    void givenLongPause_whenExpire_thenAllExpired() {
+        InMemoryGameRepository repository = repository(1000, 4);
+        for (int count = 0; count < 500; count++) {
+            repository.save(game("game-" + count));
+            clock.addAndGet(MINUTE / 7);
+        }
+
+        clock.addAndGet(TimeUnit.DAYS.toNanos(3));
+        repository.expire();
+        assertEquals(0, repository.size());
+        assertEquals(500, repository.stats().getExpirations());
+    }
+
+    @Test
+    void givenFullShard_whenSave_thenLeastRecentlyUsedEvicted() {
+        InMemoryGameRepository repository = repository(3, 1);
+        repository.save(game("a"));
+        repository.save(game("b"));
+        repository.save(game("c"));
+        assertNotNull(repository.findById("a"));
+
+        repository.save(game("d"));
+        assertEquals(3, repository.size());
+        assertNull(repository.findById("b"));
+        assertNotNull(repository.findById("a"));
+        assertEquals(1, repository.stats().getEvictions());
+
+        // evicted game is no longer on the wheel
+        clock.addAndGet(20 * MINUTE);
+        repository.expire();
+        assertEquals(0, repository.size());
+        assertEquals(3, repository.stats().getExpirations());
+    }
+
+    @Test
+    void givenManyGames_whenSave_thenWithinBudget() {
+        InMemoryGameRepository repository = repository(1000, 16);
+        for (int count = 0; count < 5000; count++) {
+            repository.save(game("game-" + count));
+        }
+        assertTrue(repository.size() <= repository.capacity());
+        assertEquals(5000 - repository.size(), repository.stats().getEvictions());
+    }
+
+}
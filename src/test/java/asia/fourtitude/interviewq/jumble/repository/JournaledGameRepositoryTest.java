@@ -0,0 +1,204 @@
+package asia.fourtitude.interviewq.jumble.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import asia.fourtitude.interviewq.jumble.core.GameState;
+import asia.fourtitude.interviewq.jumble.core.JumbleEngine;
+import asia.fourtitude.interviewq.jumble.dictionary.Dictionary;
+import asia.fourtitude.interviewq.jumble.model.GameGuessModel;
+import asia.fourtitude.interviewq.jumble.model.GameGuessOutput;
+
+class JournaledGameRepositoryTest {
+
+    static final JumbleEngine ENGINE = new JumbleEngine(Dictionary.of(Arrays.asList("listen", "silent", "tinsel", "lens", "lint", "nest", "tin", "ten")));
+
+    static JournaledGameRepository open(Path dir, boolean strict) throws IOException {
+        return new JournaledGameRepository(new InMemoryGameRepository(100, Duration.ofMinutes(30)),
+                new GameJournal(dir, strict), ENGINE, Duration.ofHours(1));
+    }
+
+    static GameGuessModel newGame(String id) throws Exception {
+        GameGuessModel model = new GameGuessModel();
+        model.setId(id);
+        model.setCreatedAt(new Date());
+        model.setModifiedAt(model.getCreatedAt());
+        model.setGameState(ENGINE.createGameState(6, 3));
+        return model;
+    }
+
+    static void guess(GameRepository repository, GameGuessModel model, String word) {
+        repository.guess(model.getId(), Collections.singletonList(word), new Date(), new GameGuessOutput());
+    }
+
+    static List<String> files(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(file -> file.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    void givenJournaledGames_whenReopen_thenRecovered(@TempDir Path dir) throws Exception {
+        JournaledGameRepository repository = open(dir, true);
+        GameGuessModel first = newGame("first");
+        GameGuessModel second = newGame("second");
+        GameGuessModel third = newGame("third");
+        repository.save(first);
+        repository.save(second);
+        repository.save(third);
+        guess(repository, first, "lens");
+        guess(repository, first, "ten");
+        guess(repository, second, "nest");
+        repository.remove("third");
+
+        // crash: no final snapshot, only the journal (strict, so fsynced)
+        JournaledGameRepository recovered = open(dir, false);
+        assertEquals(2, recovered.size(), "size");
+        GameGuessModel model = recovered.findById("first");
+        assertEquals(first.getGameState().getOriginal(), model.getGameState().getOriginal(), "original");
+        assertEquals(first.getGameState().getScramble(), model.getGameState().getScramble(), "scramble");
+        assertEquals(first.getGameState().getTotalWords(), model.getGameState().getTotalWords(), "totalWords");
+        assertEquals(Arrays.asList("ten", "lens"), model.getGameState().getGuessedWords(), "guessedWords");
+        assertEquals(first.getCreatedAt(), model.getCreatedAt(), "createdAt");
+        assertEquals(first.getModifiedAt(), model.getModifiedAt(), "modifiedAt");
+        assertEquals(Arrays.asList("nest"), recovered.findById("second").getGameState().getGuessedWords(), "second");
+        assertNull(recovered.findById("third"), "third");
+        recovered.close();
+        repository.close();
+    }
+
+    @Test
+    void givenEvictedAndExpiredGames_whenReopen_thenNotRecovered(@TempDir Path dir) throws Exception {
+        AtomicLong clock = new AtomicLong();
+        InMemoryGameRepository delegate = new InMemoryGameRepository(2, Duration.ofMinutes(30), 1, clock::get, false);
+        JournaledGameRepository repository = new JournaledGameRepository(delegate,
+                new GameJournal(dir, true), ENGINE, Duration.ofHours(1));
+        List<String> dropped = new ArrayList<>();
+        repository.setRemovalListener(dropped::add);
+        repository.save(newGame("evicted"));
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(20));
+        repository.save(newGame("expired"));
+        repository.save(newGame("kept"));
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(20));
+        repository.findById("kept");
+        delegate.expire();
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(15));
+        delegate.expire();
+        assertEquals(Arrays.asList("evicted", "expired"), dropped, "dropped");
+
+        // crash: no final snapshot, only the journal (strict, so fsynced)
+        JournaledGameRepository recovered = open(dir, false);
+        assertEquals(1, recovered.size(), "size");
+        assertNotNull(recovered.findById("kept"), "kept");
+        recovered.close();
+        repository.close();
+    }
+
+    @Test
+    void givenLongIdleGames_whenReopen_thenIdleTimeKept(@TempDir Path dir) throws Exception {
+        JournaledGameRepository repository = open(dir, false);
+        long now = System.currentTimeMillis();
+        GameGuessModel stale = newGame("stale");
+        stale.setCreatedAt(new Date(now - TimeUnit.MINUTES.toMillis(40)));
+        stale.setModifiedAt(stale.getCreatedAt());
+        GameGuessModel idle = newGame("idle");
+        idle.setCreatedAt(new Date(now - TimeUnit.MINUTES.toMillis(40)));
+        idle.setModifiedAt(new Date(now - TimeUnit.MINUTES.toMillis(25)));
+        repository.save(stale);
+        repository.save(idle);
+        repository.close();
+
+        AtomicLong clock = new AtomicLong();
+        JournaledGameRepository recovered = new JournaledGameRepository(
+                new InMemoryGameRepository(100, Duration.ofMinutes(30), 1, clock::get, false),
+                new GameJournal(dir, false), ENGINE, Duration.ofHours(1));
+        assertEquals(1, recovered.size(), "size");
+        assertNull(recovered.findById("stale"), "stale");
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(6));
+        assertNull(recovered.findById("idle"), "idle;after 6 more minutes");
+        recovered.close();
+    }
+
+    @Test
+    void givenSnapshot_whenReopen_thenCompactedAndRecovered(@TempDir Path dir) throws Exception {
+        JournaledGameRepository repository = open(dir, false);
+        GameGuessModel game = newGame("game");
+        repository.save(game);
+        guess(repository, game, "tin");
+        assertTrue(repository.snapshot(), "snapshot");
+        guess(repository, game, "lint");
+        repository.close();
+
+        List<String> files = files(dir);
+        assertEquals(2, files.size(), "files=" + files);
+        assertTrue(files.get(0).startsWith("journal-"), "files=" + files);
+        assertTrue(files.get(1).startsWith("snapshot-"), "files=" + files);
+
+        JournaledGameRepository recovered = open(dir, false);
+        assertEquals(Arrays.asList("tin", "lint"), recovered.findById("game").getGameState().getGuessedWords(), "guessedWords");
+        recovered.close();
+    }
+
+    @Test
+    void givenWordDroppedFromDictionary_whenReopen_thenGameSkipped(@TempDir Path dir) throws Exception {
+        Dictionary dictionary = ENGINE.getDictionary();
+        JournaledGameRepository repository = open(dir, true);
+        GameGuessModel kept = newGame(UUID.randomUUID().toString());
+        kept.setGameState(new GameState("listen", "tsneil", 3, dictionary, dictionary.subWordOrdinals("listen", 3)));
+        GameGuessModel dropped = newGame(UUID.randomUUID().toString());
+        dropped.setGameState(new GameState("silent", "nelist", 3, dictionary, dictionary.subWordOrdinals("silent", 3)));
+        repository.save(kept);
+        repository.save(dropped);
+        guess(repository, kept, "tin");
+
+        // reloaded without "silent", into a delegate that needs the word
+        JumbleEngine reloaded = new JumbleEngine(Dictionary.of(Arrays.asList("listen", "tinsel", "lens", "lint", "nest", "tin", "ten")));
+        JournaledGameRepository recovered = new JournaledGameRepository(
+                new OffHeapGameRepository(100, Duration.ofMinutes(30), 64, System::nanoTime, false),
+                new GameJournal(dir, false), reloaded, Duration.ofHours(1));
+        assertEquals(1, recovered.size(), "size");
+        assertEquals(Arrays.asList("tin"), recovered.findById(kept.getId()).getGameState().getGuessedWords(), "kept");
+        assertNull(recovered.findById(dropped.getId()), "dropped");
+        recovered.close();
+        repository.close();
+    }
+
+    @Test
+    void givenTornJournalTail_whenReopen_thenRecoveredUpToTear(@TempDir Path dir) throws Exception {
+        JournaledGameRepository repository = open(dir, true);
+        GameGuessModel game = newGame("game");
+        repository.save(game);
+        guess(repository, game, "tin");
+
+        List<Path> journals = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(file -> file.getFileName().toString().startsWith("journal-")).forEach(journals::add);
+        }
+        assertEquals(1, journals.size(), "journals");
+        Files.write(journals.get(0), new byte[] { 0, 0, 0, 40, 1, 2, 3 }, StandardOpenOption.APPEND);
+
+        JournaledGameRepository recovered = open(dir, false);
+        assertEquals(Arrays.asList("tin"), recovered.findById("game").getGameState().getGuessedWords(), "guessedWords");
+        recovered.close();
+        repository.close();
+    }
+
+}
@@ -0,0 +1,242 @@
+package asia.fourtitude.interviewq.jumble.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import asia.fourtitude.interviewq.jumble.core.GameState;
+import asia.fourtitude.interviewq.jumble.dictionary.Dictionary;
+import asia.fourtitude.interviewq.jumble.model.GameGuessModel;
+import asia.fourtitude.interviewq.jumble.model.GameGuessOutput;
+
+class OffHeapGameRepositoryTest {
+
+    static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    static final Dictionary DICTIONARY = Dictionary.of(Arrays.asList("silent", "listen", "lint", "nest", "tin", "ten", "net", "orange", "range", "anger"));
+
+    final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+    OffHeapGameRepository repository(int maxEntries) {
+        return new OffHeapGameRepository(maxEntries, Duration.ofMinutes(10), 64, clock::get, false);
+    }
+
+    static GameGuessModel game(String original, String scramble) {
+        GameGuessModel model = new GameGuessModel();
+        model.setId(UUID.randomUUID().toString());
+        model.setCreatedAt(new Date(1000));
+        model.setModifiedAt(new Date(2000));
+        model.setGameState(new GameState(original, scramble, 3, DICTIONARY, DICTIONARY.subWordOrdinals(original, 3)));
+        return model;
+    }
+
+    @Test
+    void whenSaveFindRemove_thenDecoded() {
+        try (OffHeapGameRepository repository = repository(100)) {
+            GameGuessModel model = game("silent", "tnelis");
+            model.getGameState().updateGuessWord("tin");
+            repository.save(model);
+
+            GameGuessModel found = repository.findById(model.getId());
+            assertNotSame(model, found);
+            assertEquals(model.getId(), found.getId());
+            assertEquals(model.getCreatedAt(), found.getCreatedAt());
+            assertEquals(model.getModifiedAt(), found.getModifiedAt());
+            GameState state = found.getGameState();
+            assertEquals("silent", state.getOriginal());
+            assertEquals("tnelis", state.getScramble());
+            assertEquals(model.getGameState().getTotalWords(), state.getTotalWords());
+            assertEquals(Arrays.asList("tin"), state.getGuessedWords());
+
+            assertNull(repository.findById(UUID.randomUUID().toString()));
+            assertNull(repository.findById("not-a-uuid"));
+            assertEquals(1, repository.size());
+
+            assertEquals(model.getId(), repository.remove(model.getId()).getId());
+            assertNull(repository.remove(model.getId()));
+            assertNull(repository.findById(model.getId()));
+            assertEquals(0, repository.size());
+
+            assertThrows(IllegalArgumentException.class, () -> {
+                GameGuessModel invalid = game("silent", "tnelis");
+                invalid.setId("not-a-uuid");
+                repository.save(invalid);
+            });
+        }
+    }
+
+    @Test
+    void givenGuesses_whenGuess_thenAppliedInPlace() {
+        try (OffHeapGameRepository repository = repository(100)) {
+            GameGuessModel model = game("silent", "tnelis");
+            repository.save(model);
+
+            GameGuessOutput output = new GameGuessOutput();
+            GameState.Guess[] outcomes = repository.guess(model.getId(), Arrays.asList("net", "NET", "silent", "zzz", null), new Date(5000), output);
+            assertArrayEquals(new GameState.Guess[] {
+                    GameState.Guess.CORRECT, GameState.Guess.ALREADY_GUESSED, GameState.Guess.INCORRECT,
+                    GameState.Guess.INCORRECT, GameState.Guess.INCORRECT }, outcomes);
+            assertEquals(model.getId(), output.getId());
+            assertEquals("tnelis", output.getScrambleWord());
+            assertEquals(Arrays.asList("net"), output.getGuessedWords());
+            assertEquals(output.getTotalWords() - 1, output.getRemainingWords());
+
+            // a request holding a stale decoded model does not undo it
+            GameGuessModel stale = repository.findById(model.getId());
+            assertEquals(GameState.Guess.ALREADY_GUESSED, stale.getGameState().guess("net"));
+            assertArrayEquals(new GameState.Guess[] { GameState.Guess.ALREADY_GUESSED },
+                    repository.guess(model.getId(), Arrays.asList("net"), new Date(9000), new GameGuessOutput()));
+            assertArrayEquals(new GameState.Guess[] { GameState.Guess.CORRECT },
+                    repository.guess(model.getId(), Arrays.asList("tin"), new Date(6000), new GameGuessOutput()));
+
+            GameGuessModel found = repository.findById(model.getId());
+            assertEquals(Arrays.asList("net", "tin"), found.getGameState().getGuessedWords());
+            assertEquals(new Date(6000), found.getModifiedAt());
+            assertNull(repository.guess(UUID.randomUUID().toString(), Arrays.asList("net"), new Date(), new GameGuessOutput()));
+        }
+    }
+
+    @Test
+    void givenReloadedDictionary_whenOldGamesGone_thenOldDictionaryDropped() {
+        try (OffHeapGameRepository repository = repository(100)) {
+            GameGuessModel removed = game("silent", "tnelis");
+            GameGuessModel replaced = game("orange", "eganro");
+            GameGuessModel expired = game("listen", "nelist");
+            repository.save(removed);
+            repository.save(replaced);
+            repository.save(expired);
+            assertEquals(1, repository.pinnedDictionaries());
+
+            Dictionary reloaded = Dictionary.of(Arrays.asList("silent", "listen", "tin", "orange", "range"));
+            GameGuessModel current = new GameGuessModel();
+            current.setId(UUID.randomUUID().toString());
+            current.setGameState(new GameState("silent", "lentis", 3, reloaded, reloaded.subWordOrdinals("silent", 3)));
+            repository.save(current);
+            assertEquals(2, repository.pinnedDictionaries());
+
+            repository.remove(removed.getId());
+            replaced.setGameState(new GameState("orange", "eganro", 3, reloaded, reloaded.subWordOrdinals("orange", 3)));
+            repository.save(replaced);
+            clock.addAndGet(6 * MINUTE);
+            repository.findById(current.getId());
+            repository.findById(replaced.getId());
+            clock.addAndGet(6 * MINUTE);
+            repository.expire();
+            assertNull(repository.findById(expired.getId()));
+            assertEquals(1, repository.pinnedDictionaries());
+            assertEquals(Arrays.asList("range"), repository.findById(replaced.getId()).getGameState().getSubWords().keySet()
+                    .stream().collect(Collectors.toList()));
+
+            // the freed index is reused
+            repository.save(game("silent", "tnelis"));
+            assertEquals(2, repository.pinnedDictionaries());
+        }
+    }
+
+    @Test
+    void givenIdleGame_whenExpire_thenExpiredAndSlotReused() {
+        try (OffHeapGameRepository repository = repository(100)) {
+            GameGuessModel idle = game("silent", "tnelis");
+            GameGuessModel used = game("orange", "eganro");
+            List<String> dropped = new ArrayList<>();
+            repository.setRemovalListener(dropped::add);
+            repository.save(idle);
+            repository.save(used);
+            long bytes = repository.offHeapBytes();
+
+            clock.addAndGet(6 * MINUTE);
+            assertNotNull(repository.findById(used.getId()));
+            clock.addAndGet(6 * MINUTE);
+            assertNull(repository.findById(idle.getId()));
+            repository.expire();
+            assertEquals(1, repository.size());
+            assertEquals(1, repository.stats().getExpirations());
+            assertEquals(Arrays.asList(idle.getId()), dropped);
+
+            repository.save(game("listen", "nelist"));
+            assertEquals(2, repository.size());
+            assertEquals(bytes, repository.offHeapBytes());
+        }
+    }
+
+    @Test
+    void givenGamesOverTime_whenExpireEachMinute_thenEachExpiredOnceDue() {
+        try (OffHeapGameRepository repository = repository(1000)) {
+            List<GameGuessModel> models = new ArrayList<>();
+            for (int count = 0; count < 500; count++) {
+                GameGuessModel model = game(count % 2 == 0 ? "silent" : "orange", "abcdef");
+                models.add(model);
+                repository.save(model);
+                // replaced: one wheel entry per game still
+                repository.save(model);
+                clock.addAndGet(MINUTE / 50);
+                if (count % 50 == 49) {
+                    repository.expire();
+                }
+            }
+            // saved over 10 minutes, none due yet
+            assertEquals(500, repository.size());
+            assertEquals(0, repository.stats().getExpirations());
+
+            GameGuessModel used = models.get(models.size() - 1);
+            for (int minute = 0; minute < 10; minute++) {
+                clock.addAndGet(MINUTE);
+                assertNotNull(repository.findById(used.getId()));
+                repository.expire();
+            }
+            assertEquals(1, repository.size());
+            assertEquals(499, repository.stats().getExpirations());
+
+            clock.addAndGet(TimeUnit.DAYS.toNanos(3));
+            repository.expire();
+            assertEquals(0, repository.size());
+            assertEquals(500, repository.stats().getExpirations());
+        }
+    }
+
+    @Test
+    void givenFull_whenSave_thenNotRecentlyUsedEvicted() {
+        try (OffHeapGameRepository repository = repository(50)) {
+            List<GameGuessModel> models = new ArrayList<>();
+            for (int count = 0; count < 50; count++) {
+                GameGuessModel model = game(count % 2 == 0 ? "silent" : "orange", "abcdef");
+                models.add(model);
+                repository.save(model);
+            }
+            List<String> dropped = new ArrayList<>();
+            repository.setRemovalListener(dropped::add);
+            // first pass of the clock hand clears every access bit, then the
+            // first game not used since is evicted
+            for (int count = 0; count < 50; count++) {
+                repository.save(game("listen", "nelist"));
+                assertEquals(50, repository.size());
+            }
+            assertEquals(50, repository.stats().getEvictions());
+            assertEquals(models.stream().map(GameGuessModel::getId).collect(Collectors.toList()), dropped);
+            for (GameGuessModel model : models) {
+                assertNull(repository.findById(model.getId()));
+            }
+
+            List<String> ids = new ArrayList<>();
+            repository.forEach(model -> ids.add(model.getId()));
+            assertEquals(50, ids.size());
+
+            // evicted games are no longer on the wheel
+            clock.addAndGet(20 * MINUTE);
+            repository.expire();
+            assertEquals(0, repository.size());
+            assertEquals(50, repository.stats().getExpirations());
+        }
+    }
+
+}